@@ -0,0 +1,83 @@
+package net.mooctest;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Settlement style throughput: classify and Luhn check every
+ * number of a mixed corpus, one card at a time, through the fused
+ * single pass engine and through the fork/join batch API. Scores
+ * are per card.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchThroughputBenchmark {
+    static final int BATCH_SIZE = 100_000;
+
+    private String[] corpus;
+    private BatchResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        corpus = PanCorpus.mixed(BATCH_SIZE, 4L, 20);
+        result = new BatchResult(BATCH_SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchResult batchValidator() {
+        BatchValidator.validate(corpus, result, ForkJoinPool.commonPool());
+
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void classifyAndValidate(Blackhole blackhole) {
+        for (String creditCardNumber : corpus) {
+            blackhole.consume(TypeChecker.checkType(creditCardNumber));
+            blackhole.consume(LuhnEngine.check(creditCardNumber));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void fusedEngine(Blackhole blackhole) {
+        BinRangeTable table = TypeChecker.currentTable();
+
+        for (String creditCardNumber : corpus) {
+            blackhole.consume(FusedEngine.evaluate(table, creditCardNumber));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void validatorPerCard(Blackhole blackhole) {
+        for (String creditCardNumber : corpus) {
+            blackhole.consume(TypeChecker.checkType(creditCardNumber));
+            try {
+                blackhole.consume(new Validator(creditCardNumber).validate());
+            } catch (InvalidCardException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
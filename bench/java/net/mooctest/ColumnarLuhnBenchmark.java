@@ -0,0 +1,67 @@
+package net.mooctest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Bulk Luhn check of a columnar batch against one number at a time.
+ * The columnar kernel is vectorized only when the forked JVM gets the
+ * incubator module:
+ * java -jar target/benchmarks.jar ColumnarLuhn -jvmArgsAppend "--add-modules=jdk.incubator.vector"
+ * Scores are per card.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnarLuhnBenchmark {
+    static final int BATCH_SIZE = 16_384;
+
+    private final LuhnValidator luhnValidator = new LuhnValidator();
+    private byte[][] bytes;
+    private PanColumns columns;
+    private boolean[] results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] corpus = PanCorpus.mixed(BATCH_SIZE, 5L, 10);
+
+        bytes = new byte[BATCH_SIZE][];
+        columns = new PanColumns(BATCH_SIZE, 24);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            bytes[i] = corpus[i].getBytes(StandardCharsets.US_ASCII);
+            columns.add(corpus[i]);
+        }
+        results = new boolean[BATCH_SIZE];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void swarPerCard(Blackhole blackhole) {
+        for (byte[] creditCardNumber : bytes) {
+            blackhole.consume(SwarLuhn.check(creditCardNumber, 0, creditCardNumber.length));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public boolean[] columnar() {
+        return luhnValidator.validate(columns, results);
+    }
+}
@@ -0,0 +1,49 @@
+package net.mooctest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Expiration date handling: constructing a Validator, which
+ * parses the date, and checking an already parsed date.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpirationDateBenchmark {
+    private static final String[] DATES = {"01/27", "12/24", "0629", "11/31"};
+
+    private Validator validator;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validator = new Validator("4532015112830366", "12/30", "123");
+    }
+
+    @Benchmark
+    public boolean checkExpirationDate() {
+        return validator.checkExpirationDate();
+    }
+
+    @Benchmark
+    public boolean parseAndCheckExpirationDate() {
+        String date = DATES[next++ & (DATES.length - 1)];
+
+        return new Validator("4532015112830366", date, "123").checkExpirationDate();
+    }
+}
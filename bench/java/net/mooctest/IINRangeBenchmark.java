@@ -0,0 +1,83 @@
+package net.mooctest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Per network checkIINRanges cost, on a number of the network
+ * itself (hit) and on a number no network claims (miss), which
+ * is the worst case of the range loops.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IINRangeBenchmark {
+    @Param({"VISA", "MASTERCARD", "DISCOVER", "AMERICAN_EXPRESS", "VISA_ELECTRON", "MAESTRO", "MAESTRO_UK",
+            "JCB", "CHINA_TUNION", "CHINA_UNIONPAY", "DINERS_CLUB_INTERNATIONAL", "DINERS_CLUB", "RUPAY",
+            "INTERPAYMENT", "INSTAPAYMENT", "DANKORT", "MIR", "NPS_PRIDNESTROVIE", "TROY", "UATP", "VERVE",
+            "LANKAPAY"})
+    public CreditCardType network;
+
+    private CreditCardValidator hit;
+    private CreditCardValidator miss;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hit = validatorFor(network, PanCorpus.generate(network, new Random(3L), true));
+        miss = validatorFor(network, "9999999999999999999");
+    }
+
+    @Benchmark
+    public boolean checkIINRangesHit() {
+        return hit.checkIINRanges();
+    }
+
+    @Benchmark
+    public boolean checkIINRangesMiss() {
+        return miss.checkIINRanges();
+    }
+
+    static CreditCardValidator validatorFor(CreditCardType type, String number) {
+        switch (type) {
+            case VISA: return new VisaValidator(number);
+            case MASTERCARD: return new MasterCardValidator(number);
+            case DISCOVER: return new DiscoverValidator(number);
+            case AMERICAN_EXPRESS: return new AmericanExpressValidator(number);
+            case VISA_ELECTRON: return new VisaElectronValidator(number);
+            case MAESTRO: return new MaestroValidator(number);
+            case MAESTRO_UK: return new MaestroUKValidator(number);
+            case JCB: return new JCBValidator(number);
+            case CHINA_TUNION: return new ChinaTUnionValidator(number);
+            case CHINA_UNIONPAY: return new ChinaUnionPayValidator(number);
+            case DINERS_CLUB_INTERNATIONAL: return new DinersClubInternationalValidator(number);
+            case DINERS_CLUB: return new DinersClubValidator(number);
+            case RUPAY: return new RuPayValidator(number);
+            case INTERPAYMENT: return new InterPaymentValidator(number);
+            case INSTAPAYMENT: return new InstaPaymenttValidator(number);
+            case DANKORT: return new DankortValidator(number);
+            case MIR: return new MIRValidator(number);
+            case NPS_PRIDNESTROVIE: return new NPS_PridnestrovieValidator(number);
+            case TROY: return new TroyValidator(number);
+            case UATP: return new UATPValidator(number);
+            case VERVE: return new VerveValidator(number);
+            case LANKAPAY: return new LankaPayValidator(number);
+            default: throw new IllegalArgumentException(type.name());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.mooctest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Authorization request validation from ISO 8583 bytes: the zero
+ * copy reader over ASCII and BCD messages against decoding field 2
+ * and field 14 to Strings for the Validator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Iso8583Benchmark {
+    private static final long FIELDS = bit(2) | bit(3) | bit(4) | bit(7) | bit(11) | bit(14);
+
+    private final Iso8583Reader asciiReader = new Iso8583Reader(Iso8583Encoding.ASCII);
+    private final Iso8583Reader bcdReader = new Iso8583Reader(Iso8583Encoding.BCD);
+    private byte[][] ascii;
+    private ByteBuffer[] bcd;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] corpus = PanCorpus.mixed(1024, 7L, 10);
+        Random random = new Random(7L);
+
+        ascii = new byte[corpus.length][];
+        bcd = new ByteBuffer[corpus.length];
+        for (int i = 0; i < corpus.length; i++) {
+            String expiry = String.format("%02d%02d", 25 + random.nextInt(6), 1 + random.nextInt(12));
+            ascii[i] = message(true, corpus[i], expiry);
+            bcd[i] = ByteBuffer.wrap(message(false, corpus[i], expiry));
+        }
+    }
+
+    private static long bit(int field) {
+        return 1L << (64 - field);
+    }
+
+    private static byte[] message(boolean ascii, String pan, String expiry) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        numeric(out, ascii, "0100");
+        if (ascii) {
+            byte[] hex = String.format("%016X", FIELDS).getBytes(StandardCharsets.US_ASCII);
+            out.write(hex, 0, hex.length);
+        } else {
+            for (int i = 7; i >= 0; i--) {
+                out.write((int) (FIELDS >>> (i * 8)));
+            }
+        }
+        numeric(out, ascii, String.format("%02d", pan.length()));
+        numeric(out, ascii, pan.length() % 2 == 0 || ascii ? pan : pan + "F");
+        numeric(out, ascii, "000000");
+        numeric(out, ascii, "000000012345");
+        numeric(out, ascii, "1017103000");
+        numeric(out, ascii, "123456");
+        numeric(out, ascii, expiry);
+
+        return out.toByteArray();
+    }
+
+    private static void numeric(ByteArrayOutputStream out, boolean ascii, String digits) {
+        if (ascii) {
+            byte[] bytes = digits.getBytes(StandardCharsets.US_ASCII);
+            out.write(bytes, 0, bytes.length);
+        } else {
+            for (int i = 0; i < digits.length(); i += 2) {
+                out.write(Integer.parseInt(digits.substring(i, i + 2), 16));
+            }
+        }
+    }
+
+    @Benchmark
+    public int asciiReader() {
+        byte[] message = ascii[next++ & (ascii.length - 1)];
+
+        asciiReader.read(message, 0, message.length);
+        return asciiReader.validate();
+    }
+
+    @Benchmark
+    public int bcdReader() {
+        bcdReader.read(bcd[next++ & (bcd.length - 1)]);
+
+        return bcdReader.validate();
+    }
+
+    @Benchmark
+    public int decodeToStrings() {
+        byte[] message = ascii[next++ & (ascii.length - 1)];
+
+        asciiReader.read(message, 0, message.length);
+        String pan = new String(message, asciiReader.panStart(), asciiReader.panDigits(), StandardCharsets.US_ASCII);
+        int expiry = asciiReader.expiryStart();
+        String expirationDate = new String(message, expiry + 2, 2, StandardCharsets.US_ASCII) + "/"
+                + new String(message, expiry, 2, StandardCharsets.US_ASCII);
+
+        return new Validator(pan, expirationDate, "123").check();
+    }
+}
@@ -0,0 +1,67 @@
+package net.mooctest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Luhn check of a single card number: the List based reference
+ * implementation against the in place engine, and the scalar engine
+ * against the SWAR one over ASCII bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LuhnBenchmark {
+    private final LuhnValidator luhnValidator = new LuhnValidator();
+    private String[] corpus;
+    private byte[][] bytes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        corpus = PanCorpus.mixed(4096, 2L, 10);
+        bytes = new byte[corpus.length][];
+        for (int i = 0; i < corpus.length; i++) {
+            bytes[i] = corpus[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Benchmark
+    public boolean algorithmCheck() {
+        return luhnValidator.algorithmCheck(corpus[next++ & (corpus.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean luhnEngine() {
+        return LuhnEngine.check(corpus[next++ & (corpus.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean luhnEngineBytes() {
+        byte[] creditCardNumber = bytes[next++ & (bytes.length - 1)];
+
+        return LuhnEngine.check(creditCardNumber, 0, creditCardNumber.length);
+    }
+
+    @Benchmark
+    public boolean swarBytes() {
+        byte[] creditCardNumber = bytes[next++ & (bytes.length - 1)];
+
+        return SwarLuhn.check(creditCardNumber, 0, creditCardNumber.length);
+    }
+}
@@ -0,0 +1,101 @@
+package net.mooctest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ * Seeded generator of realistic card number corpora for the
+ * benchmarks. Every generated number carries a valid Luhn
+ * check digit unless asked otherwise.
+ */
+final class PanCorpus {
+    /*
+     * Representative prefix & length per card type
+     */
+    private static final Map<CreditCardType, Object[]> SAMPLES = new EnumMap<>(CreditCardType.class);
+
+    static {
+        SAMPLES.put(CreditCardType.VISA, new Object[] {"4", 16});
+        SAMPLES.put(CreditCardType.MASTERCARD, new Object[] {"52", 16});
+        SAMPLES.put(CreditCardType.DISCOVER, new Object[] {"6011", 16});
+        SAMPLES.put(CreditCardType.AMERICAN_EXPRESS, new Object[] {"37", 15});
+        SAMPLES.put(CreditCardType.VISA_ELECTRON, new Object[] {"4026", 16});
+        SAMPLES.put(CreditCardType.MAESTRO, new Object[] {"5700", 19});
+        SAMPLES.put(CreditCardType.MAESTRO_UK, new Object[] {"6759", 18});
+        SAMPLES.put(CreditCardType.JCB, new Object[] {"3530", 16});
+        SAMPLES.put(CreditCardType.CHINA_TUNION, new Object[] {"31", 19});
+        SAMPLES.put(CreditCardType.CHINA_UNIONPAY, new Object[] {"62", 17});
+        SAMPLES.put(CreditCardType.DINERS_CLUB_INTERNATIONAL, new Object[] {"302", 16});
+        SAMPLES.put(CreditCardType.DINERS_CLUB, new Object[] {"54", 16});
+        SAMPLES.put(CreditCardType.RUPAY, new Object[] {"60", 16});
+        SAMPLES.put(CreditCardType.INTERPAYMENT, new Object[] {"636", 18});
+        SAMPLES.put(CreditCardType.INSTAPAYMENT, new Object[] {"638", 16});
+        SAMPLES.put(CreditCardType.DANKORT, new Object[] {"5019", 16});
+        SAMPLES.put(CreditCardType.MIR, new Object[] {"2202", 16});
+        SAMPLES.put(CreditCardType.NPS_PRIDNESTROVIE, new Object[] {"6054742", 16});
+        SAMPLES.put(CreditCardType.TROY, new Object[] {"979250", 16});
+        SAMPLES.put(CreditCardType.UATP, new Object[] {"000001", 15});
+        SAMPLES.put(CreditCardType.VERVE, new Object[] {"506120", 16});
+        SAMPLES.put(CreditCardType.LANKAPAY, new Object[] {"357111", 16});
+        SAMPLES.put(CreditCardType.OTHER, new Object[] {"9", 16});
+    }
+
+    /*
+     * Share of authorization traffic per card type in the mixed
+     * corpus, the remainder is spread over the other networks
+     */
+    private static final CreditCardType[] MIX = {
+            CreditCardType.VISA, CreditCardType.VISA, CreditCardType.VISA, CreditCardType.VISA,
+            CreditCardType.VISA, CreditCardType.MASTERCARD, CreditCardType.MASTERCARD,
+            CreditCardType.MASTERCARD, CreditCardType.AMERICAN_EXPRESS, CreditCardType.DISCOVER
+    };
+
+    private PanCorpus() {
+    }
+
+    /*
+     * @param card type, source of randomness & whether the check
+     * digit should be valid
+     * @return a card number of the given type
+     */
+    static String generate(CreditCardType type, Random random, boolean validLuhn) {
+        Object[] sample = SAMPLES.get(type);
+        String prefix = (String) sample[0];
+        int length = (Integer) sample[1];
+        char[] digits = new char[length];
+
+        prefix.getChars(0, prefix.length(), digits, 0);
+        for (int i = prefix.length(); i < length - 1; i++) {
+            digits[i] = (char) ('0' + random.nextInt(10));
+        }
+        digits[length - 1] = '0';
+        for (int check = 0; check < 10; check++) {
+            digits[length - 1] = (char) ('0' + check);
+            if (LuhnEngine.check(digits, 0, length) == validLuhn) {
+                break;
+            }
+        }
+
+        return new String(digits);
+    }
+
+    /*
+     * @param corpus size, seed & share of invalid numbers in percent
+     * @return mixed network corpus weighted like card present traffic
+     */
+    static String[] mixed(int size, long seed, int invalidPercent) {
+        Random random = new Random(seed);
+        CreditCardType[] types = CreditCardType.values();
+        String[] corpus = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            CreditCardType type = random.nextInt(10) < 8
+                    ? MIX[random.nextInt(MIX.length)]
+                    : types[random.nextInt(types.length)];
+            corpus[i] = generate(type, random, random.nextInt(100) >= invalidPercent);
+        }
+
+        return corpus;
+    }
+}
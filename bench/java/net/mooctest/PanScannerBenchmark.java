@@ -0,0 +1,103 @@
+package net.mooctest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * PAN detection and redaction over an application log: timestamps,
+ * ids and amounts on every line, a leaked card number every few
+ * hundred lines. Scores are bytes (chars) per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PanScannerBenchmark {
+    static final int LOG_SIZE = 8 * 1024 * 1024;
+
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private byte[] bytes;
+    private char[] chars;
+    private PanScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String log = log(LOG_SIZE, 6L);
+
+        bytes = log.getBytes(StandardCharsets.US_ASCII);
+        chars = log.toCharArray();
+        scanner = new PanScanner((start, end, type) -> { });
+    }
+
+    static String log(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder log = new StringBuilder(size + 256);
+
+        while (log.length() < size) {
+            log.append(String.format("2026-10-17T%02d:%02d:%02d.%03dZ INFO [worker-%d] request id=%08x user=u%d "
+                            + "amount=%d.%02d status=200 latency_ms=%d",
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000),
+                    random.nextInt(32), random.nextInt(), random.nextInt(100000), random.nextInt(10000),
+                    random.nextInt(100), random.nextInt(500)));
+            if (random.nextInt(300) == 0) {
+                log.append(" pan=").append(PanCorpus.generate(CreditCardType.VISA, random, true));
+            }
+            log.append('\n');
+        }
+        log.setLength(size);
+
+        return log.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOG_SIZE)
+    public long scanBytes() {
+        scanner.reset();
+        scanner.scan(bytes, 0, bytes.length);
+
+        return scanner.finish();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOG_SIZE)
+    public long scanChars() {
+        scanner.reset();
+        scanner.scan(chars, 0, chars.length);
+
+        return scanner.finish();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOG_SIZE)
+    public long redactBytes() throws IOException {
+        return PanMasker.DEFAULT.redact(new ByteArrayInputStream(bytes), DISCARD);
+    }
+}
@@ -0,0 +1,94 @@
+package net.mooctest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Card present validation from raw magnetic stripe data: the in
+ * place parser per track and over a settlement batch of Track 2
+ * lines against splitting the track into Strings for the Validator.
+ * Scores are per track.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrackDataBenchmark {
+    static final int TRACKS = 1024;
+
+    private final TrackDataParser parser = new TrackDataParser();
+    private char[][] tracks;
+    private byte[] batch;
+    private int[] codes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] corpus = PanCorpus.mixed(TRACKS, 9L, 10);
+        Random random = new Random(9L);
+        StringBuilder lines = new StringBuilder();
+
+        tracks = new char[TRACKS][];
+        for (int i = 0; i < TRACKS; i++) {
+            String expiry = String.format("%02d%02d", 25 + random.nextInt(6), 1 + random.nextInt(12));
+            String track = i % 2 == 0
+                    ? "%B" + corpus[i] + "^DOE/JOHN^" + expiry + "1010000000000?"
+                    : ";" + corpus[i] + "=" + expiry + "10100000000?";
+            tracks[i] = track.toCharArray();
+            lines.append(';').append(corpus[i]).append('=').append(expiry).append("10100000000?\n");
+        }
+        batch = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        codes = new int[TRACKS];
+    }
+
+    @Benchmark
+    public int parser() {
+        char[] track = tracks[next++ & (TRACKS - 1)];
+
+        parser.parse(track, 0, track.length);
+        return parser.validate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRACKS)
+    public int[] batch() {
+        parser.validateLines(batch, 0, batch.length, codes);
+
+        return codes;
+    }
+
+    @Benchmark
+    public int splitToStrings() {
+        String track = new String(tracks[next++ & (TRACKS - 1)]);
+        String pan;
+        String expiry;
+
+        if (track.charAt(0) == '%') {
+            String[] fields = track.substring(2).split("\\^");
+            pan = fields[0];
+            expiry = fields[2].substring(0, 4);
+        } else {
+            int separator = track.indexOf('=');
+            pan = track.substring(1, separator);
+            expiry = track.substring(separator + 1, separator + 5);
+        }
+
+        return new Validator(pan, expiry.substring(2) + "/" + expiry.substring(0, 2), "123").check();
+    }
+}
@@ -0,0 +1,51 @@
+package net.mooctest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Card type classification over a mixed network corpus, straight
+ * from the table and through a BIN cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeCheckerBenchmark {
+    private String[] corpus;
+    private BinCache cache;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        corpus = PanCorpus.mixed(4096, 1L, 0);
+        cache = new BinCache(BinRangeTable.builtIn(), 1024);
+    }
+
+    @Benchmark
+    public CreditCardType checkType() {
+        String creditCardNumber = corpus[next++ & (corpus.length - 1)];
+
+        return TypeChecker.checkType(creditCardNumber);
+    }
+
+    @Benchmark
+    public CreditCardType checkTypeCached() {
+        String creditCardNumber = corpus[next++ & (corpus.length - 1)];
+
+        return cache.classify(creditCardNumber);
+    }
+}
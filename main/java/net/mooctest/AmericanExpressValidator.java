@@ -1,22 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.*;
-
 /*
  * American Express format:
  * length = 15
  * IIN range = 34 - 37
  */
 public class AmericanExpressValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.AMERICAN_EXPRESS);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public AmericanExpressValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
     /*
      * Check the length of the card against the format
@@ -27,13 +24,7 @@ public class AmericanExpressValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 15) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -44,17 +35,6 @@ public class AmericanExpressValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {34, 37};
-        int IIN = parseIIN(creditCardNumberList, 2);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (IIN == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
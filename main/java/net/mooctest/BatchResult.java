@@ -0,0 +1,122 @@
+package net.mooctest;
+
+import java.util.Arrays;
+
+/*
+ * Primitive, reusable result array of a batch validation: the packed
+ * ValidationResult code of every card number, its card type ordinal
+ * in the low byte and one flag per failed check above it.
+ */
+public final class BatchResult {
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private int[] codes;
+    private int size;
+
+    /*
+     * @param number of card numbers the array is sized for
+     */
+    public BatchResult(int capacity) {
+        codes = new int[capacity];
+    }
+
+    /*
+     * Grow the array when needed and reset the size so the same
+     * result can be reused for the next batch.
+     */
+    void reset(int newSize) {
+        if (newSize > codes.length) {
+            codes = new int[newSize];
+        }
+        size = newSize;
+    }
+
+    void set(int index, int code) {
+        codes[index] = code;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @param index in the batch
+     * @return the packed ValidationResult code of the card number
+     */
+    public int codeAt(int index) {
+        checkIndex(index);
+
+        return codes[index];
+    }
+
+    public CreditCardType typeAt(int index) {
+        return TYPES[typeOrdinalAt(index)];
+    }
+
+    public int typeOrdinalAt(int index) {
+        return codeAt(index) & ValidationResult.TYPE_MASK;
+    }
+
+    public boolean isLuhnValid(int index) {
+        return (codeAt(index) & ValidationResult.LUHN_FAILED) == 0;
+    }
+
+    /*
+     * @param index in the batch
+     * @return boolean of whether or not the leading digits belong to
+     * a known card type, whatever the length
+     */
+    public boolean isIinValid(int index) {
+        return (codeAt(index) & (ValidationResult.IIN_FAILED | ValidationResult.MALFORMED)) == 0;
+    }
+
+    /*
+     * @param index in the batch
+     * @return boolean of whether or not the length is one the card
+     * type of the leading digits allows, false for an unknown IIN
+     */
+    public boolean isLengthValid(int index) {
+        return (codeAt(index) & (ValidationResult.LENGTH_FAILED | ValidationResult.IIN_FAILED
+                | ValidationResult.MALFORMED)) == 0;
+    }
+
+    /*
+     * @return number of cards per CreditCardType, indexed by ordinal
+     */
+    public long[] countByType() {
+        long[] counts = new long[TYPES.length];
+
+        for (int i = 0; i < size; i++) {
+            counts[codes[i] & ValidationResult.TYPE_MASK]++;
+        }
+
+        return counts;
+    }
+
+    /*
+     * @return the type ordinals of the batch, one per card number
+     */
+    public byte[] typeOrdinals() {
+        byte[] types = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            types[i] = (byte) codes[i];
+        }
+
+        return types;
+    }
+
+    /*
+     * @return the packed ValidationResult codes of the batch, one per
+     * card number
+     */
+    public int[] codes() {
+        return Arrays.copyOf(codes, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package net.mooctest;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Bulk classify & validate API for settlement files. Card numbers
+ * are split across a ForkJoinPool and every result lands in the
+ * primitive array of a BatchResult, no object is created per card.
+ */
+public final class BatchValidator {
+    /*
+     * Smallest slice worth handing to another worker
+     */
+    static final int MIN_THRESHOLD = 1024;
+
+    /*
+     * Slices per worker, enough for work stealing to even out
+     * slower slices
+     */
+    private static final int SLICES_PER_WORKER = 8;
+
+    private BatchValidator() {
+    }
+
+    /*
+     * @param card numbers, null entries are reported as invalid
+     * @return the batch result, computed on the common pool
+     */
+    public static BatchResult validate(CharSequence[] creditCardNumbers) {
+        BatchResult result = new BatchResult(creditCardNumbers.length);
+        validate(creditCardNumbers, result, ForkJoinPool.commonPool());
+
+        return result;
+    }
+
+    /*
+     * @param card numbers, null entries are reported as invalid
+     * @return the batch result, computed on the common pool
+     */
+    public static BatchResult validate(List<? extends CharSequence> creditCardNumbers) {
+        BatchResult result = new BatchResult(creditCardNumbers.size());
+        validate(creditCardNumbers, result, ForkJoinPool.commonPool());
+
+        return result;
+    }
+
+    /*
+     * @param card numbers, the result to fill (reused when large
+     * enough) & the pool running the work
+     */
+    public static void validate(CharSequence[] creditCardNumbers, BatchResult result, ForkJoinPool pool) {
+        result.reset(creditCardNumbers.length);
+        pool.invoke(new BatchTask(creditCardNumbers, result, 0, creditCardNumbers.length,
+                threshold(creditCardNumbers.length, pool)));
+    }
+
+    /*
+     * @param card numbers, the result to fill (reused when large
+     * enough) & the pool running the work
+     */
+    public static void validate(List<? extends CharSequence> creditCardNumbers, BatchResult result,
+                                ForkJoinPool pool) {
+        if (!(creditCardNumbers instanceof RandomAccess)) {
+            validate(creditCardNumbers.toArray(new CharSequence[0]), result, pool);
+            return;
+        }
+        result.reset(creditCardNumbers.size());
+        pool.invoke(new BatchTask(creditCardNumbers, result, 0, creditCardNumbers.size(),
+                threshold(creditCardNumbers.size(), pool)));
+    }
+
+    /*
+     * @param packed card numbers
+     * @return the batch result, computed on the common pool
+     */
+    public static BatchResult validate(PackedPanBatch creditCardNumbers) {
+        BatchResult result = new BatchResult(creditCardNumbers.size());
+        validate(creditCardNumbers, result, ForkJoinPool.commonPool());
+
+        return result;
+    }
+
+    /*
+     * @param packed card numbers, the result to fill (reused when
+     * large enough) & the pool running the work
+     */
+    public static void validate(PackedPanBatch creditCardNumbers, BatchResult result, ForkJoinPool pool) {
+        result.reset(creditCardNumbers.size());
+        pool.invoke(new BatchTask(null, null, creditCardNumbers, result, 0, creditCardNumbers.size(),
+                threshold(creditCardNumbers.size(), pool)));
+    }
+
+    /*
+     * @return slice size giving every worker several slices while
+     * never going below MIN_THRESHOLD
+     */
+    static int threshold(int size, ForkJoinPool pool) {
+        return Math.max(MIN_THRESHOLD, size / (pool.getParallelism() * SLICES_PER_WORKER));
+    }
+
+    /*
+     * Classify & validate a single card number into the result.
+     */
+    static void validateInto(CharSequence creditCardNumber, BatchResult result, int index) {
+        if (creditCardNumber == null) {
+            result.set(index, FusedEngine.MALFORMED_CODE);
+            return;
+        }
+
+        result.set(index, FusedEngine.evaluate(TypeChecker.currentTable(), creditCardNumber));
+    }
+
+    /*
+     * Classify & validate a packed card number into the result.
+     */
+    static void validateInto(PackedPanBatch creditCardNumbers, BinRangeTable table, BatchResult result, int index) {
+        result.set(index, creditCardNumbers.code(index, table));
+    }
+
+    /*
+     * Splits its slice in halves until it is below the threshold.
+     */
+    private static final class BatchTask extends RecursiveAction {
+        private final CharSequence[] array;
+        private final List<? extends CharSequence> list;
+        private final PackedPanBatch packed;
+        private final BatchResult result;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BatchTask(CharSequence[] array, BatchResult result, int from, int to, int threshold) {
+            this(array, null, null, result, from, to, threshold);
+        }
+
+        BatchTask(List<? extends CharSequence> list, BatchResult result, int from, int to, int threshold) {
+            this(null, list, null, result, from, to, threshold);
+        }
+
+        BatchTask(CharSequence[] array, List<? extends CharSequence> list, PackedPanBatch packed,
+                  BatchResult result, int from, int to, int threshold) {
+            this.array = array;
+            this.list = list;
+            this.packed = packed;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                if (packed != null) {
+                    BinRangeTable table = TypeChecker.currentTable();
+                    for (int i = from; i < to; i++) {
+                        validateInto(packed, table, result, i);
+                    }
+                    return;
+                }
+                for (int i = from; i < to; i++) {
+                    validateInto(array != null ? array[i] : list.get(i), result, i);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(array, list, packed, result, from, middle, threshold),
+                    new BatchTask(array, list, packed, result, middle, to, threshold));
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Bounded cache from the packed BIN prefix of a card number to the
+ * row of a BinRangeTable, which holds the card type for every length
+ * and the allowed-length mask.
+ *
+ * Authorization traffic is concentrated on a few thousand BINs, a hit
+ * skips the segment search; the length is still checked per number.
+ * It pays off for large loaded tables whose search misses the CPU
+ * caches, the built in table is small enough to be faster uncached.
+ *
+ * The cache is split in lock striped segments picked by the prefix
+ * hash. Each stripe keeps its entries in primitive arrays: a chained
+ * hash table and a doubly linked eviction list, nothing is allocated
+ * once the cache is warm.
+ */
+public final class BinCache {
+    public static final int DEFAULT_STRIPES = 16;
+
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+    private static final int NONE = -1;
+
+    private final BinRangeTable table;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int capacity;
+    private final CacheEviction eviction;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /*
+     * @param the table to cache lookups of & maximum number of cached
+     * prefixes, LRU eviction over DEFAULT_STRIPES stripes
+     */
+    public BinCache(BinRangeTable table, int capacity) {
+        this(table, capacity, DEFAULT_STRIPES, CacheEviction.LRU);
+    }
+
+    /*
+     * @param the table to cache lookups of, maximum number of cached
+     * prefixes, number of lock stripes (rounded up to a power of two)
+     * & eviction policy
+     */
+    public BinCache(BinRangeTable table, int capacity, int stripeCount, CacheEviction eviction) {
+        if (table == null || eviction == null) {
+            throw new IllegalArgumentException("BIN cache needs a table and an eviction policy");
+        }
+        if (capacity < 1 || stripeCount < 1) {
+            throw new IllegalArgumentException("Invalid BIN cache size: " + capacity + " in " + stripeCount
+                    + " stripes");
+        }
+        int count = Integer.highestOneBit(Math.min(stripeCount, capacity) * 2 - 1);
+        int perStripe = (capacity + count - 1) / count;
+
+        this.table = table;
+        this.capacity = capacity;
+        this.eviction = eviction;
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /*
+     * @return an empty cache configured like this one for another table
+     */
+    BinCache forTable(BinRangeTable other) {
+        return new BinCache(other, capacity, stripes.length, eviction);
+    }
+
+    /*
+     * @return the table this cache answers for
+     */
+    public BinRangeTable table() {
+        return table;
+    }
+
+    /*
+     * Classify a credit card number reading its digits once.
+     *
+     * @param a CharSequence representation of the credit card number
+     * @return CreditCardType enumerable, OTHER if the number contains
+     * anything other than digits or matches no range
+     */
+    public CreditCardType classify(CharSequence creditCardNumber) {
+        int length = creditCardNumber.length();
+        int prefix = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return CreditCardType.OTHER;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+        }
+
+        return TYPES[typeOrdinal(length, prefix)];
+    }
+
+    /*
+     * @param packed credit card number
+     * @return CreditCardType enumerable, OTHER if the number contains
+     * anything other than digits or matches no range
+     */
+    public CreditCardType classify(PackedPan creditCardNumber) {
+        long high = creditCardNumber.high();
+        int length = creditCardNumber.length();
+
+        if (length < BinRangeTable.PREFIX_DIGITS || !PackedPan.isNumeric(high, creditCardNumber.low(), length)) {
+            return CreditCardType.OTHER;
+        }
+
+        return TYPES[typeOrdinal(length, (int) PackedPan.prefix(high, BinRangeTable.PREFIX_DIGITS))];
+    }
+
+    /*
+     * Classify a credit card number and hand back its leading digits
+     * read in the same pass.
+     *
+     * @param a CharSequence representation of the credit card number &
+     * a scratch array receiving in slot k - 1 the value of the first k
+     * digits, for k up to PREFIX_DIGITS and the array length
+     * @return CreditCardType enumerable, OTHER if the number contains
+     * anything other than digits or matches no range
+     */
+    public CreditCardType classify(CharSequence creditCardNumber, int[] prefixes) {
+        int length = creditCardNumber.length();
+        int scratch = Math.min(prefixes.length, BinRangeTable.PREFIX_DIGITS);
+        int prefix = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return CreditCardType.OTHER;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+                if (i < scratch) {
+                    prefixes[i] = prefix;
+                }
+            }
+        }
+
+        return TYPES[typeOrdinal(length, prefix)];
+    }
+
+    /*
+     * @param the card number length and its first PREFIX_DIGITS digits
+     * as an int
+     * @return the ordinal of the matching CreditCardType
+     */
+    public int typeOrdinal(int length, int prefix) {
+        if (length < BinRangeTable.PREFIX_DIGITS || length > BinRangeTable.MAX_LENGTH) {
+            return CreditCardType.OTHER.ordinal();
+        }
+
+        return table.rowTypeOrdinal(row(prefix), length);
+    }
+
+    /*
+     * @param the first PREFIX_DIGITS digits of a card number as an int
+     * @return mask of the lengths the card types claiming the prefix
+     * allow, 0 if no card type claims it
+     */
+    public int lengthMask(int prefix) {
+        return table.rowLengthMask(row(prefix));
+    }
+
+    private int row(int prefix) {
+        long key = prefix;
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & stripeMask];
+        int row = stripe.get(key, hash, eviction == CacheEviction.LRU);
+
+        if (row != NONE) {
+            hits.increment();
+            return row;
+        }
+        misses.increment();
+        row = table.rowOf(prefix);
+        stripe.put(key, hash, row);
+
+        return row;
+    }
+
+    /*
+     * @return number of lookups answered from the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /*
+     * @return number of lookups that had to search the table
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /*
+     * @return maximum number of cached prefixes
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /*
+     * @return number of cached prefixes
+     */
+    public int size() {
+        int size = 0;
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+
+        return size;
+    }
+
+    /*
+     * Drop every cached prefix, the counters are kept.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (mixed >>> 32) ^ (int) mixed;
+    }
+
+    /*
+     * One lock striped segment: a chained hash table over entry slots
+     * that are also linked from most to least recently used.
+     */
+    private static final class Stripe {
+        private final int capacity;
+        private final int[] buckets;
+        private final int bucketShift;
+        private final long[] keys;
+        private final int[] rows;
+        private final int[] chain;
+        private final int[] newer;
+        private final int[] older;
+        private int head = NONE;
+        private int tail = NONE;
+        private int size;
+
+        Stripe(int capacity) {
+            int bucketCount = Integer.highestOneBit(capacity * 2 - 1) * 2;
+
+            this.capacity = capacity;
+            this.buckets = new int[bucketCount];
+            this.bucketShift = Integer.SIZE - Integer.numberOfTrailingZeros(bucketCount);
+            this.keys = new long[capacity];
+            this.rows = new int[capacity];
+            this.chain = new int[capacity];
+            this.newer = new int[capacity];
+            this.older = new int[capacity];
+            Arrays.fill(buckets, NONE);
+        }
+
+        synchronized int get(long key, int hash, boolean touch) {
+            for (int entry = buckets[bucket(hash)]; entry != NONE; entry = chain[entry]) {
+                if (keys[entry] == key) {
+                    if (touch && entry != head) {
+                        unlink(entry);
+                        pushHead(entry);
+                    }
+                    return rows[entry];
+                }
+            }
+
+            return NONE;
+        }
+
+        synchronized void put(long key, int hash, int row) {
+            int bucket = bucket(hash);
+
+            for (int entry = buckets[bucket]; entry != NONE; entry = chain[entry]) {
+                if (keys[entry] == key) {
+                    rows[entry] = row;
+                    return;
+                }
+            }
+
+            int entry;
+            if (size < capacity) {
+                entry = size++;
+            } else {
+                entry = tail;
+                unlink(entry);
+                removeFromBucket(entry, bucket(hash((keys[entry]))));
+            }
+            keys[entry] = key;
+            rows[entry] = row;
+            chain[entry] = buckets[bucket];
+            buckets[bucket] = entry;
+            pushHead(entry);
+        }
+
+        synchronized void clear() {
+            Arrays.fill(buckets, NONE);
+            head = NONE;
+            tail = NONE;
+            size = 0;
+        }
+
+        private int bucket(int hash) {
+            // the low bits pick the stripe, the high bits the bucket
+            return hash >>> bucketShift;
+        }
+
+        private void removeFromBucket(int entry, int bucket) {
+            if (buckets[bucket] == entry) {
+                buckets[bucket] = chain[entry];
+                return;
+            }
+            int previous = buckets[bucket];
+            while (chain[previous] != entry) {
+                previous = chain[previous];
+            }
+            chain[previous] = chain[entry];
+        }
+
+        private void unlink(int entry) {
+            if (newer[entry] != NONE) {
+                older[newer[entry]] = older[entry];
+            } else {
+                head = older[entry];
+            }
+            if (older[entry] != NONE) {
+                newer[older[entry]] = newer[entry];
+            } else {
+                tail = newer[entry];
+            }
+        }
+
+        private void pushHead(int entry) {
+            newer[entry] = NONE;
+            older[entry] = head;
+            if (head != NONE) {
+                newer[head] = entry;
+            }
+            head = entry;
+            if (tail == NONE) {
+                tail = entry;
+            }
+        }
+    }
+}
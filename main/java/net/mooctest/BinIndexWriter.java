@@ -0,0 +1,156 @@
+package net.mooctest;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Writes the memory mapped BIN index read by MappedBinIndex.
+ *
+ * Ranges are collected in primitive arrays, sorted and checked for
+ * overlaps when written. Issuer names are stored once however many
+ * ranges share them.
+ */
+public final class BinIndexWriter {
+    private static final int MAX_ISSUER_BYTES = 0xFFFF;
+
+    private int[] lows = new int[1024];
+    private int[] highs = new int[1024];
+    private int[] lengthMasks = new int[1024];
+    private int[] issuers = new int[1024];
+    private byte[] types = new byte[1024];
+    private byte[] digits = new byte[1024];
+    private int count;
+    private final Map<String, Integer> issuerIds = new HashMap<>();
+    private byte[][] issuerNames = new byte[16][];
+
+    /*
+     * @param number of digits the range is expressed in, its lowest &
+     * highest IIN, card type, allowed lengths mask & issuer name, null
+     * for none
+     * @return this writer
+     */
+    public BinIndexWriter add(int rangeDigits, int low, int high, CreditCardType type, int lengthMask,
+                              String issuer) {
+        if (rangeDigits < 1 || rangeDigits > MappedBinIndex.PREFIX_DIGITS) {
+            throw new IllegalArgumentException("BIN ranges must have between 1 and "
+                    + MappedBinIndex.PREFIX_DIGITS + " digits: " + type + " " + low + " - " + high);
+        }
+        if (low < 0 || low > high || high >= BinRangeTable.pow10(rangeDigits)) {
+            throw new IllegalArgumentException("Invalid " + rangeDigits + " digit BIN range: "
+                    + type + " " + low + " - " + high);
+        }
+        if (type == null || type == CreditCardType.OTHER) {
+            throw new IllegalArgumentException("BIN range needs a card type: " + low + " - " + high);
+        }
+        if (!BinRangeTable.isLengthMask(lengthMask)) {
+            throw new IllegalArgumentException("Invalid lengths mask 0x" + Integer.toHexString(lengthMask)
+                    + ": " + type + " " + low + " - " + high);
+        }
+        if (count == lows.length) {
+            grow();
+        }
+
+        int scale = BinRangeTable.pow10(MappedBinIndex.PREFIX_DIGITS - rangeDigits);
+        lows[count] = low * scale;
+        highs[count] = (high + 1) * scale - 1;
+        lengthMasks[count] = lengthMask;
+        issuers[count] = issuerId(issuer == null ? "" : issuer);
+        types[count] = (byte) type.ordinal();
+        digits[count] = (byte) rangeDigits;
+        count++;
+
+        return this;
+    }
+
+    /*
+     * @param the index file to write
+     * @throws IllegalArgumentException if two ranges overlap
+     */
+    public void write(Path file) throws IOException {
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (long) lows[i] << 32 | i;
+        }
+        Arrays.sort(order);
+        for (int i = 1; i < count; i++) {
+            int previous = (int) order[i - 1];
+            int current = (int) order[i];
+
+            if (lows[current] <= highs[previous]) {
+                throw new IllegalArgumentException("Overlapping BIN ranges: " + lows[previous] + " - "
+                        + highs[previous] + " and " + lows[current] + " - " + highs[current]);
+            }
+        }
+
+        int[] issuerOffsets = new int[issuerIds.size()];
+        int metadataSize = 0;
+        for (int i = 0; i < issuerOffsets.length; i++) {
+            issuerOffsets[i] = metadataSize;
+            metadataSize += issuerNames[i].length;
+        }
+        long metadataOffset = MappedBinIndex.HEADER_SIZE + (long) count * MappedBinIndex.RECORD_SIZE;
+        if (metadataOffset + metadataSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("BIN index would exceed 2 GB: " + count + " ranges");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MappedBinIndex.MAGIC);
+            out.writeInt(MappedBinIndex.VERSION);
+            out.writeInt(count);
+            out.writeInt((int) metadataOffset);
+            for (long key : order) {
+                int i = (int) key;
+
+                out.writeInt(lows[i]);
+                out.writeInt(highs[i]);
+                out.writeInt(lengthMasks[i]);
+                out.writeInt(issuerOffsets[issuers[i]]);
+                out.writeShort(issuerNames[issuers[i]].length);
+                out.writeByte(types[i]);
+                out.writeByte(digits[i]);
+            }
+            for (int i = 0; i < issuerOffsets.length; i++) {
+                out.write(issuerNames[i]);
+            }
+        }
+    }
+
+    private int issuerId(String issuer) {
+        Integer known = issuerIds.get(issuer);
+        if (known != null) {
+            return known;
+        }
+
+        byte[] name = issuer.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_ISSUER_BYTES) {
+            throw new IllegalArgumentException("Issuer name longer than " + MAX_ISSUER_BYTES + " bytes");
+        }
+        int id = issuerIds.size();
+        if (id == issuerNames.length) {
+            issuerNames = Arrays.copyOf(issuerNames, id * 2);
+        }
+        issuerNames[id] = name;
+        issuerIds.put(issuer, id);
+
+        return id;
+    }
+
+    private void grow() {
+        int capacity = lows.length * 2;
+
+        lows = Arrays.copyOf(lows, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lengthMasks = Arrays.copyOf(lengthMasks, capacity);
+        issuers = Arrays.copyOf(issuers, capacity);
+        types = Arrays.copyOf(types, capacity);
+        digits = Arrays.copyOf(digits, capacity);
+    }
+}
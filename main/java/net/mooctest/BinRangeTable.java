@@ -0,0 +1,665 @@
+package net.mooctest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Compiled, immutable BIN range table used by the Type Checker.
+ *
+ * Every IIN range of the registered card specs is normalized to a
+ * fixed width prefix (PREFIX_DIGITS digits) and the whole prefix space
+ * is split into sorted, non-overlapping segments. Each segment points
+ * to a row holding the resolved card type for every card length.
+ *
+ * Every segment also points to a match row listing, for each card
+ * length, all the card types claiming the prefix as a bitmask of
+ * their ordinals, for callers applying their own precedence.
+ *
+ * Segments never cross a change of the first two digits, which index
+ * a 100 entry jump table, so a lookup is one array index and a short
+ * scan of the segments under that entry.
+ *
+ * Precedence between overlapping networks is resolved once, when the
+ * table is built: in the built in table VISA, AMERICAN EXPRESS,
+ * MASTERCARD and DISCOVER keep the order the Type Checker always used,
+ * every other range is ranked narrowest first. Tables loaded by the
+ * BinTableLoader rank every range narrowest first.
+ */
+public final class BinRangeTable {
+    /*
+     * Number of leading digits every IIN range is normalized to
+     */
+    public static final int PREFIX_DIGITS = 8;
+
+    /*
+     * Longest card number the table resolves a type for
+     */
+    public static final int MAX_LENGTH = 19;
+
+    private static final int LENGTH_SLOTS = MAX_LENGTH + 1;
+    private static final int BUCKETS = 100;
+    private static final int BUCKET_WIDTH = pow10(PREFIX_DIGITS - 2);
+    private static final int SCAN_LIMIT = 8;
+    private static final int FULL_ROW = (1 << LENGTH_SLOTS) - 1;
+    private static final byte NO_TYPE = (byte) CreditCardType.OTHER.ordinal();
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+    private static final List<CreditCardType> LEGACY_ORDER = Arrays.asList(
+            CreditCardType.VISA, CreditCardType.AMERICAN_EXPRESS,
+            CreditCardType.MASTERCARD, CreditCardType.DISCOVER);
+
+    private final int[] bucketStarts;
+    private final int[] segmentLows;
+    private final int[] segmentRows;
+    private final byte[] rowTypes;
+    private final int[] rowLengthMasks;
+    private final int[] segmentMatchRows;
+    private final long[] matchMasks;
+
+    private BinRangeTable(int[] bucketStarts, int[] segmentLows, int[] segmentRows, byte[] rowTypes,
+                          int[] rowLengthMasks, int[] segmentMatchRows, long[] matchMasks) {
+        this.bucketStarts = bucketStarts;
+        this.segmentLows = segmentLows;
+        this.segmentRows = segmentRows;
+        this.rowTypes = rowTypes;
+        this.rowLengthMasks = rowLengthMasks;
+        this.segmentMatchRows = segmentMatchRows;
+        this.matchMasks = matchMasks;
+    }
+
+    /*
+     * @return the table compiled from the built in card specs
+     */
+    public static BinRangeTable builtIn() {
+        return BuiltIn.TABLE;
+    }
+
+    /*
+     * Classify a credit card number reading its digits once.
+     *
+     * @param a CharSequence representation of the credit card number
+     * @return CreditCardType enumerable, OTHER if the number contains
+     * anything other than digits or matches no range
+     */
+    public CreditCardType classify(CharSequence creditCardNumber) {
+        int length = creditCardNumber.length();
+        int prefix = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return CreditCardType.OTHER;
+            }
+            if (i < PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+        }
+
+        return lookup(length, prefix);
+    }
+
+    /*
+     * @param packed credit card number
+     * @return CreditCardType enumerable, OTHER if the number contains
+     * anything other than digits or matches no range
+     */
+    public CreditCardType classify(PackedPan creditCardNumber) {
+        return TYPES[typeOrdinal(creditCardNumber.high(), creditCardNumber.low(), creditCardNumber.length())];
+    }
+
+    int typeOrdinal(long high, long low, int length) {
+        if (length < PREFIX_DIGITS || !PackedPan.isNumeric(high, low, length)) {
+            return NO_TYPE;
+        }
+
+        return typeOrdinal(length, (int) PackedPan.prefix(high, PREFIX_DIGITS));
+    }
+
+    /*
+     * Classify a credit card number and hand back its leading digits
+     * read in the same pass, e.g. to route on the issuer level BIN.
+     *
+     * @param a CharSequence representation of the credit card number &
+     * a scratch array receiving in slot k - 1 the value of the first k
+     * digits, for k up to PREFIX_DIGITS and the array length
+     * @return CreditCardType enumerable, OTHER if the number contains
+     * anything other than digits or matches no range
+     */
+    public CreditCardType classify(CharSequence creditCardNumber, int[] prefixes) {
+        int length = creditCardNumber.length();
+        int scratch = Math.min(prefixes.length, PREFIX_DIGITS);
+        int prefix = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return CreditCardType.OTHER;
+            }
+            if (i < PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+                if (i < scratch) {
+                    prefixes[i] = prefix;
+                }
+            }
+        }
+
+        return lookup(length, prefix);
+    }
+
+    /*
+     * @param the card number length and its first PREFIX_DIGITS digits
+     * as an int
+     * @return CreditCardType enumerable
+     */
+    public CreditCardType lookup(int length, int prefix) {
+        return TYPES[typeOrdinal(length, prefix)];
+    }
+
+    /*
+     * @param the card number length and its first PREFIX_DIGITS digits
+     * as an int
+     * @return the ordinal of the matching CreditCardType
+     */
+    public int typeOrdinal(int length, int prefix) {
+        if (length < PREFIX_DIGITS || length > MAX_LENGTH) {
+            return NO_TYPE;
+        }
+
+        int segment = findSegment(prefix);
+
+        return rowTypes[segmentRows[segment] * LENGTH_SLOTS + length];
+    }
+
+    /*
+     * Find every card type a number matches, reading its digits once.
+     *
+     * @param a CharSequence representation of the credit card number
+     * @return bitmask with bit t set when the CreditCardType of
+     * ordinal t matches, 0 if the number contains anything other than
+     * digits or matches no range
+     */
+    public long classifyAll(CharSequence creditCardNumber) {
+        int length = creditCardNumber.length();
+        int prefix = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return 0;
+            }
+            if (i < PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+        }
+
+        return matchMask(length, prefix);
+    }
+
+    /*
+     * @param the card number length and its first PREFIX_DIGITS digits
+     * as an int
+     * @return bitmask of the ordinals of every matching CreditCardType
+     */
+    public long matchMask(int length, int prefix) {
+        if (length < PREFIX_DIGITS || length > MAX_LENGTH) {
+            return 0;
+        }
+
+        return matchMasks[segmentMatchRows[findSegment(prefix)] * LENGTH_SLOTS + length];
+    }
+
+    /*
+     * @param the first PREFIX_DIGITS digits of a card number as an int
+     * @return mask of the lengths (bit n for n digits) the card types
+     * claiming the prefix allow, 0 if no card type claims it
+     */
+    public int lengthMask(int prefix) {
+        return rowLengthMasks[segmentRows[findSegment(prefix)]];
+    }
+
+    /*
+     * @return the row resolving the prefix, for the BIN cache
+     */
+    int rowOf(int prefix) {
+        return segmentRows[findSegment(prefix)];
+    }
+
+    int rowTypeOrdinal(int row, int length) {
+        return rowTypes[row * LENGTH_SLOTS + length];
+    }
+
+    int rowLengthMask(int row) {
+        return rowLengthMasks[row];
+    }
+
+    /*
+     * @return index of the last segment starting at or before prefix,
+     * looked up under the jump table entry of its first two digits
+     */
+    private int findSegment(int prefix) {
+        int bucket = prefix / BUCKET_WIDTH;
+        int low = bucketStarts[bucket];
+        int high = bucketStarts[bucket + 1] - 1;
+
+        if (high - low < SCAN_LIMIT) {
+            while (low < high && segmentLows[low + 1] <= prefix) {
+                low++;
+            }
+
+            return low;
+        }
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+
+            if (segmentLows[middle] <= prefix) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /*
+     * Compile the ranges of card specs, the built in precedence
+     * applies between overlapping ranges.
+     */
+    static BinRangeTable compile(List<CardSpec> specs) {
+        List<Rule> rules = new ArrayList<>();
+
+        for (CardSpec spec : specs) {
+            for (IINRange range : spec.getRanges()) {
+                rules.add(new Rule(spec.getType(), spec.getLengthMask(), range.getDigits(),
+                        range.getLow(), range.getHigh(), rules.size(), true));
+            }
+        }
+
+        return compileRules(rules);
+    }
+
+    /*
+     * Build segments and rows out of possibly overlapping rules with a
+     * single sweep over the sorted range boundaries. The rules covering
+     * the current segment are kept in an array ordered by precedence,
+     * a row is only resolved again when that set changes.
+     */
+    static BinRangeTable compileRules(List<Rule> rules) {
+        int ruleCount = rules.size();
+        long[] lowKeys = new long[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            lowKeys[i] = (long) rules.get(i).low << 32 | i;
+        }
+        Arrays.sort(lowKeys);
+        Rule[] byLow = new Rule[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            byLow[i] = rules.get((int) lowKeys[i]);
+        }
+
+        int[] boundaries = new int[ruleCount * 2 + BUCKETS];
+        int boundaryCount = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            boundaries[boundaryCount++] = bucket * BUCKET_WIDTH;
+        }
+        for (Rule rule : byLow) {
+            boundaries[boundaryCount++] = rule.low;
+            boundaries[boundaryCount++] = rule.high + 1;
+        }
+        Arrays.sort(boundaries, 0, boundaryCount);
+
+        Rule[] active = new Rule[Math.max(1, ruleCount)];
+        int activeCount = 0;
+        int minHigh = Integer.MAX_VALUE;
+        int[] bucketStarts = new int[BUCKETS + 1];
+        int[] segmentLows = new int[boundaryCount];
+        int[] segmentRows = new int[boundaryCount];
+        int[] segmentMatchRows = new int[boundaryCount];
+        int segmentCount = 0;
+        int next = 0;
+        int lengthUnion = 0;
+        for (Rule rule : byLow) {
+            lengthUnion |= rule.lengthMask & FULL_ROW;
+        }
+        RowBuilder rows = new RowBuilder(lengthUnion);
+        MatchRowBuilder matchRows = new MatchRowBuilder();
+        int row = rows.rowFor(active, 0);
+        int matchRow = matchRows.rowFor(active, 0);
+
+        for (int b = 0; b < boundaryCount; b++) {
+            int segmentLow = boundaries[b];
+            boolean bucketStart = segmentLow % BUCKET_WIDTH == 0;
+            boolean changed = false;
+
+            if (segmentLow >= BUCKETS * BUCKET_WIDTH || (b > 0 && segmentLow == boundaries[b - 1])) {
+                continue;
+            }
+            if (minHigh < segmentLow) {
+                int kept = 0;
+                minHigh = Integer.MAX_VALUE;
+                for (int i = 0; i < activeCount; i++) {
+                    if (active[i].high >= segmentLow) {
+                        active[kept++] = active[i];
+                        minHigh = Math.min(minHigh, active[i].high);
+                    }
+                }
+                changed = kept != activeCount;
+                activeCount = kept;
+            }
+            while (next < ruleCount && byLow[next].low <= segmentLow) {
+                Rule rule = byLow[next++];
+                int slot = activeCount++;
+
+                while (slot > 0 && rule.precedes(active[slot - 1])) {
+                    active[slot] = active[slot - 1];
+                    slot--;
+                }
+                active[slot] = rule;
+                minHigh = Math.min(minHigh, rule.high);
+                changed = true;
+            }
+
+            if (changed) {
+                row = rows.rowFor(active, activeCount);
+                matchRow = matchRows.rowFor(active, activeCount);
+            }
+            if (bucketStart) {
+                bucketStarts[segmentLow / BUCKET_WIDTH] = segmentCount;
+            } else if (segmentRows[segmentCount - 1] == row && segmentMatchRows[segmentCount - 1] == matchRow) {
+                continue;
+            }
+            segmentLows[segmentCount] = segmentLow;
+            segmentRows[segmentCount] = row;
+            segmentMatchRows[segmentCount] = matchRow;
+            segmentCount++;
+        }
+        bucketStarts[BUCKETS] = segmentCount;
+
+        return new BinRangeTable(bucketStarts, Arrays.copyOf(segmentLows, segmentCount),
+                Arrays.copyOf(segmentRows, segmentCount), rows.toArray(), rows.lengthMasks(),
+                Arrays.copyOf(segmentMatchRows, segmentCount), matchRows.toArray());
+    }
+
+    /*
+     * Compiles the built in table on first use: the registry creates
+     * IINRanges, which need this class initialized, so the table
+     * cannot be compiled in its static initializer.
+     */
+    private static final class BuiltIn {
+        static final BinRangeTable TABLE = CardSpecRegistry.builtIn().compile();
+    }
+
+    /*
+     * Interns the distinct length-to-type rows shared by many segments.
+     * A row is keyed on its type ordinals packed five bits per length
+     * into two longs, looked up in an open addressing table.
+     */
+    private static final class RowBuilder {
+        private static final int SLOTS_PER_KEY = 12;
+
+        private final List<byte[]> rows = new ArrayList<>();
+        private long[] keys = new long[64];
+        private int[] ids = new int[32];
+        private final byte[] scratch = new byte[LENGTH_SLOTS];
+        private final int lengthUnion;
+
+        /*
+         * @param mask of every length any rule allows, resolving a row
+         * stops once all of them are taken
+         */
+        RowBuilder(int lengthUnion) {
+            this.lengthUnion = lengthUnion;
+            Arrays.fill(ids, -1);
+        }
+
+        int rowFor(Rule[] activeByRank, int activeCount) {
+            byte[] row = scratch;
+            int filled = 0;
+            Arrays.fill(row, NO_TYPE);
+
+            for (int i = 0; i < activeCount && filled != lengthUnion; i++) {
+                Rule rule = activeByRank[i];
+                int lengths = rule.lengthMask & ~filled & FULL_ROW;
+
+                filled |= lengths;
+                while (lengths != 0) {
+                    row[Integer.numberOfTrailingZeros(lengths)] = (byte) rule.type.ordinal();
+                    lengths &= lengths - 1;
+                }
+            }
+
+            long low = 0;
+            long high = 0;
+            for (int length = 0; length < LENGTH_SLOTS; length++) {
+                if (length < SLOTS_PER_KEY) {
+                    low |= (long) row[length] << (5 * length);
+                } else {
+                    high |= (long) row[length] << (5 * (length - SLOTS_PER_KEY));
+                }
+            }
+
+            int mask = ids.length - 1;
+            int slot = (int) ((low * 0x9E3779B97F4A7C15L + high) >>> 40) & mask;
+            while (ids[slot] >= 0) {
+                if (keys[2 * slot] == low && keys[2 * slot + 1] == high) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            rows.add(row.clone());
+            keys[2 * slot] = low;
+            keys[2 * slot + 1] = high;
+            ids[slot] = rows.size() - 1;
+            if (rows.size() * 2 > ids.length) {
+                grow();
+            }
+
+            return rows.size() - 1;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldIds = ids;
+
+            keys = new long[oldKeys.length * 2];
+            ids = new int[oldIds.length * 2];
+            Arrays.fill(ids, -1);
+            int mask = ids.length - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] >= 0) {
+                    long low = oldKeys[2 * i];
+                    long high = oldKeys[2 * i + 1];
+                    int slot = (int) ((low * 0x9E3779B97F4A7C15L + high) >>> 40) & mask;
+
+                    while (ids[slot] >= 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[2 * slot] = low;
+                    keys[2 * slot + 1] = high;
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+
+        byte[] toArray() {
+            byte[] flat = new byte[rows.size() * LENGTH_SLOTS];
+
+            for (int i = 0; i < rows.size(); i++) {
+                System.arraycopy(rows.get(i), 0, flat, i * LENGTH_SLOTS, LENGTH_SLOTS);
+            }
+
+            return flat;
+        }
+
+        int[] lengthMasks() {
+            int[] masks = new int[rows.size()];
+
+            for (int i = 0; i < rows.size(); i++) {
+                for (int length = 0; length < LENGTH_SLOTS; length++) {
+                    if (rows.get(i)[length] != NO_TYPE) {
+                        masks[i] |= 1 << length;
+                    }
+                }
+            }
+
+            return masks;
+        }
+    }
+
+    /*
+     * Interns the distinct rows of per length match masks, stored flat
+     * LENGTH_SLOTS longs per row and found through an open addressing
+     * table over their hash.
+     */
+    private static final class MatchRowBuilder {
+        private final long[] scratch = new long[LENGTH_SLOTS];
+        private long[] masks = new long[LENGTH_SLOTS * 16];
+        private int[] ids = new int[32];
+        private int count;
+
+        MatchRowBuilder() {
+            Arrays.fill(ids, -1);
+        }
+
+        int rowFor(Rule[] active, int activeCount) {
+            Arrays.fill(scratch, 0);
+            for (int i = 0; i < activeCount; i++) {
+                long type = 1L << active[i].type.ordinal();
+                int lengths = active[i].lengthMask & FULL_ROW;
+
+                while (lengths != 0) {
+                    scratch[Integer.numberOfTrailingZeros(lengths)] |= type;
+                    lengths &= lengths - 1;
+                }
+            }
+
+            int mask = ids.length - 1;
+            int slot = hash(scratch, 0) & mask;
+            while (ids[slot] >= 0) {
+                if (sameRow(ids[slot])) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            if ((count + 1) * LENGTH_SLOTS > masks.length) {
+                masks = Arrays.copyOf(masks, masks.length * 2);
+            }
+            System.arraycopy(scratch, 0, masks, count * LENGTH_SLOTS, LENGTH_SLOTS);
+            ids[slot] = count++;
+            if (count * 2 > ids.length) {
+                grow();
+            }
+
+            return count - 1;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(masks, count * LENGTH_SLOTS);
+        }
+
+        private boolean sameRow(int row) {
+            for (int length = 0; length < LENGTH_SLOTS; length++) {
+                if (masks[row * LENGTH_SLOTS + length] != scratch[length]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void grow() {
+            ids = new int[ids.length * 2];
+            Arrays.fill(ids, -1);
+            int mask = ids.length - 1;
+            for (int row = 0; row < count; row++) {
+                int slot = hash(masks, row * LENGTH_SLOTS) & mask;
+
+                while (ids[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                ids[slot] = row;
+            }
+        }
+
+        private static int hash(long[] row, int offset) {
+            long hash = 0;
+
+            for (int length = 0; length < LENGTH_SLOTS; length++) {
+                hash = (hash ^ row[offset + length]) * 0x9E3779B97F4A7C15L;
+            }
+
+            return (int) (hash >>> 32);
+        }
+    }
+
+    /*
+     * A single IIN range of a card type normalized to PREFIX_DIGITS
+     * digits, together with the card lengths it applies to.
+     */
+    static final class Rule {
+        final CreditCardType type;
+        final int lengthMask;
+        final int digits;
+        final int sourceLow;
+        final int sourceHigh;
+        final int low;
+        final int high;
+        final long rank;
+        final int index;
+
+        /*
+         * @param card type, allowed lengths mask, number of digits the
+         * range is expressed in, its lowest & highest IIN, position of
+         * the rule in its source & whether VISA, AMERICAN EXPRESS,
+         * MASTERCARD and DISCOVER take precedence over narrower ranges
+         */
+        Rule(CreditCardType type, int lengthMask, int digits, int low, int high, int index,
+             boolean legacyPrecedence) {
+            if (digits < 1 || digits > PREFIX_DIGITS) {
+                throw new IllegalArgumentException("IIN ranges must have between 1 and " + PREFIX_DIGITS
+                        + " digits: " + type + " " + low + " - " + high);
+            }
+            if (low < 0 || low > high || high >= pow10(digits)) {
+                throw new IllegalArgumentException("Invalid " + digits + " digit IIN range: "
+                        + type + " " + low + " - " + high);
+            }
+            int scale = pow10(PREFIX_DIGITS - digits);
+            int legacyRank = legacyPrecedence ? LEGACY_ORDER.indexOf(type) : -1;
+
+            this.type = type;
+            this.lengthMask = lengthMask;
+            this.digits = digits;
+            this.sourceLow = low;
+            this.sourceHigh = high;
+            this.low = low * scale;
+            this.high = (high + 1) * scale - 1;
+            this.index = index;
+            this.rank = legacyRank >= 0 ? legacyRank : LEGACY_ORDER.size() + (long) (this.high - this.low);
+        }
+
+        boolean precedes(Rule other) {
+            return rank < other.rank || (rank == other.rank && index < other.index);
+        }
+    }
+
+    /*
+     * @param mask of card lengths, bit n set when n digits are allowed
+     * @return whether or not it allows at least one length, all of
+     * them between 1 and MAX_LENGTH
+     */
+    static boolean isLengthMask(int lengthMask) {
+        return lengthMask != 0 && (lengthMask & ~(FULL_ROW & ~1)) == 0;
+    }
+
+    static int pow10(int exponent) {
+        int value = 1;
+
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,274 @@
+package net.mooctest;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Loads BIN tables from outside the code base so that scheme
+ * updates do not need a new build.
+ *
+ * CSV format, one range per line, '#' starting a comment:
+ *
+ *     rangeStart,rangeEnd,prefixLength,network,allowedLengths
+ *     222100,272099,6,MASTERCARD,16
+ *     4,4,1,VISA,13-19
+ *     62,62,2,CHINA_UNIONPAY,16|19
+ *
+ * allowedLengths is a '|' separated list of lengths or length
+ * ranges. The binary format holds the same fields as fixed width
+ * records after a "BINT" magic, a version and a record count.
+ */
+public final class BinTableLoader {
+    static final int MAGIC = 0x42494E54;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int RECORD_SIZE = 14;
+
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+
+    static {
+        for (int t = 0; t < TYPES.length; t++) {
+            TYPE_NAMES[t] = TYPES[t].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private BinTableLoader() {
+    }
+
+    /*
+     * @param CSV or binary BIN table, binary when the file name ends
+     * with ".bin"
+     * @return the compiled table
+     */
+    public static BinRangeTable load(Path file) throws IOException {
+        return file.getFileName().toString().endsWith(".bin") ? loadBinary(file) : loadCsv(file);
+    }
+
+    /*
+     * @param CSV BIN table
+     * @return the compiled table
+     * @throws IllegalArgumentException naming the line of a malformed
+     * range
+     */
+    public static BinRangeTable loadCsv(Path file) throws IOException {
+        return BinRangeTable.compileRules(readCsv(file));
+    }
+
+    /*
+     * @param binary BIN table
+     * @return the compiled table
+     */
+    public static BinRangeTable loadBinary(Path file) throws IOException {
+        return BinRangeTable.compileRules(readBinary(file));
+    }
+
+    /*
+     * Convert a CSV BIN table to the binary format, which loads
+     * without any text parsing.
+     *
+     * @param CSV source & binary target
+     */
+    public static void convert(Path csvFile, Path binaryFile) throws IOException {
+        List<BinRangeTable.Rule> rules = readCsv(csvFile);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(binaryFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rules.size());
+            for (BinRangeTable.Rule rule : rules) {
+                out.writeInt(rule.sourceLow);
+                out.writeInt(rule.sourceHigh);
+                out.writeByte(rule.digits);
+                out.writeByte(rule.type.ordinal());
+                out.writeInt(rule.lengthMask);
+            }
+        }
+    }
+
+    /*
+     * Parses the CSV straight from its bytes, no String is created per
+     * line so half a million ranges load in a fraction of a second.
+     */
+    static List<BinRangeTable.Rule> readCsv(Path file) throws IOException {
+        byte[] csv = Files.readAllBytes(file);
+        List<BinRangeTable.Rule> rules = new ArrayList<>(csv.length / 24);
+        int lineNumber = 0;
+        int position = 0;
+
+        while (position < csv.length) {
+            int end = position;
+            while (end < csv.length && csv[end] != '\n') {
+                end++;
+            }
+            lineNumber++;
+            try {
+                BinRangeTable.Rule rule = parseLine(csv, position, end, rules.size());
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            position = end + 1;
+        }
+
+        return rules;
+    }
+
+    /*
+     * @return the rule on the line, null for blank & comment lines
+     */
+    private static BinRangeTable.Rule parseLine(byte[] csv, int start, int end, int index) {
+        while (start < end && csv[start] <= ' ') {
+            start++;
+        }
+        while (end > start && csv[end - 1] <= ' ') {
+            end--;
+        }
+        if (start == end || csv[start] == '#') {
+            return null;
+        }
+
+        int[] bounds = new int[10];
+        int fields = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || csv[i] == ',') {
+                if (fields == 5) {
+                    throw new IllegalArgumentException("expected 5 fields but got more");
+                }
+                bounds[2 * fields] = fieldStart;
+                bounds[2 * fields + 1] = i;
+                fields++;
+                fieldStart = i + 1;
+            }
+        }
+        if (fields != 5) {
+            throw new IllegalArgumentException("expected 5 fields but got " + fields);
+        }
+
+        int low = parseInt(csv, bounds[0], bounds[1]);
+        int high = parseInt(csv, bounds[2], bounds[3]);
+        int digits = parseInt(csv, bounds[4], bounds[5]);
+        CreditCardType type = parseType(csv, bounds[6], bounds[7]);
+        int lengthMask = parseLengths(csv, bounds[8], bounds[9]);
+
+        return new BinRangeTable.Rule(type, lengthMask, digits, low, high, index, false);
+    }
+
+    private static int parseInt(byte[] csv, int start, int end) {
+        while (start < end && csv[start] == ' ') {
+            start++;
+        }
+        while (end > start && csv[end - 1] == ' ') {
+            end--;
+        }
+        if (start == end || end - start > 9) {
+            throw new IllegalArgumentException("not a number: \"" + text(csv, start, end) + "\"");
+        }
+
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = csv[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("not a number: \"" + text(csv, start, end) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static CreditCardType parseType(byte[] csv, int start, int end) {
+        while (start < end && csv[start] == ' ') {
+            start++;
+        }
+        while (end > start && csv[end - 1] == ' ') {
+            end--;
+        }
+
+        for (int t = 0; t < TYPES.length; t++) {
+            byte[] name = TYPE_NAMES[t];
+            if (name.length == end - start) {
+                int i = 0;
+                while (i < name.length && name[i] == csv[start + i]) {
+                    i++;
+                }
+                if (i == name.length) {
+                    return TYPES[t];
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("unknown network: \"" + text(csv, start, end) + "\"");
+    }
+
+    private static int parseLengths(byte[] csv, int start, int end) {
+        int mask = 0;
+        int itemStart = start;
+
+        for (int i = start; i <= end; i++) {
+            if (i == end || csv[i] == '|') {
+                int dash = itemStart;
+                while (dash < i && csv[dash] != '-') {
+                    dash++;
+                }
+                int min = parseInt(csv, itemStart, dash);
+                int max = dash == i ? min : parseInt(csv, dash + 1, i);
+
+                mask |= CardSpec.lengths(min, max);
+                itemStart = i + 1;
+            }
+        }
+
+        return mask;
+    }
+
+    private static String text(byte[] csv, int start, int end) {
+        return new String(csv, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    static List<BinRangeTable.Rule> readBinary(Path file) throws IOException {
+        ByteBuffer table = ByteBuffer.wrap(Files.readAllBytes(file));
+
+        if (table.remaining() < HEADER_SIZE || table.getInt() != MAGIC) {
+            throw new IOException(file + " is not a binary BIN table");
+        }
+        int version = table.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has unsupported BIN table version " + version);
+        }
+        int count = table.getInt();
+        if (count < 0 || (long) count * RECORD_SIZE != table.remaining()) {
+            throw new IOException(file + " is truncated, expected " + count + " records");
+        }
+
+        List<BinRangeTable.Rule> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int low = table.getInt();
+            int high = table.getInt();
+            int digits = table.get() & 0xFF;
+            int typeOrdinal = table.get() & 0xFF;
+            int lengthMask = table.getInt();
+
+            if (typeOrdinal >= TYPES.length) {
+                throw new IOException(file + " record " + i + " has unknown network " + typeOrdinal);
+            }
+            if (!BinRangeTable.isLengthMask(lengthMask)) {
+                throw new IOException(file + " record " + i + " has invalid lengths mask 0x"
+                        + Integer.toHexString(lengthMask));
+            }
+            rules.add(new BinRangeTable.Rule(TYPES[typeOrdinal], lengthMask, digits, low, high, i, false));
+        }
+
+        return rules;
+    }
+}
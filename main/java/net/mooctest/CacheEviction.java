@@ -0,0 +1,16 @@
+package net.mooctest;
+
+/*
+ * Eviction policies of the BIN prefix cache.
+ */
+public enum CacheEviction {
+    /*
+     * Evict the prefix looked up least recently, a hit moves the
+     * prefix to the front
+     */
+    LRU,
+    /*
+     * Evict the prefix cached first, a hit touches nothing
+     */
+    FIFO
+}
@@ -0,0 +1,95 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Declarative description of a card type: the card lengths it
+ * allows, as a bit mask, and the IIN ranges it claims.
+ */
+public final class CardSpec {
+    private final CreditCardType type;
+    private final int lengthMask;
+    private final List<IINRange> ranges;
+    private final IINRanges compiledRanges;
+
+    /*
+     * @param card type, allowed lengths mask (bit n set when a length
+     * of n digits is allowed) & IIN ranges
+     */
+    public CardSpec(CreditCardType type, int lengthMask, IINRange... ranges) {
+        if (ranges.length == 0) {
+            throw new IllegalArgumentException("A card spec needs at least one IIN range: " + type);
+        }
+        this.type = type;
+        this.lengthMask = lengthMask;
+        this.ranges = Collections.unmodifiableList(Arrays.asList(ranges.clone()));
+        this.compiledRanges = IINRanges.of(ranges);
+    }
+
+    /*
+     * @param shortest & longest allowed length (inclusive)
+     * @return the matching length mask
+     */
+    public static int lengths(int minLength, int maxLength) {
+        if (minLength < 1 || maxLength > BinRangeTable.MAX_LENGTH || minLength > maxLength) {
+            throw new IllegalArgumentException("Invalid card lengths: " + minLength + " - " + maxLength);
+        }
+
+        return (int) ((1L << (maxLength + 1)) - (1L << minLength));
+    }
+
+    public CreditCardType getType() {
+        return type;
+    }
+
+    public int getLengthMask() {
+        return lengthMask;
+    }
+
+    public List<IINRange> getRanges() {
+        return ranges;
+    }
+
+    /*
+     * @param length of the credit card number
+     * @return boolean of whether or not the length is allowed
+     */
+    public boolean allowsLength(int length) {
+        return length >= 0 && length < Integer.SIZE && (lengthMask & (1 << length)) != 0;
+    }
+
+    /*
+     * @param credit card number as a List of Integers
+     * @return boolean of whether or not the IIN matches one of the
+     * ranges
+     */
+    public boolean matches(List<Integer> creditCardNumberList) {
+        return compiledRanges.matches(creditCardNumberList);
+    }
+
+    /*
+     * @param prefix values as read by CreditCardParser.parsePrefixes &
+     * how many were read
+     * @return boolean of whether or not the IIN matches one of the
+     * ranges
+     */
+    public boolean matches(int[] prefixes, int count) {
+        return compiledRanges.matches(prefixes, count);
+    }
+
+    /*
+     * @param packed credit card number
+     * @return boolean of whether or not the IIN matches one of the
+     * ranges
+     */
+    public boolean matches(PackedPan creditCardNumber) {
+        return compiledRanges.matches(creditCardNumber);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + ranges;
+    }
+}
@@ -0,0 +1,119 @@
+package net.mooctest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.mooctest.CardSpec.lengths;
+
+/*
+ * Registry of the supported card types described as data. The
+ * card type validators read their rules from the built in
+ * registry and the Type Checker classifies through the BIN range
+ * table compiled out of it.
+ */
+public final class CardSpecRegistry {
+    private static final CardSpecRegistry BUILT_IN = new CardSpecRegistry(builtInSpecs());
+
+    private final List<CardSpec> specs;
+    private final Map<CreditCardType, CardSpec> byType = new EnumMap<>(CreditCardType.class);
+
+    /*
+     * @param card specs, at most one per card type
+     */
+    public CardSpecRegistry(List<CardSpec> specs) {
+        for (CardSpec spec : specs) {
+            if (byType.put(spec.getType(), spec) != null) {
+                throw new IllegalArgumentException("Card type registered twice: " + spec.getType());
+            }
+        }
+        this.specs = Collections.unmodifiableList(new ArrayList<>(specs));
+    }
+
+    /*
+     * @return the registry of the 22 supported card types
+     */
+    public static CardSpecRegistry builtIn() {
+        return BUILT_IN;
+    }
+
+    public List<CardSpec> getSpecs() {
+        return specs;
+    }
+
+    /*
+     * @param card type
+     * @return its spec, null if the type is not registered
+     */
+    public CardSpec get(CreditCardType type) {
+        return byType.get(type);
+    }
+
+    /*
+     * @return the BIN range table classifying against these specs
+     */
+    public BinRangeTable compile() {
+        return BinRangeTable.compile(specs);
+    }
+
+    /*
+     * Lengths & IIN ranges as matched by the card type validators.
+     * Visa Electron, Maestro UK, UATP and Verve keep the exact
+     * values their validators have always matched.
+     */
+    private static List<CardSpec> builtInSpecs() {
+        List<CardSpec> specs = new ArrayList<>();
+
+        specs.add(new CardSpec(CreditCardType.VISA, lengths(13, 19),
+                new IINRange(1, 4)));
+        specs.add(new CardSpec(CreditCardType.AMERICAN_EXPRESS, lengths(15, 15),
+                new IINRange(2, 34, 37)));
+        specs.add(new CardSpec(CreditCardType.MASTERCARD, lengths(16, 16),
+                new IINRange(2, 51, 55), new IINRange(6, 222100, 272099)));
+        specs.add(new CardSpec(CreditCardType.DISCOVER, lengths(16, 16),
+                new IINRange(4, 6011), new IINRange(6, 622126, 622925),
+                new IINRange(3, 644, 649), new IINRange(2, 65)));
+        specs.add(new CardSpec(CreditCardType.VISA_ELECTRON, lengths(16, 16),
+                new IINRange(4, 4026), new IINRange(4, 4405), new IINRange(4, 4508),
+                new IINRange(4, 4844), new IINRange(4, 4913), new IINRange(4, 4917)));
+        specs.add(new CardSpec(CreditCardType.MAESTRO, lengths(12, 19),
+                new IINRange(6, 500000, 509999), new IINRange(6, 560000, 589999),
+                new IINRange(6, 600000, 699999)));
+        specs.add(new CardSpec(CreditCardType.MAESTRO_UK, lengths(12, 19),
+                new IINRange(4, 6759), new IINRange(6, 676770), new IINRange(6, 676774)));
+        specs.add(new CardSpec(CreditCardType.JCB, lengths(16, 16),
+                new IINRange(4, 3528, 3589)));
+        specs.add(new CardSpec(CreditCardType.CHINA_TUNION, lengths(19, 19),
+                new IINRange(2, 31)));
+        specs.add(new CardSpec(CreditCardType.CHINA_UNIONPAY, lengths(16, 19),
+                new IINRange(2, 62)));
+        specs.add(new CardSpec(CreditCardType.DINERS_CLUB_INTERNATIONAL, lengths(16, 19),
+                new IINRange(3, 300, 305), new IINRange(4, 3095), new IINRange(2, 38, 39)));
+        specs.add(new CardSpec(CreditCardType.DINERS_CLUB, lengths(16, 16),
+                new IINRange(2, 54, 55)));
+        specs.add(new CardSpec(CreditCardType.RUPAY, lengths(16, 16),
+                new IINRange(2, 60), new IINRange(4, 6521, 6522)));
+        specs.add(new CardSpec(CreditCardType.INTERPAYMENT, lengths(16, 19),
+                new IINRange(3, 636)));
+        specs.add(new CardSpec(CreditCardType.INSTAPAYMENT, lengths(16, 16),
+                new IINRange(3, 637, 639)));
+        specs.add(new CardSpec(CreditCardType.DANKORT, lengths(16, 16),
+                new IINRange(4, 4571, 5019)));
+        specs.add(new CardSpec(CreditCardType.MIR, lengths(16, 16),
+                new IINRange(4, 2200, 2204)));
+        specs.add(new CardSpec(CreditCardType.NPS_PRIDNESTROVIE, lengths(16, 16),
+                new IINRange(7, 6054740, 6054744)));
+        specs.add(new CardSpec(CreditCardType.TROY, lengths(16, 16),
+                new IINRange(6, 979200, 979289)));
+        specs.add(new CardSpec(CreditCardType.UATP, lengths(15, 15),
+                new IINRange(6, 1)));
+        specs.add(new CardSpec(CreditCardType.VERVE, lengths(16, 19),
+                new IINRange(6, 506099, 506198)));
+        specs.add(new CardSpec(CreditCardType.LANKAPAY, lengths(16, 16),
+                new IINRange(6, 357111)));
+
+        return specs;
+    }
+}
@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * China T-Union format:
  * length = 16
  * IIN range = 31
  */
 public class ChinaTUnionValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.CHINA_TUNION);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public ChinaTUnionValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class ChinaTUnionValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 19) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,14 +36,6 @@ public class ChinaTUnionValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int IINRange = 31;
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-
-        if (firstTwo == IINRange) {
-            hasAllowedIINRange = true;
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
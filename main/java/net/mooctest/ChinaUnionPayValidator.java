@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * China Union format:
  * length = 16 - 19
  * IIN range = 62
  */
 public class ChinaUnionPayValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.CHINA_UNIONPAY);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public ChinaUnionPayValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class ChinaUnionPayValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() >= 16 && creditCardNumberList.size() <= 19) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,14 +36,6 @@ public class ChinaUnionPayValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int IINRange = 62;
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-
-        if (firstTwo == IINRange) {
-            hasAllowedIINRange = true;
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -0,0 +1,29 @@
+package net.mooctest;
+
+/*
+ * Digit & Luhn kernel over PanColumns slots, eight digits per word
+ * through SwarLuhn. This is the Java 8 version, the multi-release
+ * JAR carries a vectorized one for JDK 17 and later under
+ * META-INF/versions/17.
+ */
+final class ColumnarKernel {
+    private ColumnarKernel() {
+    }
+
+    /*
+     * @return name of the kernel, a method rather than a constant so
+     * callers are never compiled against this version's value
+     */
+    static String name() {
+        return "scalar";
+    }
+
+    /*
+     * @param slots, number of slots & slot width, a multiple of eight,
+     * and the array receiving per slot the Luhn digit sum, -1 if the
+     * slot holds any non digit
+     */
+    static void digitSums(byte[] columns, int count, int slotWidth, int[] sums) {
+        SwarLuhn.digitSums(columns, count, slotWidth, sums);
+    }
+}
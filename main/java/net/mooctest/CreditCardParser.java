@@ -24,6 +24,51 @@ public class CreditCardParser {
         return creditCardNumberList;
     }
 
+    /*
+     * Read every prefix value of up to eight digits in one pass,
+     * without building any String.
+     *
+     * @param credit card number as a CharSequence and a scratch
+     * array receiving in slot k - 1 the value of the first k digits
+     * @return number of prefixes read, stops early at the end of the
+     * number, the end of the array or the first non digit
+     */
+    public static int parsePrefixes(CharSequence creditCardNumber, int[] prefixes) {
+        int count = Math.min(Math.min(creditCardNumber.length(), prefixes.length), IINRange.MAX_DIGITS);
+        int IIN = 0;
+
+        for (int i = 0; i < count; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return i;
+            }
+            IIN = IIN * 10 + digit;
+            prefixes[i] = IIN;
+        }
+
+        return count;
+    }
+
+    /*
+     * Bulk digit check of a columnar batch, vectorized on JDK 17 and
+     * later when jdk.incubator.vector is present.
+     *
+     * @param batch of card numbers & array receiving one result per
+     * number
+     * @return the results, whether or not each number holds only
+     * digits
+     */
+    public static boolean[] parseDigits(PanColumns creditCardNumbers, boolean[] results) {
+        int[] sums = creditCardNumbers.digitSums(new int[creditCardNumbers.size()]);
+
+        for (int i = 0; i < sums.length; i++) {
+            results[i] = sums[i] >= 0;
+        }
+
+        return results;
+    }
+
     /*
      * @param credit card number as a List of Integers and
      * the IIN range to test
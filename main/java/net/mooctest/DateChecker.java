@@ -1,9 +1,5 @@
 package net.mooctest;
 
-import java.util.Calendar;
-
-import static net.mooctest.DateFormatter.*;
-
 /*
  * Date checker used to validate expiration date against
  * current year and month
@@ -11,7 +7,8 @@ import static net.mooctest.DateFormatter.*;
 
 public class DateChecker {
     /*
-     * Set the current year and month for comparison values
+     * Current year and month when the class was loaded, use
+     * ExpiryEvaluator to compare against the live month
      */
     public static final int CURRENT_YEAR = getCurrentYear();
     public static final int CURRENT_MONTH = getCurrentMonth();
@@ -46,7 +43,7 @@ public class DateChecker {
      * @return the current year
      */
     public static int getCurrentYear() {
-        int currentYear = Integer.parseInt(yearFormat().format(Calendar.getInstance().getTime()));
+        int currentYear = ExpiryEvaluator.system().currentYearMonth() / 100 % 100;
 
         return currentYear;
     }
@@ -55,7 +52,7 @@ public class DateChecker {
      * @return the current month
      */
     public static int getCurrentMonth() {
-        int currentMonth = Integer.parseInt(monthFormat().format(Calendar.getInstance().getTime()));
+        int currentMonth = ExpiryEvaluator.system().currentYearMonth() % 100;
 
         return currentMonth;
     }
@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * Diners Club International format:
  * length = 16 - 19
  * IIN range = 300 - 305, 3095, 38 - 39
  */
 public class DinersClubInternationalValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.DINERS_CLUB_INTERNATIONAL);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public DinersClubInternationalValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class DinersClubInternationalValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() >= 16 && creditCardNumberList.size() <= 19) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,34 +36,6 @@ public class DinersClubInternationalValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {300, 305, 3095, 38, 39};
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-        int firstThree = parseIIN(creditCardNumberList, 3);
-        int firstFour = parseIIN(creditCardNumberList, 4);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (firstThree == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        if (!hasAllowedIINRange) {
-            if (firstFour == IINRange[2]) {
-                hasAllowedIINRange = true;
-            }
-        }
-
-        if (!hasAllowedIINRange) {
-            for (int i = IINRange[3]; i <= IINRange[4]; i++) {
-                if (firstTwo == i) {
-                    hasAllowedIINRange = true;
-                    break;
-                }
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
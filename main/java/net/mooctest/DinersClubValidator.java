@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * Diners Club format:
  * length = 16
  * IIN range = 54 - 55
  */
 public class DinersClubValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.DINERS_CLUB);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public DinersClubValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class DinersClubValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,17 +36,6 @@ public class DinersClubValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {54, 55};
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (firstTwo == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -1,22 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.*;
-
 /*
  * Discover format:
  * length = 16
  * IIN range = 6011, 622126 - 622925, 644 - 649, 65
  */
 public class DiscoverValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.DISCOVER);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public DiscoverValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -28,13 +25,7 @@ public class DiscoverValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -45,39 +36,6 @@ public class DiscoverValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {6011, 622126, 622925, 644, 649, 65};
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-        int firstThree = parseIIN(creditCardNumberList, 3);
-        int firstFour = parseIIN(creditCardNumberList, 4);
-        int firstSix = parseIIN(creditCardNumberList, 6);
-
-        if (firstFour == IINRange[0]) {
-            hasAllowedIINRange = true;
-        }
-
-        if (!hasAllowedIINRange) {
-            for (int i = IINRange[1]; i <= IINRange[2]; i++) {
-                if (firstSix == i) {
-                    hasAllowedIINRange = true;
-                    break;
-                }
-            }
-        }
-
-        if (!hasAllowedIINRange) {
-            for (int i = IINRange[3]; i <= IINRange[4]; i++) {
-                if (firstThree == i) {
-                    hasAllowedIINRange = true;
-                    break;
-                }
-            }
-        }
-
-        if (!hasAllowedIINRange && firstTwo == IINRange[5]) {
-            hasAllowedIINRange = true;
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
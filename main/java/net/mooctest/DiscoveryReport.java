@@ -0,0 +1,88 @@
+package net.mooctest;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Findings of a directory sweep: per file and per CreditCardType
+ * over all files.
+ */
+public final class DiscoveryReport {
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private final Map<Path, FileFindings> files = new TreeMap<>();
+    private final long[] countsByType = new long[TYPES.length];
+    private long bytes;
+    private int failedFiles;
+
+    void add(FileFindings findings) {
+        files.put(findings.getPath(), findings);
+        bytes += findings.getBytes();
+        for (CreditCardType type : TYPES) {
+            countsByType[type.ordinal()] += findings.getCount(type);
+        }
+        if (findings.getError() != null) {
+            failedFiles++;
+        }
+    }
+
+    /*
+     * @return findings of every scanned file, sorted by path
+     */
+    public Map<Path, FileFindings> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    /*
+     * @param card type
+     * @return number of card numbers of that type found in all files
+     */
+    public long getCount(CreditCardType type) {
+        return countsByType[type.ordinal()];
+    }
+
+    /*
+     * @return number of card numbers found in all files
+     */
+    public long getTotal() {
+        long total = 0;
+
+        for (long count : countsByType) {
+            total += count;
+        }
+
+        return total;
+    }
+
+    /*
+     * @return number of bytes scanned, uncompressed for gzip files
+     */
+    public long getBytesScanned() {
+        return bytes;
+    }
+
+    /*
+     * @return number of files that could not be fully scanned
+     */
+    public int getFailedFiles() {
+        return failedFiles;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("files=").append(files.size())
+                .append(", failed=").append(failedFiles)
+                .append(", bytes=").append(bytes)
+                .append(", total=").append(getTotal());
+
+        for (CreditCardType type : TYPES) {
+            if (countsByType[type.ordinal()] > 0) {
+                report.append(", ").append(type).append('=').append(countsByType[type.ordinal()]);
+            }
+        }
+
+        return report.toString();
+    }
+}
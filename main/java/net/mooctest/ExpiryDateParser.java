@@ -0,0 +1,133 @@
+package net.mooctest;
+
+/*
+ * Allocation free expiration date parser reading the date in a
+ * single pass and returning it packed as YYYYMM.
+ *
+ * parse accepts MM/YY, MMYY, MM/YYYY and YYYY-MM, parseYearMonth
+ * accepts the YYMM order of ISO 8583 field 14. Malformed input is
+ * reported as MALFORMED, nothing is thrown.
+ */
+public final class ExpiryDateParser {
+    /*
+     * Returned for input matching none of the formats or holding a
+     * month outside 1 - 12
+     */
+    public static final int MALFORMED = -1;
+
+    private ExpiryDateParser() {
+    }
+
+    /*
+     * @param MM/YY, MMYY, MM/YYYY or YYYY-MM expiration date
+     * @return the date as YYYYMM, MALFORMED if it cannot be parsed
+     */
+    public static int parse(CharSequence expirationDate) {
+        return parse(expirationDate, 0, expirationDate.length(), false);
+    }
+
+    /*
+     * @param YYMM expiration date (ISO 8583 field 14)
+     * @return the date as YYYYMM, MALFORMED if it cannot be parsed
+     */
+    public static int parseYearMonth(CharSequence expirationDate) {
+        return parse(expirationDate, 0, expirationDate.length(), true);
+    }
+
+    /*
+     * @param ASCII bytes holding a MM/YY, MMYY, MM/YYYY or YYYY-MM
+     * expiration date, start (inclusive) & end (exclusive)
+     * @return the date as YYYYMM, MALFORMED if it cannot be parsed
+     */
+    public static int parse(byte[] expirationDate, int start, int end) {
+        return parse(expirationDate, start, end, false);
+    }
+
+    /*
+     * @param ASCII bytes holding a YYMM expiration date, start
+     * (inclusive) & end (exclusive)
+     * @return the date as YYYYMM, MALFORMED if it cannot be parsed
+     */
+    public static int parseYearMonth(byte[] expirationDate, int start, int end) {
+        return parse(expirationDate, start, end, true);
+    }
+
+    private static int parse(CharSequence expirationDate, int start, int end, boolean yearFirst) {
+        int digits = 0;
+        int value = 0;
+        int separatorAt = -1;
+        char separator = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = expirationDate.charAt(i);
+            int digit = c - '0';
+
+            if (digit >= 0 && digit <= 9) {
+                value = value * 10 + digit;
+                digits++;
+            } else if (separatorAt < 0 && (c == '/' || c == '-')) {
+                separatorAt = i - start;
+                separator = c;
+            } else {
+                return MALFORMED;
+            }
+        }
+
+        return assemble(value, digits, separatorAt, separator, yearFirst);
+    }
+
+    private static int parse(byte[] expirationDate, int start, int end, boolean yearFirst) {
+        int digits = 0;
+        int value = 0;
+        int separatorAt = -1;
+        char separator = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = (char) (expirationDate[i] & 0xFF);
+            int digit = c - '0';
+
+            if (digit >= 0 && digit <= 9) {
+                value = value * 10 + digit;
+                digits++;
+            } else if (separatorAt < 0 && (c == '/' || c == '-')) {
+                separatorAt = i - start;
+                separator = c;
+            } else {
+                return MALFORMED;
+            }
+        }
+
+        return assemble(value, digits, separatorAt, separator, yearFirst);
+    }
+
+    /*
+     * @param the digits read as one number, how many there were &
+     * where the separator was
+     * @return the date as YYYYMM, MALFORMED if no format matches
+     */
+    private static int assemble(int value, int digits, int separatorAt, char separator, boolean yearFirst) {
+        int year;
+        int month;
+
+        if (separatorAt < 0 && digits == 4) {
+            // MMYY or YYMM
+            year = yearFirst ? value / 100 : value % 100;
+            month = yearFirst ? value % 100 : value / 100;
+        } else if (!yearFirst && separator == '/' && separatorAt == 2 && (digits == 4 || digits == 6)) {
+            // MM/YY or MM/YYYY
+            int yearScale = digits == 4 ? 100 : 10000;
+            year = value % yearScale;
+            month = value / yearScale;
+        } else if (!yearFirst && separator == '-' && separatorAt == 4 && digits == 6) {
+            // YYYY-MM
+            year = value / 100;
+            month = value % 100;
+        } else {
+            return MALFORMED;
+        }
+
+        int yearMonth = ExpiryEvaluator.yearMonth(year, month);
+
+        return yearMonth < 0 ? MALFORMED : yearMonth;
+    }
+}
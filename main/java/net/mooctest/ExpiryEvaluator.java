@@ -0,0 +1,93 @@
+package net.mooctest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/*
+ * Expiration date evaluator driven by a java.time.Clock.
+ *
+ * The current year & month are cached as a single int (YYYYMM)
+ * packed in one volatile long together with the instant the month
+ * rolls over. Once that instant is reached the next reader refreshes
+ * the cache without taking a lock, so a long running JVM never judges
+ * cards against a stale month.
+ */
+public final class ExpiryEvaluator {
+    private static final ExpiryEvaluator SYSTEM = new ExpiryEvaluator(Clock.systemDefaultZone());
+
+    /*
+     * YYYYMM needs 18 bits, the rollover epoch milli sits above them
+     */
+    private static final int YEAR_MONTH_BITS = 20;
+    private static final long YEAR_MONTH_MASK = (1L << YEAR_MONTH_BITS) - 1;
+
+    private final Clock clock;
+    private volatile long current;
+
+    /*
+     * @param the clock giving the current date & time zone
+     */
+    public ExpiryEvaluator(Clock clock) {
+        this.clock = clock;
+        this.current = refresh();
+    }
+
+    /*
+     * @return the evaluator following the system clock and zone
+     */
+    public static ExpiryEvaluator system() {
+        return SYSTEM;
+    }
+
+    /*
+     * @return the current year & month as YYYYMM
+     */
+    public int currentYearMonth() {
+        long snapshot = current;
+
+        if (clock.millis() >= snapshot >>> YEAR_MONTH_BITS) {
+            snapshot = refresh();
+            current = snapshot;
+        }
+
+        return (int) (snapshot & YEAR_MONTH_MASK);
+    }
+
+    /*
+     * A card stays valid until the end of its expiration month.
+     *
+     * @param expiration year & month as YYYYMM
+     * @return boolean of whether or not the card is expired
+     */
+    public boolean isExpired(int expiryYearMonth) {
+        return expiryYearMonth < currentYearMonth();
+    }
+
+    /*
+     * @param expiration year (two or four digits) & month
+     * @return the expiration as YYYYMM, -1 if the month is not
+     * between 1 and 12
+     */
+    public static int yearMonth(int year, int month) {
+        if (month < 1 || month > 12 || year < 0) {
+            return -1;
+        }
+
+        return (year < 100 ? 2000 + year : year) * 100 + month;
+    }
+
+    /*
+     * @return the current YYYYMM packed with the first milli of the
+     * next month
+     */
+    private long refresh() {
+        ZoneId zone = clock.getZone();
+        LocalDate today = Instant.ofEpochMilli(clock.millis()).atZone(zone).toLocalDate();
+        long rollover = today.withDayOfMonth(1).plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        int yearMonth = today.getYear() * 100 + today.getMonthValue();
+
+        return rollover << YEAR_MONTH_BITS | yearMonth;
+    }
+}
@@ -0,0 +1,27 @@
+package net.mooctest;
+
+/*
+ * Reasons a card can fail validation, each tied to its flag in the
+ * packed ValidationResult code.
+ */
+public enum FailureReason {
+    LENGTH(ValidationResult.LENGTH_FAILED),
+    IIN(ValidationResult.IIN_FAILED),
+    LUHN(ValidationResult.LUHN_FAILED),
+    CVV(ValidationResult.CVV_FAILED),
+    EXPIRY(ValidationResult.EXPIRY_FAILED),
+    MALFORMED(ValidationResult.MALFORMED);
+
+    private final int flag;
+
+    FailureReason(int flag) {
+        this.flag = flag;
+    }
+
+    /*
+     * @return the ValidationResult flag of the reason
+     */
+    public int getFlag() {
+        return flag;
+    }
+}
@@ -0,0 +1,101 @@
+package net.mooctest;
+
+import java.nio.file.Path;
+
+/*
+ * Card numbers found in one file by the directory scanner, per
+ * CreditCardType.
+ */
+public final class FileFindings {
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private final Path path;
+    private final long[] countsByType = new long[TYPES.length];
+    private long bytes;
+    private String error;
+
+    FileFindings(Path path) {
+        this.path = path;
+    }
+
+    void record(CreditCardType type) {
+        countsByType[type.ordinal()]++;
+    }
+
+    void addBytes(long count) {
+        bytes += count;
+    }
+
+    void fail(String message) {
+        error = message;
+    }
+
+    /*
+     * Add the counts of another segment of the same file.
+     */
+    void merge(FileFindings other) {
+        bytes += other.bytes;
+        for (int i = 0; i < TYPES.length; i++) {
+            countsByType[i] += other.countsByType[i];
+        }
+        if (error == null) {
+            error = other.error;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /*
+     * @return number of bytes scanned, uncompressed for gzip files
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /*
+     * @param card type
+     * @return number of card numbers of that type found
+     */
+    public long getCount(CreditCardType type) {
+        return countsByType[type.ordinal()];
+    }
+
+    /*
+     * @return number of card numbers found
+     */
+    public long getTotal() {
+        long total = 0;
+
+        for (long count : countsByType) {
+            total += count;
+        }
+
+        return total;
+    }
+
+    /*
+     * @return why the file could not be fully scanned, null if it was
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(path.toString()).append(": bytes=").append(bytes)
+                .append(", total=").append(getTotal());
+
+        for (CreditCardType type : TYPES) {
+            if (countsByType[type.ordinal()] > 0) {
+                report.append(", ").append(type).append('=').append(countsByType[type.ordinal()]);
+            }
+        }
+        if (error != null) {
+            report.append(", error=").append(error);
+        }
+
+        return report.toString();
+    }
+}
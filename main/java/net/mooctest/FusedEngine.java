@@ -0,0 +1,300 @@
+package net.mooctest;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Single pass validation engine for the authorization hot path.
+ *
+ * One left to right loop over the digits yields the length, the
+ * BIN prefix, the Luhn sums of both parities (the check digit's
+ * position is only known at the end) and whether a non digit was
+ * seen. One table lookup then turns them into a ValidationResult
+ * code: card type, Luhn, length & IIN failures.
+ *
+ * Each input kind has its own loop over a concrete type, so the
+ * JIT sees no virtual call inside it; nothing is allocated or boxed.
+ */
+public final class FusedEngine {
+    private static final int[] DOUBLED = LuhnEngine.DOUBLED;
+    private static final int OTHER = CreditCardType.OTHER.ordinal();
+    static final int MALFORMED_CODE = OTHER | ValidationResult.MALFORMED
+            | ValidationResult.LUHN_FAILED | ValidationResult.IIN_FAILED;
+
+    private FusedEngine() {
+    }
+
+    /*
+     * @param String representation of the credit card number
+     * @return the packed ValidationResult code, against the table
+     * installed in the Type Checker
+     */
+    public static int evaluate(String creditCardNumber) {
+        return evaluate(TypeChecker.currentTable(), creditCardNumber);
+    }
+
+    /*
+     * @param the table to classify against & String representation
+     * of the credit card number
+     * @return the packed ValidationResult code
+     */
+    public static int evaluate(BinRangeTable table, String creditCardNumber) {
+        int length = creditCardNumber.length();
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, length, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * @param the table to classify against & CharSequence
+     * representation of the credit card number
+     * @return the packed ValidationResult code
+     */
+    public static int evaluate(BinRangeTable table, CharSequence creditCardNumber) {
+        if (creditCardNumber instanceof String) {
+            return evaluate(table, (String) creditCardNumber);
+        }
+
+        int length = creditCardNumber.length();
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, length, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * @param the table to classify against, char array holding the
+     * credit card number, start (inclusive) & end (exclusive) of it
+     * @return the packed ValidationResult code
+     */
+    public static int evaluate(BinRangeTable table, char[] creditCardNumber, int start, int end) {
+        int length = end - start;
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber[start + i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, length, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * @param the table to classify against, ASCII bytes holding the
+     * credit card number, start (inclusive) & end (exclusive) of it
+     * @return the packed ValidationResult code
+     */
+    public static int evaluate(BinRangeTable table, byte[] creditCardNumber, int start, int end) {
+        int length = end - start;
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber[start + i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, length, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * @param the table to classify against, buffer holding the ASCII
+     * credit card number, absolute start (inclusive) & end (exclusive)
+     * of it, the buffer position is left untouched
+     * @return the packed ValidationResult code
+     */
+    public static int evaluate(BinRangeTable table, ByteBuffer creditCardNumber, int start, int end) {
+        int length = end - start;
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = creditCardNumber.get(start + i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, length, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * @param the table to classify against, packed BCD bytes holding
+     * the credit card number two digits per byte, high nibble first,
+     * start of it, number of digits & whether an odd number of digits
+     * is padded with a leading nibble (otherwise a trailing one)
+     * @return the packed ValidationResult code
+     */
+    public static int evaluateBcd(BinRangeTable table, byte[] creditCardNumber, int start, int digits,
+            boolean leftPadded) {
+        int padding = leftPadded ? digits & 1 : 0;
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < digits; i++) {
+            int nibble = i + padding;
+            int packed = creditCardNumber[start + (nibble >>> 1)];
+            int digit = (nibble & 1) == 0 ? (packed >>> 4) & 0xF : packed & 0xF;
+
+            if (digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, digits, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * @param the table to classify against, buffer holding the packed
+     * BCD credit card number two digits per byte, high nibble first,
+     * absolute start of it, number of digits & whether an odd number
+     * of digits is padded with a leading nibble (otherwise a trailing
+     * one), the buffer position is left untouched
+     * @return the packed ValidationResult code
+     */
+    public static int evaluateBcd(BinRangeTable table, ByteBuffer creditCardNumber, int start, int digits,
+            boolean leftPadded) {
+        int padding = leftPadded ? digits & 1 : 0;
+        int prefix = 0;
+        int evenDoubled = 0;
+        int oddDoubled = 0;
+
+        for (int i = 0; i < digits; i++) {
+            int nibble = i + padding;
+            int packed = creditCardNumber.get(start + (nibble >>> 1));
+            int digit = (nibble & 1) == 0 ? (packed >>> 4) & 0xF : packed & 0xF;
+
+            if (digit > 9) {
+                return MALFORMED_CODE;
+            }
+            if (i < BinRangeTable.PREFIX_DIGITS) {
+                prefix = prefix * 10 + digit;
+            }
+            if ((i & 1) == 0) {
+                evenDoubled += DOUBLED[digit];
+                oddDoubled += digit;
+            } else {
+                evenDoubled += digit;
+                oddDoubled += DOUBLED[digit];
+            }
+        }
+
+        return finish(table, digits, prefix, evenDoubled, oddDoubled);
+    }
+
+    /*
+     * Turn the values gathered by one pass into the result code.
+     */
+    static int finish(BinRangeTable table, int length, int prefix, int evenDoubled, int oddDoubled) {
+        // The check digit is never doubled, so positions of the other
+        // parity than the last digit are
+        int sum = (length & 1) == 0 ? evenDoubled : oddDoubled;
+        BinCache cache = TypeChecker.cacheFor(table);
+        int typeOrdinal = cache != null ? cache.typeOrdinal(length, prefix) : table.typeOrdinal(length, prefix);
+        int code = typeOrdinal;
+
+        if (length == 0 || sum % 10 != 0) {
+            code |= ValidationResult.LUHN_FAILED;
+        }
+        if (typeOrdinal == OTHER) {
+            // Tell an unknown IIN apart from a known IIN at the wrong length
+            for (int i = length; i < BinRangeTable.PREFIX_DIGITS; i++) {
+                prefix *= 10;
+            }
+            int lengths = cache != null ? cache.lengthMask(prefix) : table.lengthMask(prefix);
+            code |= lengths == 0 ? ValidationResult.IIN_FAILED : ValidationResult.LENGTH_FAILED;
+        }
+
+        return code;
+    }
+}
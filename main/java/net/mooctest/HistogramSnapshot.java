@@ -0,0 +1,67 @@
+package net.mooctest;
+
+/*
+ * Point in time copy of a LatencyHistogram.
+ */
+public final class HistogramSnapshot {
+    private final long[] counts;
+    private final long max;
+    private final long count;
+
+    HistogramSnapshot(long[] counts, long max) {
+        long total = 0;
+
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        this.counts = counts;
+        this.max = max;
+        this.count = total;
+    }
+
+    /*
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /*
+     * @return highest recorded value
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /*
+     * @param percentile between 0 and 100
+     * @return value at or below which the percentile of the recorded
+     * values falls, rounded up to its bucket, 0 when nothing was
+     * recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValueOf(bucket), max);
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " p50=" + percentile(50) + " p99=" + percentile(99)
+                + " p99.9=" + percentile(99.9) + " max=" + max;
+    }
+}
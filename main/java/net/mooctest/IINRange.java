@@ -0,0 +1,66 @@
+package net.mooctest;
+
+/*
+ * Inclusive range of IIN values compared against the first
+ * digits of a credit card number, e.g. 3528 - 3589 over the
+ * first four digits.
+ */
+public final class IINRange {
+    /*
+     * Longest IIN prefix a range can be expressed in
+     */
+    public static final int MAX_DIGITS = 8;
+
+    private final int digits;
+    private final int low;
+    private final int high;
+
+    /*
+     * @param number of leading digits compared & the single IIN
+     * value they must equal
+     */
+    public IINRange(int digits, int value) {
+        this(digits, value, value);
+    }
+
+    /*
+     * @param number of leading digits compared, lowest & highest
+     * IIN value (inclusive)
+     */
+    public IINRange(int digits, int low, int high) {
+        if (digits < 1 || digits > MAX_DIGITS) {
+            throw new IllegalArgumentException("IIN digits must be between 1 and " + MAX_DIGITS + ": " + digits);
+        }
+        if (low < 0 || low > high || high >= BinRangeTable.pow10(digits)) {
+            throw new IllegalArgumentException("Invalid " + digits + " digit IIN range: " + low + " - " + high);
+        }
+        this.digits = digits;
+        this.low = low;
+        this.high = high;
+    }
+
+    public int getDigits() {
+        return digits;
+    }
+
+    public int getLow() {
+        return low;
+    }
+
+    public int getHigh() {
+        return high;
+    }
+
+    /*
+     * @param IIN value made of getDigits() leading digits
+     * @return boolean of whether or not the value is in range
+     */
+    public boolean contains(int IIN) {
+        return IIN >= low && IIN <= high;
+    }
+
+    @Override
+    public String toString() {
+        return low == high ? Integer.toString(low) : low + " - " + high;
+    }
+}
@@ -0,0 +1,163 @@
+package net.mooctest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Immutable set of IIN ranges matched with one binary search per
+ * prefix length, so the cost depends on the number of ranges and
+ * not on how wide they are.
+ */
+public final class IINRanges {
+    /*
+     * lows & highs of the merged ranges sorted by prefix length then
+     * value, ranges of prefix length d live in [offsets[d - 1], offsets[d])
+     */
+    private final int[] lows;
+    private final int[] highs;
+    private final int[] offsets;
+    private final int maxDigits;
+
+    private IINRanges(int[] lows, int[] highs, int[] offsets, int maxDigits) {
+        this.lows = lows;
+        this.highs = highs;
+        this.offsets = offsets;
+        this.maxDigits = maxDigits;
+    }
+
+    /*
+     * @param the IIN ranges, possibly overlapping
+     * @return the compiled set
+     */
+    public static IINRanges of(IINRange... ranges) {
+        List<IINRange> sorted = new ArrayList<>(Arrays.asList(ranges));
+        sorted.sort(Comparator.comparingInt(IINRange::getDigits).thenComparingInt(IINRange::getLow));
+
+        int[] lows = new int[sorted.size()];
+        int[] highs = new int[sorted.size()];
+        int[] offsets = new int[IINRange.MAX_DIGITS + 1];
+        int count = 0;
+        int maxDigits = 0;
+
+        for (IINRange range : sorted) {
+            int digits = range.getDigits();
+            boolean sameDigits = count > offsets[digits - 1];
+
+            // Merge ranges that overlap or touch
+            if (sameDigits && range.getLow() <= highs[count - 1] + 1) {
+                highs[count - 1] = Math.max(highs[count - 1], range.getHigh());
+            } else {
+                lows[count] = range.getLow();
+                highs[count] = range.getHigh();
+                count++;
+            }
+            for (int d = digits; d <= IINRange.MAX_DIGITS; d++) {
+                offsets[d] = count;
+            }
+            maxDigits = Math.max(maxDigits, digits);
+        }
+
+        return new IINRanges(Arrays.copyOf(lows, count), Arrays.copyOf(highs, count), offsets, maxDigits);
+    }
+
+    /*
+     * @return longest prefix length any range is expressed in
+     */
+    public int getMaxDigits() {
+        return maxDigits;
+    }
+
+    /*
+     * @param number of leading digits & their value
+     * @return boolean of whether or not a range of that prefix
+     * length contains the value
+     */
+    public boolean contains(int digits, int IIN) {
+        int low = offsets[digits - 1];
+        int high = offsets[digits] - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (highs[middle] < IIN) {
+                low = middle + 1;
+            } else if (lows[middle] > IIN) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * @param credit card number as a List of Integers
+     * @return boolean of whether or not any prefix of the number
+     * falls in one of the ranges, false for numbers shorter than
+     * every range or with a non digit inside the prefix
+     */
+    public boolean matches(List<Integer> creditCardNumberList) {
+        int available = Math.min(maxDigits, creditCardNumberList.size());
+        int IIN = 0;
+
+        for (int digits = 1; digits <= available; digits++) {
+            int digit = creditCardNumberList.get(digits - 1);
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            IIN = IIN * 10 + digit;
+            if (offsets[digits] > offsets[digits - 1] && contains(digits, IIN)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * @param prefix values as read by CreditCardParser.parsePrefixes,
+     * slot k - 1 holding the first k digits, & how many were read
+     * @return boolean of whether or not any of the prefixes falls in
+     * one of the ranges
+     */
+    public boolean matches(int[] prefixes, int count) {
+        int available = Math.min(maxDigits, count);
+
+        for (int digits = 1; digits <= available; digits++) {
+            if (offsets[digits] > offsets[digits - 1] && contains(digits, prefixes[digits - 1])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * @param packed credit card number
+     * @return boolean of whether or not any prefix of the number
+     * falls in one of the ranges, false for numbers shorter than
+     * every range or with a non digit inside the prefix
+     */
+    public boolean matches(PackedPan creditCardNumber) {
+        int available = Math.min(maxDigits, creditCardNumber.length());
+        int IIN = 0;
+
+        for (int digits = 1; digits <= available; digits++) {
+            int digit = creditCardNumber.digitAt(digits - 1);
+
+            if (digit < 0) {
+                return false;
+            }
+            IIN = IIN * 10 + digit;
+            if (offsets[digits] > offsets[digits - 1] && contains(digits, IIN)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
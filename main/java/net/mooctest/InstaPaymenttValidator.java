@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * InstaPayment format:
  * length = 16
  * IIN range = 637 - 639
  */
 public class InstaPaymenttValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.INSTAPAYMENT);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public InstaPaymenttValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class InstaPaymenttValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,17 +36,6 @@ public class InstaPaymenttValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {637, 639};
-        int IIN = parseIIN(creditCardNumberList, 3);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (IIN == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -8,4 +8,20 @@ class InvalidCardException extends IllegalArgumentException {
     InvalidCardException(String message) {
         super(message);
     }
+
+    /*
+     * Exception thrown in stackless mode: it never fills in a stack
+     * trace, so throwing it costs an allocation rather than a stack
+     * walk. A new instance per throw, IllegalArgumentException cannot
+     * disable suppression and a shared instance would collect the
+     * suppressed exceptions of every caller.
+     */
+    static InvalidCardException stackless() {
+        return new InvalidCardException(Validator.INVALID_CARD_MESSAGE) {
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+    }
 }
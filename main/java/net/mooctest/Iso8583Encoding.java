@@ -0,0 +1,19 @@
+package net.mooctest;
+
+/*
+ * Wire encoding of the ISO 8583 messages read by Iso8583Reader.
+ */
+public enum Iso8583Encoding {
+    /*
+     * ASCII MTI, bitmaps as 16 hexadecimal characters each, numeric
+     * fields one ASCII digit per byte, LLVAR lengths as two ASCII
+     * digits
+     */
+    ASCII,
+    /*
+     * BCD MTI, binary bitmaps, numeric fields packed two digits per
+     * byte, LLVAR lengths as one BCD byte; an odd number of digits is
+     * padded with a trailing F nibble or otherwise a leading 0 nibble
+     */
+    BCD
+}
@@ -0,0 +1,341 @@
+package net.mooctest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+ * Zero copy reader of ISO 8583:1987 messages for the authorization
+ * path. It walks the MTI, the bitmaps and the fields up to field 14,
+ * recording where the PAN (field 2, LLVAR) and the expiry (field 14,
+ * YYMM) sit in the message, and hands those byte ranges straight to
+ * FusedEngine: nothing is decoded to a String.
+ *
+ * One reader is meant to be reused for every message of a thread,
+ * read() keeps a reference to the message until the next call and
+ * allocates nothing. Fields after 14 are not walked.
+ */
+public final class Iso8583Reader {
+    public static final int PAN_FIELD = 2;
+    public static final int EXPIRY_FIELD = 14;
+
+    private static final int MAX_PAN_DIGITS = 19;
+    private static final int MALFORMED_CODE = CreditCardType.OTHER.ordinal() | ValidationResult.MALFORMED
+            | ValidationResult.LUHN_FAILED | ValidationResult.IIN_FAILED;
+
+    /*
+     * Digits of the fixed length numeric fields 3 - 14 by field number
+     */
+    private static final int[] FIXED_DIGITS = {0, 0, 0, 6, 12, 12, 12, 10, 8, 8, 8, 6, 6, 4, 4};
+
+    /*
+     * Value of every byte as a hexadecimal digit, -1 for the others
+     */
+    private static final byte[] HEX = new byte[256];
+
+    static {
+        Arrays.fill(HEX, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX[Character.forDigit(i, 16)] = (byte) i;
+            HEX[Character.toUpperCase(Character.forDigit(i, 16))] = (byte) i;
+        }
+    }
+
+    private final Iso8583Encoding encoding;
+    private final BinRangeTable table;
+    private final ExpiryEvaluator expiryEvaluator;
+
+    // Current message, either an array or a buffer
+    private byte[] array;
+    private ByteBuffer buffer;
+    private boolean readable;
+    private int mti;
+    private long primaryBitmap;
+    private long secondaryBitmap;
+    private int panStart;
+    private int panDigits;
+    private boolean panLeftPadded;
+    private int expiryStart;
+
+    /*
+     * @param wire encoding, validating against the current Type
+     * Checker table & the system clock
+     */
+    public Iso8583Reader(Iso8583Encoding encoding) {
+        this(encoding, TypeChecker.currentTable(), ExpiryEvaluator.system());
+    }
+
+    /*
+     * @param wire encoding, table to classify the PAN against & the
+     * evaluator deciding whether the expiry is past
+     */
+    public Iso8583Reader(Iso8583Encoding encoding, BinRangeTable table, ExpiryEvaluator expiryEvaluator) {
+        this.encoding = encoding;
+        this.table = table;
+        this.expiryEvaluator = expiryEvaluator;
+    }
+
+    /*
+     * @param bytes holding the message, offset & length of it
+     * @return whether or not the message could be read up to field 14,
+     * false for a truncated or malformed one
+     */
+    public boolean read(byte[] message, int offset, int length) {
+        array = message;
+        buffer = null;
+
+        return parse(offset, offset + length);
+    }
+
+    /*
+     * @param buffer holding the message between its position & limit,
+     * neither is changed
+     * @return whether or not the message could be read up to field 14,
+     * false for a truncated or malformed one
+     */
+    public boolean read(ByteBuffer message) {
+        array = null;
+        buffer = message;
+
+        return parse(message.position(), message.limit());
+    }
+
+    /*
+     * @return the message type indicator, e.g. 100 for 0100
+     */
+    public int mti() {
+        return mti;
+    }
+
+    /*
+     * @param field number, 1 - 128
+     * @return whether or not the bitmap announces the field
+     */
+    public boolean hasField(int field) {
+        if (!readable || field < 1 || field > 128) {
+            return false;
+        }
+
+        long bitmap = field <= 64 ? primaryBitmap : secondaryBitmap;
+
+        return (bitmap << ((field - 1) & 63)) < 0;
+    }
+
+    /*
+     * @return offset in the message of the first PAN byte, -1 if the
+     * message has none
+     */
+    public int panStart() {
+        return hasField(PAN_FIELD) ? panStart : -1;
+    }
+
+    /*
+     * @return number of PAN digits, 0 if the message has none
+     */
+    public int panDigits() {
+        return hasField(PAN_FIELD) ? panDigits : 0;
+    }
+
+    /*
+     * @return offset in the message of the first expiry byte, -1 if
+     * the message has none
+     */
+    public int expiryStart() {
+        return hasField(EXPIRY_FIELD) ? expiryStart : -1;
+    }
+
+    /*
+     * @return the expiry as YYYYMM, ExpiryDateParser.MALFORMED if it
+     * is missing or not a valid YYMM
+     */
+    public int expiryYearMonth() {
+        if (!hasField(EXPIRY_FIELD)) {
+            return ExpiryDateParser.MALFORMED;
+        }
+
+        int year = digitAt(expiryStart, 0) * 10 + digitAt(expiryStart, 1);
+        int month = digitAt(expiryStart, 2) * 10 + digitAt(expiryStart, 3);
+        if (year < 0 || month < 0) {
+            return ExpiryDateParser.MALFORMED;
+        }
+        int yearMonth = ExpiryEvaluator.yearMonth(year, month);
+
+        return yearMonth < 0 ? ExpiryDateParser.MALFORMED : yearMonth;
+    }
+
+    /*
+     * Check the PAN of the last message read: digits, Luhn, IIN &
+     * length, and its expiry when field 14 is present.
+     *
+     * @return the packed ValidationResult code, MALFORMED when the
+     * message could not be read or has no PAN
+     */
+    public int validate() {
+        long start = ValidationMetrics.start();
+        int code;
+
+        if (!hasField(PAN_FIELD)) {
+            code = MALFORMED_CODE;
+        } else if (encoding == Iso8583Encoding.ASCII) {
+            code = array != null
+                    ? FusedEngine.evaluate(table, array, panStart, panStart + panDigits)
+                    : FusedEngine.evaluate(table, buffer, panStart, panStart + panDigits);
+        } else {
+            code = array != null
+                    ? FusedEngine.evaluateBcd(table, array, panStart, panDigits, panLeftPadded)
+                    : FusedEngine.evaluateBcd(table, buffer, panStart, panDigits, panLeftPadded);
+        }
+        if (hasField(EXPIRY_FIELD)) {
+            int yearMonth = expiryYearMonth();
+
+            if (yearMonth < 0 || expiryEvaluator.isExpired(yearMonth)) {
+                code |= ValidationResult.EXPIRY_FAILED;
+            }
+        }
+        ValidationMetrics.recordCheck(code, start);
+
+        return code;
+    }
+
+    private boolean parse(int offset, int end) {
+        readable = false;
+        int position = offset;
+        boolean ascii = encoding == Iso8583Encoding.ASCII;
+
+        // MTI & primary bitmap
+        int mtiBytes = ascii ? 4 : 2;
+        int bitmapBytes = ascii ? 16 : 8;
+        if (end - position < mtiBytes + bitmapBytes) {
+            return false;
+        }
+        mti = number(position, 4);
+        position += mtiBytes;
+        if (mti < 0 || !isBitmap(position)) {
+            return false;
+        }
+        primaryBitmap = bitmap(position);
+        position += bitmapBytes;
+        secondaryBitmap = 0;
+        if (primaryBitmap < 0) {
+            // Field 1 announces the secondary bitmap
+            if (end - position < bitmapBytes || !isBitmap(position)) {
+                return false;
+            }
+            secondaryBitmap = bitmap(position);
+            position += bitmapBytes;
+        }
+
+        for (int field = PAN_FIELD; field <= EXPIRY_FIELD; field++) {
+            if ((primaryBitmap << (field - 1)) >= 0) {
+                continue;
+            }
+            int digits;
+            if (field == PAN_FIELD) {
+                int prefixBytes = ascii ? 2 : 1;
+                if (end - position < prefixBytes) {
+                    return false;
+                }
+                digits = number(position, 2);
+                if (digits < 0 || digits > MAX_PAN_DIGITS) {
+                    return false;
+                }
+                position += prefixBytes;
+                panStart = position;
+                panDigits = digits;
+            } else {
+                digits = FIXED_DIGITS[field];
+                if (field == EXPIRY_FIELD) {
+                    expiryStart = position;
+                }
+            }
+            int size = ascii ? digits : (digits + 1) >>> 1;
+            if (end - position < size) {
+                return false;
+            }
+            if (field == PAN_FIELD && !ascii) {
+                // A trailing F nibble pads on the right, anything else on the left
+                panLeftPadded = (digits & 1) != 0 && (byteAt(position + size - 1) & 0xF) != 0xF;
+            }
+            position += size;
+        }
+        readable = true;
+
+        return true;
+    }
+
+    /*
+     * @return the unsigned value of a numeric item of an even number
+     * of digits, -1 if one of them is not a digit
+     */
+    private int number(int start, int digits) {
+        int value = 0;
+
+        for (int i = 0; i < digits; i++) {
+            int digit = digitAt(start, i);
+
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /*
+     * @return digit i of the numeric item starting at start, -1 if it
+     * is not a digit
+     */
+    private int digitAt(int start, int i) {
+        int digit;
+
+        if (encoding == Iso8583Encoding.ASCII) {
+            digit = byteAt(start + i) - '0';
+        } else {
+            int packed = byteAt(start + (i >>> 1));
+            digit = (i & 1) == 0 ? (packed >>> 4) & 0xF : packed & 0xF;
+        }
+
+        return digit >= 0 && digit <= 9 ? digit : -1;
+    }
+
+    /*
+     * @return whether or not a bitmap can be read at start, any binary
+     * one or sixteen hexadecimal characters
+     */
+    private boolean isBitmap(int start) {
+        if (encoding == Iso8583Encoding.BCD) {
+            return true;
+        }
+        for (int i = 0; i < 16; i++) {
+            if (HEX[byteAt(start + i) & 0xFF] < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /*
+     * @return the 64 bit bitmap starting at start, binary for BCD,
+     * hexadecimal text for ASCII
+     */
+    private long bitmap(int start) {
+        long bitmap = 0;
+
+        if (encoding == Iso8583Encoding.BCD) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                bitmap = bitmap << 8 | byteAt(start + i) & 0xFF;
+            }
+        } else {
+            for (int i = 0; i < 16; i++) {
+                bitmap = bitmap << 4 | HEX[byteAt(start + i) & 0xFF];
+            }
+        }
+
+        return bitmap;
+    }
+
+    private int byteAt(int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+}
@@ -1,22 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.*;
-
 /*
  * JCB format:
  * length = 16
  * IIN range = 3528 - 3589
  */
 public class JCBValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.JCB);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public JCBValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -28,13 +25,7 @@ public class JCBValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -45,17 +36,6 @@ public class JCBValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {3528, 3589};
-        int IIN = parseIIN(creditCardNumberList, 4);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (IIN == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -0,0 +1,146 @@
+package net.mooctest;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Allocation free Luhn engine walking the digits right to left
+ * in place. The sum of the digits of every doubled digit is read
+ * from a precomputed table instead of being computed.
+ */
+public final class LuhnEngine {
+    /*
+     * Value contributed by a digit in a doubled position
+     */
+    static final int[] DOUBLED = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9};
+
+    private LuhnEngine() {
+    }
+
+    /*
+     * @param CharSequence representation of the credit card number
+     * @return boolean of whether or not the number pass the
+     * Luhn algorithm check
+     */
+    public static boolean check(CharSequence creditCardNumber) {
+        return check(creditCardNumber, 0, creditCardNumber.length());
+    }
+
+    /*
+     * @param CharSequence holding the credit card number, start
+     * (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the digits pass the
+     * Luhn algorithm check, false if any of them is not a digit
+     */
+    public static boolean check(CharSequence creditCardNumber, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+
+        for (int i = end - 1; i >= start; i--) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += doubled ? DOUBLED[digit] : digit;
+            doubled = !doubled;
+        }
+
+        return sum % 10 == 0;
+    }
+
+    /*
+     * @param char array holding the credit card number, start
+     * (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the digits pass the
+     * Luhn algorithm check, false if any of them is not a digit
+     */
+    public static boolean check(char[] creditCardNumber, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+
+        for (int i = end - 1; i >= start; i--) {
+            int digit = creditCardNumber[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += doubled ? DOUBLED[digit] : digit;
+            doubled = !doubled;
+        }
+
+        return sum % 10 == 0;
+    }
+
+    /*
+     * @param ASCII byte array holding the credit card number, start
+     * (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the digits pass the
+     * Luhn algorithm check, false if any of them is not a digit
+     */
+    public static boolean check(byte[] creditCardNumber, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+
+        for (int i = end - 1; i >= start; i--) {
+            int digit = creditCardNumber[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += doubled ? DOUBLED[digit] : digit;
+            doubled = !doubled;
+        }
+
+        return sum % 10 == 0;
+    }
+
+    /*
+     * @param buffer holding the ASCII credit card number, absolute
+     * start (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the digits pass the
+     * Luhn algorithm check, false if any of them is not a digit
+     */
+    public static boolean check(ByteBuffer creditCardNumber, int start, int end) {
+        int sum = 0;
+        boolean doubled = false;
+
+        for (int i = end - 1; i >= start; i--) {
+            int digit = creditCardNumber.get(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += doubled ? DOUBLED[digit] : digit;
+            doubled = !doubled;
+        }
+
+        return sum % 10 == 0;
+    }
+
+    /*
+     * @param packed credit card number
+     * @return boolean of whether or not the number pass the Luhn
+     * algorithm check, false if it holds a non digit or is longer
+     * than PackedPan.MAX_DIGITS
+     */
+    public static boolean check(PackedPan creditCardNumber) {
+        return check(creditCardNumber.high(), creditCardNumber.low(), creditCardNumber.length());
+    }
+
+    static boolean check(long high, long low, int length) {
+        if (!PackedPan.isNumeric(high, low, length)) {
+            return false;
+        }
+
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = PackedPan.digitAt(high, low, i);
+
+            sum += doubled ? DOUBLED[digit] : digit;
+            doubled = !doubled;
+        }
+
+        return sum % 10 == 0;
+    }
+}
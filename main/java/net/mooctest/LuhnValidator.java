@@ -1,5 +1,6 @@
 package net.mooctest;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 
@@ -11,6 +12,19 @@ import static net.mooctest.CreditCardParser.parseNumber;
  * number are valid
  */
 class LuhnValidator {
+    private final boolean swar;
+
+    LuhnValidator() {
+        this(false);
+    }
+
+    /*
+     * @param boolean of whether or not byte inputs are checked eight
+     * digits per word by SwarLuhn instead of digit by digit
+     */
+    LuhnValidator(boolean swar) {
+        this.swar = swar;
+    }
 
     /*
      * @param String representation of the credit card number.
@@ -18,7 +32,79 @@ class LuhnValidator {
      * algorithm check.
      */
     boolean validate(String creditCardNumber) {
-        return algorithmCheck(creditCardNumber);
+        long start = ValidationMetrics.start();
+        boolean isValid = LuhnEngine.check(creditCardNumber);
+
+        ValidationMetrics.recordLuhn(isValid, start);
+
+        return isValid;
+    }
+
+    /*
+     * @param packed credit card number
+     * @return boolean of whether or not the number pass the
+     * algorithm check.
+     */
+    boolean validate(PackedPan creditCardNumber) {
+        long start = ValidationMetrics.start();
+        boolean isValid = LuhnEngine.check(creditCardNumber);
+
+        ValidationMetrics.recordLuhn(isValid, start);
+
+        return isValid;
+    }
+
+    /*
+     * @param ASCII bytes holding the credit card number, start
+     * (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the number pass the
+     * algorithm check.
+     */
+    boolean validate(byte[] creditCardNumber, int start, int end) {
+        long begin = ValidationMetrics.start();
+        boolean isValid = swar
+                ? SwarLuhn.check(creditCardNumber, start, end)
+                : LuhnEngine.check(creditCardNumber, start, end);
+
+        ValidationMetrics.recordLuhn(isValid, begin);
+
+        return isValid;
+    }
+
+    /*
+     * @param buffer holding the ASCII credit card number, absolute
+     * start (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the number pass the
+     * algorithm check.
+     */
+    boolean validate(ByteBuffer creditCardNumber, int start, int end) {
+        long begin = ValidationMetrics.start();
+        boolean isValid = swar
+                ? SwarLuhn.check(creditCardNumber, start, end)
+                : LuhnEngine.check(creditCardNumber, start, end);
+
+        ValidationMetrics.recordLuhn(isValid, begin);
+
+        return isValid;
+    }
+
+    /*
+     * Bulk check of a columnar batch, vectorized on JDK 17 and later
+     * when jdk.incubator.vector is present.
+     *
+     * @param batch of card numbers & array receiving one result per
+     * number
+     * @return the results, whether or not each number pass the
+     * algorithm check
+     */
+    boolean[] validate(PanColumns creditCardNumbers, boolean[] results) {
+        int[] sums = creditCardNumbers.digitSums(new int[creditCardNumbers.size()]);
+
+        for (int i = 0; i < sums.length; i++) {
+            results[i] = sums[i] >= 0 && sums[i] % 10 == 0;
+        }
+
+        return results;
     }
 
     /*
@@ -37,6 +123,10 @@ class LuhnValidator {
     }
 
     /*
+     * Reference implementation over a List of Integers, kept for
+     * callers relying on its handling of non digit characters.
+     * LuhnEngine is the allocation free equivalent.
+     *
      * @param String representation of the credit card number
      * @return boolean of whether or not the number pass the
      * Luhn algorithm check
@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * Maestro UK format:
  * length = 12 - 19
  * IIN range = 6759, 676770 - 676774
  */
 public class MaestroUKValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.MAESTRO_UK);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public MaestroUKValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class MaestroUKValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() >= 12 && creditCardNumberList.size() <= 19) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,23 +36,6 @@ public class MaestroUKValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {6759, 676770, 676774};
-        int firstFour = parseIIN(creditCardNumberList, 4);
-        int firstSix = parseIIN(creditCardNumberList, 6);
-
-        if (firstFour == IINRange[0]) {
-            hasAllowedIINRange = true;
-        }
-
-        if (firstSix == IINRange[1]) {
-            hasAllowedIINRange = true;
-        }
-
-        if (firstSix == IINRange[2]) {
-            hasAllowedIINRange = true;
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -1,22 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.*;
-
 /*
  * Maestro format:
  * length = 12 - 19
  * IIN range = 500000 - 509999, 560000 - 589999, 600000 - 699999
  */
 public class MaestroValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.MAESTRO);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public MaestroValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -28,13 +25,7 @@ public class MaestroValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() >= 12 && creditCardNumberList.size() <= 19) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -45,35 +36,6 @@ public class MaestroValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {500000, 509999, 560000, 589999, 600000, 699999};
-        int firstSix = parseIIN(creditCardNumberList, 6);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (firstSix == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        if (!hasAllowedIINRange) {
-            for (int i = IINRange[2]; i <= IINRange[3]; i++) {
-                if (firstSix == i) {
-                    hasAllowedIINRange = true;
-                    break;
-                }
-            }
-        }
-
-        if (!hasAllowedIINRange) {
-            for (int i = IINRange[4]; i <= IINRange[5]; i++) {
-                if (firstSix == i) {
-                    hasAllowedIINRange = true;
-                    break;
-                }
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -0,0 +1,300 @@
+package net.mooctest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Read only, memory mapped BIN index for large 8 digit BIN feeds.
+ *
+ * The file is a header followed by fixed width records sorted by
+ * their lowest prefix and an issuer metadata area:
+ *
+ *     header   int magic "BINX", int version, int record count,
+ *              int offset of the metadata area
+ *     record   int low, int high (both normalized to 8 digits),
+ *              int lengths mask, int issuer offset, short issuer
+ *              length, byte card type ordinal, byte source digits
+ *     metadata UTF-8 issuer names addressed by the records
+ *
+ * Opening checks every record once, so a corrupt or newer file fails
+ * there with an IOException rather than at lookup time; afterwards the
+ * operating system page cache keeps the records lookups touch. Records
+ * never overlap, a lookup is a branch-light binary search over the mapped
+ * bytes and returns the record index, from which the type, lengths
+ * and issuer metadata offsets are read. Files are limited to 2 GB.
+ */
+public final class MappedBinIndex {
+    /*
+     * Number of leading digits every range is normalized to
+     */
+    public static final int PREFIX_DIGITS = 8;
+
+    /*
+     * Returned by find when no record covers the prefix
+     */
+    public static final int NOT_FOUND = -1;
+
+    static final int MAGIC = 0x42494E58;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 20;
+
+    private static final int LOW = 0;
+    private static final int HIGH = 4;
+    private static final int LENGTHS = 8;
+    private static final int ISSUER_OFFSET = 12;
+    private static final int ISSUER_LENGTH = 16;
+    private static final int TYPE = 18;
+    private static final int DIGITS = 19;
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private final ByteBuffer index;
+    private final int count;
+    private final int metadataOffset;
+
+    private MappedBinIndex(ByteBuffer index, int count, int metadataOffset) {
+        this.index = index;
+        this.count = count;
+        this.metadataOffset = metadataOffset;
+    }
+
+    /*
+     * Map an index file written by the BinIndexWriter.
+     *
+     * @param the index file
+     * @return the mapped index
+     */
+    public static MappedBinIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a BIN index");
+            }
+
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), file.toString());
+        }
+    }
+
+    /*
+     * @param index bytes, e.g. an already mapped region
+     * @return the index reading them in place
+     */
+    public static MappedBinIndex wrap(ByteBuffer bytes) throws IOException {
+        return wrap(bytes.slice(), "buffer");
+    }
+
+    private static MappedBinIndex wrap(ByteBuffer index, String source) throws IOException {
+        if (index.capacity() < HEADER_SIZE || index.getInt(0) != MAGIC) {
+            throw new IOException(source + " is not a BIN index");
+        }
+        int version = index.getInt(4);
+        if (version != VERSION) {
+            throw new IOException(source + " has unsupported BIN index version " + version);
+        }
+        int count = index.getInt(8);
+        int metadataOffset = index.getInt(12);
+        if (count < 0 || metadataOffset != HEADER_SIZE + (long) count * RECORD_SIZE
+                || metadataOffset > index.capacity()) {
+            throw new IOException(source + " is truncated, expected " + count + " records");
+        }
+        checkRecords(index, count, index.capacity() - metadataOffset, source);
+
+        return new MappedBinIndex(index.asReadOnlyBuffer(), count, metadataOffset);
+    }
+
+    /*
+     * Check the fields lookups trust: known card types, source digits,
+     * lengths masks & issuer names within the metadata area, ranges
+     * sorted without overlaps.
+     */
+    private static void checkRecords(ByteBuffer index, int count, int metadataLength, String source)
+            throws IOException {
+        int previousHigh = -1;
+
+        for (int record = 0; record < count; record++) {
+            int at = HEADER_SIZE + record * RECORD_SIZE;
+            int low = index.getInt(at + LOW);
+            int high = index.getInt(at + HIGH);
+            int typeOrdinal = index.get(at + TYPE) & 0xFF;
+            int digits = index.get(at + DIGITS);
+            int lengthMask = index.getInt(at + LENGTHS);
+            int issuerOffset = index.getInt(at + ISSUER_OFFSET);
+            int issuerLength = index.getShort(at + ISSUER_LENGTH) & 0xFFFF;
+
+            if (typeOrdinal >= TYPES.length || TYPES[typeOrdinal] == CreditCardType.OTHER) {
+                throw new IOException(source + " record " + record + " has unknown card type " + typeOrdinal);
+            }
+            if (digits < 1 || digits > PREFIX_DIGITS) {
+                throw new IOException(source + " record " + record + " has " + digits + " source digits");
+            }
+            if (!BinRangeTable.isLengthMask(lengthMask)) {
+                throw new IOException(source + " record " + record + " has invalid lengths mask 0x"
+                        + Integer.toHexString(lengthMask));
+            }
+            if (issuerOffset < 0 || (long) issuerOffset + issuerLength > metadataLength) {
+                throw new IOException(source + " record " + record + " has its issuer outside the metadata");
+            }
+            if (low <= previousHigh || low > high || high >= BinRangeTable.pow10(PREFIX_DIGITS)) {
+                throw new IOException(source + " record " + record + " has unsorted or invalid range "
+                        + low + " - " + high);
+            }
+            previousHigh = high;
+        }
+    }
+
+    /*
+     * @return number of records in the index
+     */
+    public int size() {
+        return count;
+    }
+
+    /*
+     * @param the first PREFIX_DIGITS digits of a card number as an int
+     * @return index of the record covering the prefix, NOT_FOUND if no
+     * record does
+     */
+    public int find(int prefix) {
+        if (count == 0) {
+            return NOT_FOUND;
+        }
+
+        int base = 0;
+        int remaining = count;
+        while (remaining > 1) {
+            int half = remaining >>> 1;
+
+            base = lowAt(base + half) <= prefix ? base + half : base;
+            remaining -= half;
+        }
+
+        return lowAt(base) <= prefix && prefix <= highAt(base) ? base : NOT_FOUND;
+    }
+
+    /*
+     * Find the record of a card number, reading at most its first
+     * PREFIX_DIGITS characters.
+     *
+     * @param a CharSequence representation of the credit card number
+     * @return index of the matching record, NOT_FOUND if the number is
+     * shorter than PREFIX_DIGITS, starts with a non-digit or no record
+     * covers it
+     */
+    public int find(CharSequence creditCardNumber) {
+        if (creditCardNumber.length() < PREFIX_DIGITS) {
+            return NOT_FOUND;
+        }
+
+        int prefix = 0;
+        for (int i = 0; i < PREFIX_DIGITS; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return NOT_FOUND;
+            }
+            prefix = prefix * 10 + digit;
+        }
+
+        return find(prefix);
+    }
+
+    /*
+     * @param a CharSequence representation of the credit card number
+     * @return CreditCardType of the covering record if it allows the
+     * number's length, OTHER otherwise
+     */
+    public CreditCardType classify(CharSequence creditCardNumber) {
+        int record = find(creditCardNumber);
+        int length = creditCardNumber.length();
+
+        if (record == NOT_FOUND || length > BinRangeTable.MAX_LENGTH
+                || (lengthMaskAt(record) & (1 << length)) == 0) {
+            return CreditCardType.OTHER;
+        }
+
+        return typeAt(record);
+    }
+
+    /*
+     * @param record index
+     * @return lowest prefix of the record, normalized to PREFIX_DIGITS
+     */
+    public int lowAt(int record) {
+        return index.getInt(HEADER_SIZE + record * RECORD_SIZE + LOW);
+    }
+
+    /*
+     * @param record index
+     * @return highest prefix of the record, normalized to PREFIX_DIGITS
+     */
+    public int highAt(int record) {
+        return index.getInt(HEADER_SIZE + record * RECORD_SIZE + HIGH);
+    }
+
+    /*
+     * @param record index
+     * @return CreditCardType of the record
+     */
+    public CreditCardType typeAt(int record) {
+        return TYPES[index.get(HEADER_SIZE + record * RECORD_SIZE + TYPE)];
+    }
+
+    /*
+     * @param record index
+     * @return mask of the lengths (bit n for n digits) the record allows
+     */
+    public int lengthMaskAt(int record) {
+        return index.getInt(HEADER_SIZE + record * RECORD_SIZE + LENGTHS);
+    }
+
+    /*
+     * @param record index
+     * @return number of digits the range was published with
+     */
+    public int digitsAt(int record) {
+        return index.get(HEADER_SIZE + record * RECORD_SIZE + DIGITS);
+    }
+
+    /*
+     * @param record index
+     * @return absolute offset of the record's issuer name in the index
+     */
+    public int issuerOffset(int record) {
+        return metadataOffset + index.getInt(HEADER_SIZE + record * RECORD_SIZE + ISSUER_OFFSET);
+    }
+
+    /*
+     * @param record index
+     * @return length in bytes of the record's UTF-8 issuer name
+     */
+    public int issuerLength(int record) {
+        return index.getShort(HEADER_SIZE + record * RECORD_SIZE + ISSUER_LENGTH) & 0xFFFF;
+    }
+
+    /*
+     * @return read only view of the whole index, issuer names are read
+     * from it at issuerOffset without copying
+     */
+    public ByteBuffer buffer() {
+        return index.duplicate();
+    }
+
+    /*
+     * @param record index
+     * @return issuer name of the record, decoded on every call
+     */
+    public String issuerAt(int record) {
+        byte[] name = new byte[issuerLength(record)];
+        ByteBuffer view = index.duplicate();
+
+        view.position(issuerOffset(record));
+        view.get(name);
+
+        return new String(name, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package net.mooctest;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/*
+ * Reader masking the card numbers PanScanner finds in the underlying
+ * reader. Chars are handed out as soon as they cannot belong to a
+ * card number any more, so at most the digit groups of one run, about
+ * a kilobyte, are held back.
+ */
+public final class MaskingReader extends FilterReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final PanScanner scanner;
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    // Stream offset of buffer[0]
+    private long bufferBase;
+    private int readPosition;
+    private int released;
+    private int filled;
+    private boolean eof;
+    private long maskedCount;
+
+    public MaskingReader(Reader in) {
+        this(in, PanMasker.DEFAULT, TypeChecker.currentTable());
+    }
+
+    /*
+     * @param underlying reader, masker & table confirming the card
+     * numbers
+     */
+    public MaskingReader(Reader in, PanMasker masker, BinRangeTable table) {
+        super(in);
+        this.scanner = new PanScanner(table, (start, end, type) -> {
+            masker.mask(buffer, (int) (start - bufferBase), (int) (end - bufferBase));
+            maskedCount++;
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (readPosition == released) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+
+        return buffer[readPosition++] ;
+    }
+
+    @Override
+    public int read(char[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (readPosition == released) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+
+        int count = Math.min(len, released - readPosition);
+        System.arraycopy(buffer, readPosition, b, off, count);
+        readPosition += count;
+
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+
+        while (skipped < n && (readPosition < released || fill())) {
+            int count = (int) Math.min(n - skipped, released - readPosition);
+            readPosition += count;
+            skipped += count;
+        }
+
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() {
+        return readPosition < released;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /*
+     * @return number of card numbers masked so far
+     */
+    public long getMaskedCount() {
+        return maskedCount;
+    }
+
+    /*
+     * Read more of the underlying stream, scan it & release what can
+     * no longer be part of a card number.
+     *
+     * @return false at the end of the stream with nothing left to hand
+     * out
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (readPosition > 0) {
+            System.arraycopy(buffer, readPosition, buffer, 0, filled - readPosition);
+            bufferBase += readPosition;
+            filled -= readPosition;
+            released -= readPosition;
+            readPosition = 0;
+        }
+
+        int read = in.read(buffer, filled, buffer.length - filled);
+        if (read == -1) {
+            eof = true;
+            scanner.finish();
+            released = filled;
+
+            return released > readPosition;
+        }
+        scanner.scan(buffer, filled, read);
+        filled += read;
+        released = (int) (scanner.pendingStart() - bufferBase);
+
+        return true;
+    }
+}
@@ -1,22 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.*;
-
 /*
  * Mastercard format:
  * length = 16
  * IIN range = 51 - 55, 222100 - 272099
  */
 public class MasterCardValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.MASTERCARD);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public MasterCardValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -28,13 +25,7 @@ public class MasterCardValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -45,27 +36,6 @@ public class MasterCardValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {51, 55, 222100, 272099};
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-        int firstSix = parseIIN(creditCardNumberList, 6);
-
-        for (int i = IINRange[0]; i <= IINRange[1]; i++) {
-            if (firstTwo == i) {
-                hasAllowedIINRange = true;
-                break;
-            }
-        }
-
-        if (!hasAllowedIINRange) {
-            for (int i = IINRange[2]; i <= IINRange[3]; i++) {
-                if (firstSix == i) {
-                    hasAllowedIINRange = true;
-                    break;
-                }
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -0,0 +1,77 @@
+package net.mooctest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Point in time copy of the ValidationMetrics.
+ */
+public final class MetricsSnapshot {
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+    private static final FailureReason[] REASONS = FailureReason.values();
+    private static final ValidationStage[] STAGES = ValidationStage.values();
+
+    private final long[] typeCounts;
+    private final long[] failureCounts;
+    private final HistogramSnapshot[] latencies;
+
+    MetricsSnapshot(long[] typeCounts, long[] failureCounts, HistogramSnapshot[] latencies) {
+        this.typeCounts = typeCounts;
+        this.failureCounts = failureCounts;
+        this.latencies = latencies;
+    }
+
+    /*
+     * @param card type
+     * @return number of numbers classified as that type
+     */
+    public long getTypeCount(CreditCardType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /*
+     * @param failure reason
+     * @return number of checks that failed for that reason
+     */
+    public long getFailureCount(FailureReason reason) {
+        return failureCounts[reason.ordinal()];
+    }
+
+    /*
+     * @param pipeline stage
+     * @return latency histogram of the stage in nanoseconds
+     */
+    public HistogramSnapshot getLatency(ValidationStage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    Map<String, Long> typeCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (CreditCardType type : TYPES) {
+            counts.put(type.name(), typeCounts[type.ordinal()]);
+        }
+
+        return counts;
+    }
+
+    Map<String, Long> failureCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (FailureReason reason : REASONS) {
+            counts.put(reason.name(), failureCounts[reason.ordinal()]);
+        }
+
+        return counts;
+    }
+
+    Map<String, Long> latencyPercentiles(double percentile) {
+        Map<String, Long> values = new LinkedHashMap<>();
+
+        for (ValidationStage stage : STAGES) {
+            values.put(stage.name(), latencies[stage.ordinal()].percentile(percentile));
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,175 @@
+package net.mooctest;
+
+/*
+ * Compact, immutable card number: up to MAX_DIGITS digits packed
+ * four bits each (BCD) in two longs, plus the length. Parsed once,
+ * it serves classification, length, IIN & Luhn checks without a
+ * List of boxed Integers.
+ *
+ * The first digit sits in the top nibble of the high long, so the
+ * value of the first n digits is one shift and a branch free BCD to
+ * binary conversion. A character other than an ASCII digit is kept
+ * as the nibble NON_DIGIT and reads as -1. Lengths are counted in
+ * characters and saturate at MAX_LENGTH.
+ */
+public final class PackedPan {
+    /*
+     * Number of digits kept
+     */
+    public static final int MAX_DIGITS = 32;
+
+    /*
+     * Highest length recorded, longer numbers report this length
+     */
+    public static final int MAX_LENGTH = Byte.MAX_VALUE;
+
+    static final int DIGITS_PER_LONG = 16;
+    static final int NON_DIGIT = 0xF;
+
+    private static final long LOW_NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+    private static final long NIBBLE_HIGH_BITS = 0x8888888888888888L;
+
+    private final long high;
+    private final long low;
+    private final byte length;
+
+    PackedPan(long high, long low, int length) {
+        this.high = high;
+        this.low = low;
+        this.length = (byte) length;
+    }
+
+    /*
+     * @param a CharSequence representation of the credit card number
+     * @return the packed number
+     */
+    public static PackedPan of(CharSequence creditCardNumber) {
+        int length = creditCardNumber.length();
+
+        return new PackedPan(packHigh(creditCardNumber), packLow(creditCardNumber), Math.min(length, MAX_LENGTH));
+    }
+
+    static long packHigh(CharSequence creditCardNumber) {
+        return pack(creditCardNumber, 0);
+    }
+
+    static long packLow(CharSequence creditCardNumber) {
+        return pack(creditCardNumber, DIGITS_PER_LONG);
+    }
+
+    private static long pack(CharSequence creditCardNumber, int from) {
+        int to = Math.min(creditCardNumber.length(), from + DIGITS_PER_LONG);
+        long packed = 0;
+
+        for (int i = from; i < to; i++) {
+            int digit = creditCardNumber.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                digit = NON_DIGIT;
+            }
+            packed |= (long) digit << (60 - 4 * (i - from));
+        }
+
+        return packed;
+    }
+
+    /*
+     * @return number of characters of the card number, at most
+     * MAX_LENGTH
+     */
+    public int length() {
+        return length;
+    }
+
+    /*
+     * @param position of the digit, below both length() and MAX_DIGITS
+     * @return the digit, -1 if the character there is not a digit
+     */
+    public int digitAt(int index) {
+        if (index < 0 || index >= Math.min(length, MAX_DIGITS)) {
+            throw new IndexOutOfBoundsException("Digit " + index + " of a " + length + " digit number");
+        }
+
+        return digitAt(high, low, index);
+    }
+
+    /*
+     * @param number of leading digits, at most 16 and length()
+     * @return their value, -1 if one of them is not a digit
+     */
+    public long prefix(int digits) {
+        if (digits < 0 || digits > DIGITS_PER_LONG || digits > length) {
+            throw new IndexOutOfBoundsException("Prefix of " + digits + " digits of a " + length
+                    + " digit number");
+        }
+
+        return prefix(high, digits);
+    }
+
+    /*
+     * @return boolean of whether or not every character is a digit
+     * and all of them are kept
+     */
+    public boolean isNumeric() {
+        return isNumeric(high, low, length);
+    }
+
+    long high() {
+        return high;
+    }
+
+    long low() {
+        return low;
+    }
+
+    static int digitAt(long high, long low, int index) {
+        long packed = index < DIGITS_PER_LONG ? high : low;
+        int digit = (int) (packed >>> (60 - 4 * (index & (DIGITS_PER_LONG - 1)))) & 0xF;
+
+        return digit == NON_DIGIT ? -1 : digit;
+    }
+
+    static long prefix(long high, int digits) {
+        if (digits == 0) {
+            return 0;
+        }
+        long bcd = high >>> (64 - 4 * digits);
+        if (hasNonDigit(bcd)) {
+            return -1;
+        }
+
+        // Pairs of digits to bytes, bytes to shorts, shorts to ints
+        bcd = ((bcd >>> 4) & LOW_NIBBLES) * 10 + (bcd & LOW_NIBBLES);
+        bcd = ((bcd >>> 8) & 0x00FF00FF00FF00FFL) * 100 + (bcd & 0x00FF00FF00FF00FFL);
+        bcd = ((bcd >>> 16) & 0x0000FFFF0000FFFFL) * 10000 + (bcd & 0x0000FFFF0000FFFFL);
+
+        return (bcd >>> 32) * 100000000L + (bcd & 0xFFFFFFFFL);
+    }
+
+    static boolean isNumeric(long high, long low, int length) {
+        return length <= MAX_DIGITS && !hasNonDigit(high) && !hasNonDigit(low);
+    }
+
+    /*
+     * @return whether any nibble is above 9: its top bit is set along
+     * with one of the two below it
+     */
+    private static boolean hasNonDigit(long packed) {
+        return (packed & ((packed << 1) | (packed << 2)) & NIBBLE_HIGH_BITS) != 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PackedPan)) {
+            return false;
+        }
+        PackedPan pan = (PackedPan) other;
+
+        return high == pan.high && low == pan.low && length == pan.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high * 31 + low) * 31 + length;
+    }
+}
@@ -0,0 +1,118 @@
+package net.mooctest;
+
+import java.util.Arrays;
+
+/*
+ * Growable, column oriented store of packed card numbers for large
+ * in-memory batches: two longs of BCD digits and one length byte per
+ * number, 17 bytes each, with no object per card.
+ */
+public final class PackedPanBatch {
+    private long[] highs;
+    private long[] lows;
+    private byte[] lengths;
+    private int size;
+
+    public PackedPanBatch() {
+        this(1024);
+    }
+
+    /*
+     * @param initial number of card numbers
+     */
+    public PackedPanBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid batch capacity: " + capacity);
+        }
+        highs = new long[capacity];
+        lows = new long[capacity];
+        lengths = new byte[capacity];
+    }
+
+    /*
+     * @param a CharSequence representation of the credit card number
+     * @return its index in the batch
+     */
+    public int add(CharSequence creditCardNumber) {
+        if (size == highs.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+
+            highs = Arrays.copyOf(highs, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        highs[size] = PackedPan.packHigh(creditCardNumber);
+        lows[size] = PackedPan.packLow(creditCardNumber);
+        lengths[size] = (byte) Math.min(creditCardNumber.length(), PackedPan.MAX_LENGTH);
+
+        return size++;
+    }
+
+    /*
+     * @return number of card numbers in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @param index in the batch
+     * @return the card number as a PackedPan
+     */
+    public PackedPan get(int index) {
+        checkIndex(index);
+
+        return new PackedPan(highs[index], lows[index], lengths[index]);
+    }
+
+    /*
+     * @param index in the batch
+     * @return number of characters of the card number
+     */
+    public int length(int index) {
+        checkIndex(index);
+
+        return lengths[index];
+    }
+
+    /*
+     * @param index in the batch
+     * @return boolean of whether or not the card number passes the
+     * Luhn check, an empty one does not
+     */
+    public boolean isLuhnValid(int index) {
+        checkIndex(index);
+
+        return lengths[index] > 0 && LuhnEngine.check(highs[index], lows[index], lengths[index]);
+    }
+
+    /*
+     * @param index in the batch & the table to classify against
+     * @return the ordinal of the matching CreditCardType
+     */
+    public int typeOrdinal(int index, BinRangeTable table) {
+        checkIndex(index);
+
+        return table.typeOrdinal(highs[index], lows[index], lengths[index]);
+    }
+
+    /*
+     * @param index in the batch & the table to classify against
+     * @return the packed ValidationResult code of the card number
+     */
+    int code(int index, BinRangeTable table) {
+        checkIndex(index);
+
+        return ValidationResult.checkNumber(table, highs[index], lows[index], lengths[index]);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of a batch of " + size);
+        }
+    }
+}
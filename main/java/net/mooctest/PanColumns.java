@@ -0,0 +1,139 @@
+package net.mooctest;
+
+import java.util.Arrays;
+
+/*
+ * Columnar batch of ASCII card numbers for the bulk digit & Luhn
+ * checks: every number sits right aligned in a fixed width slot,
+ * padded on the left with '0' which changes neither check, so one
+ * slot is one group of lanes and the doubled lanes are the same for
+ * every number.
+ *
+ * The slots are checked by ColumnarKernel, a vectorized kernel on
+ * JDK 17 and later when jdk.incubator.vector is present, eight
+ * digits per word everywhere else.
+ */
+public final class PanColumns {
+    /*
+     * Longest supported slot, every slot width is a multiple of eight
+     */
+    public static final int MAX_SLOT_WIDTH = 32;
+
+    private final int slotWidth;
+    private byte[] columns;
+    private byte[] lengths;
+    private int size;
+
+    public PanColumns() {
+        this(1024, 24);
+    }
+
+    /*
+     * @param initial number of card numbers & the slot width, a
+     * multiple of eight up to MAX_SLOT_WIDTH
+     */
+    public PanColumns(int capacity, int slotWidth) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid batch capacity: " + capacity);
+        }
+        if (slotWidth < Long.BYTES || slotWidth > MAX_SLOT_WIDTH || slotWidth % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Invalid slot width: " + slotWidth);
+        }
+        this.slotWidth = slotWidth;
+        columns = new byte[capacity * slotWidth];
+        lengths = new byte[capacity];
+    }
+
+    /*
+     * @param a CharSequence representation of the credit card number,
+     * one to slot width characters long: an empty one would read as
+     * a slot of '0' padding, all digits & Luhn valid
+     * @return its index in the batch
+     */
+    public int add(CharSequence creditCardNumber) {
+        int length = creditCardNumber.length();
+
+        if (length == 0) {
+            throw new IllegalArgumentException("Empty card number");
+        }
+        if (length > slotWidth) {
+            throw new IllegalArgumentException("Card number of " + length + " characters exceeds the slot width "
+                    + slotWidth);
+        }
+        if (size == lengths.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+
+            columns = Arrays.copyOf(columns, capacity * slotWidth);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+
+        int slot = size * slotWidth;
+        int padding = slotWidth - length;
+        Arrays.fill(columns, slot, slot + padding, (byte) '0');
+        for (int i = 0; i < length; i++) {
+            char c = creditCardNumber.charAt(i);
+
+            // Anything outside ASCII must not alias a digit once narrowed
+            columns[slot + padding + i] = c < 0x80 ? (byte) c : (byte) 0xFF;
+        }
+        lengths[size] = (byte) length;
+
+        return size++;
+    }
+
+    /*
+     * @return number of card numbers in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * @return width in bytes of every slot
+     */
+    public int slotWidth() {
+        return slotWidth;
+    }
+
+    /*
+     * @param index in the batch
+     * @return number of characters of the card number
+     */
+    public int length(int index) {
+        checkIndex(index);
+
+        return lengths[index];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /*
+     * @return name of the kernel checking the slots, "vector" or
+     * "scalar"
+     */
+    public static String implementation() {
+        return ColumnarKernel.name();
+    }
+
+    /*
+     * @param array receiving one entry per card number
+     * @return the per number Luhn digit sums, -1 for a number holding
+     * any non digit
+     */
+    int[] digitSums(int[] sums) {
+        if (sums.length < size) {
+            throw new IllegalArgumentException("Result array of " + sums.length + " for " + size + " card numbers");
+        }
+        ColumnarKernel.digitSums(columns, size, slotWidth, sums);
+
+        return sums;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of a batch of " + size);
+        }
+    }
+}
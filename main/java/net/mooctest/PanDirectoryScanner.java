@@ -0,0 +1,282 @@
+package net.mooctest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Sweeps a directory tree for leaked card numbers with PanScanner,
+ * one fork/join task per file on the given pool. Files ending in .gz
+ * are streamed through a GZIPInputStream; other files are read with
+ * positional reads into a small buffer and, above the segment size,
+ * split into segments scanned in parallel. Segments start right
+ * after a byte that ends every run, so no card number straddles two
+ * segments; inside a segment the scanner carries runs across reads.
+ *
+ * Memory stays bounded: one read buffer per running task, nothing is
+ * kept per match but the counts.
+ */
+public final class PanDirectoryScanner {
+    /*
+     * Default segment size, larger files are split
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int segmentSize;
+    private final ForkJoinPool pool;
+    private final BinRangeTable table;
+
+    public PanDirectoryScanner() {
+        this(DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool(), TypeChecker.currentTable());
+    }
+
+    /*
+     * @param approximate segment size in bytes, the pool scanning the
+     * files & the table confirming the card numbers
+     */
+    public PanDirectoryScanner(int segmentSize, ForkJoinPool pool, BinRangeTable table) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.pool = pool;
+        this.table = table;
+    }
+
+    /*
+     * @param root directory, or a single file
+     * @return findings per file & per card type, files that cannot be
+     * read are reported with their error rather than failing the sweep
+     */
+    public DiscoveryReport scan(Path root) throws IOException {
+        FileLister lister = new FileLister();
+        List<FileTask> tasks = new ArrayList<>();
+
+        Files.walkFileTree(root, lister);
+        for (Path file : lister.files) {
+            tasks.add(new FileTask(file));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        DiscoveryReport report = new DiscoveryReport();
+        for (FileFindings failure : lister.failures) {
+            report.add(failure);
+        }
+        for (FileTask task : tasks) {
+            report.add(task.join());
+        }
+
+        return report;
+    }
+
+    /*
+     * Collects the regular files of the tree; a file or directory that
+     * cannot be visited is recorded as failed and the walk goes on.
+     */
+    static final class FileLister extends SimpleFileVisitor<Path> {
+        final List<Path> files = new ArrayList<>();
+        final List<FileFindings> failures = new ArrayList<>();
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            if (attributes.isRegularFile()) {
+                files.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            fail(file, e);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path directory, IOException e) {
+            if (e != null) {
+                fail(directory, e);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void fail(Path path, IOException e) {
+            FileFindings findings = new FileFindings(path);
+
+            findings.fail(e.toString());
+            failures.add(findings);
+        }
+    }
+
+    /*
+     * Scans one file, forking a task per segment for large plain files.
+     */
+    private final class FileTask extends RecursiveTask<FileFindings> {
+        private final Path file;
+
+        FileTask(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        protected FileFindings compute() {
+            FileFindings findings = new FileFindings(file);
+
+            try {
+                if (file.getFileName().toString().endsWith(".gz")) {
+                    scanGzip(file, findings);
+                } else {
+                    scanPlain(findings);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                findings.fail(e.toString());
+            }
+
+            return findings;
+        }
+
+        private void scanPlain(FileFindings findings) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long[] boundaries = segmentBoundaries(channel, segmentSize);
+
+                if (boundaries.length == 2) {
+                    scanRange(channel, 0, boundaries[1], findings);
+                    return;
+                }
+
+                List<SegmentTask> segments = new ArrayList<>();
+                for (int i = 0; i + 1 < boundaries.length; i++) {
+                    segments.add(new SegmentTask(channel, boundaries[i], boundaries[i + 1]));
+                }
+                invokeAll(segments);
+                for (SegmentTask segment : segments) {
+                    findings.merge(segment.join());
+                }
+            }
+        }
+
+        private final class SegmentTask extends RecursiveTask<FileFindings> {
+            private final FileChannel channel;
+            private final long start;
+            private final long end;
+
+            SegmentTask(FileChannel channel, long start, long end) {
+                this.channel = channel;
+                this.start = start;
+                this.end = end;
+            }
+
+            @Override
+            protected FileFindings compute() {
+                FileFindings findings = new FileFindings(file);
+
+                try {
+                    scanRange(channel, start, end, findings);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                return findings;
+            }
+        }
+    }
+
+    private void scanRange(FileChannel channel, long start, long end, FileFindings findings) throws IOException {
+        PanScanner scanner = new PanScanner(table, (from, to, type) -> findings.record(type));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer window = ByteBuffer.wrap(buffer);
+        long position = start;
+
+        while (position < end) {
+            window.clear();
+            window.limit((int) Math.min(buffer.length, end - position));
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            scanner.scan(buffer, 0, read);
+            position += read;
+        }
+        scanner.finish();
+        findings.addBytes(position - start);
+    }
+
+    private void scanGzip(Path file, FileFindings findings) throws IOException {
+        PanScanner scanner = new PanScanner(table, (from, to, type) -> findings.record(type));
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            scanner.scan(in);
+        }
+        findings.addBytes(scanner.position());
+    }
+
+    /*
+     * @return segment start offsets followed by the file size, every
+     * segment but the first starting right after a byte that ends
+     * every PanScanner run
+     */
+    static long[] segmentBoundaries(FileChannel channel, int segmentSize) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        ByteBuffer window = ByteBuffer.allocate(4096);
+
+        boundaries.add(0L);
+        long position = segmentSize;
+        while (position < size) {
+            long boundary = nextRunBreak(channel, position, window);
+            if (boundary >= size) {
+                break;
+            }
+            boundaries.add(boundary);
+            position = boundary + segmentSize;
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+
+        return result;
+    }
+
+    /*
+     * @return offset right after the first run breaking byte at or
+     * after position, the file size if there is none
+     */
+    private static long nextRunBreak(FileChannel channel, long position, ByteBuffer window) throws IOException {
+        while (true) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (PanScanner.breaksRun(window.get(i))) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package net.mooctest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * File level validator for newline delimited card number files.
+ * The file is memory mapped in line aligned chunks, validated in
+ * parallel straight from the mapped bytes, never decoded to Strings.
+ *
+ * The optional result file holds one byte per line: the card type
+ * ordinal in the low five bits, RESULT_LUHN_VALID, RESULT_LENGTH_VALID
+ * and RESULT_IIN_VALID flags above it.
+ */
+public final class PanFileScanner {
+    public static final int RESULT_TYPE_MASK = 0x1F;
+    public static final int RESULT_LUHN_VALID = 0x20;
+    public static final int RESULT_LENGTH_VALID = 0x40;
+    public static final int RESULT_IIN_VALID = 0x80;
+
+    /*
+     * Default chunk size, each chunk is mapped on its own
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    public PanFileScanner() {
+        this(DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * @param approximate chunk size in bytes & the pool scanning
+     * the chunks
+     */
+    public PanFileScanner(int chunkSize, ForkJoinPool pool) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    /*
+     * @param newline delimited card number file
+     * @return per CreditCardType counts
+     */
+    public ScanReport scan(Path file) throws IOException {
+        return scan(file, null);
+    }
+
+    /*
+     * @param newline delimited card number file & the binary result
+     * file to write, null for none
+     * @return per CreditCardType counts
+     */
+    public ScanReport scan(Path file, Path resultFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<ChunkTask> tasks = new ArrayList<>();
+            long[] boundaries = chunkBoundaries(channel);
+
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                tasks.add(new ChunkTask(channel, boundaries[i], boundaries[i + 1], resultFile != null));
+            }
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    invokeAll(tasks);
+                    return null;
+                }
+            });
+
+            ScanReport report = new ScanReport();
+            for (ChunkTask task : tasks) {
+                report.merge(task.join());
+            }
+            if (resultFile != null) {
+                writeResults(tasks, resultFile);
+            }
+
+            return report;
+        }
+    }
+
+    /*
+     * @return chunk start offsets followed by the file size, every
+     * chunk but the first starting right after a newline
+     */
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        ByteBuffer window = ByteBuffer.allocate(4096);
+
+        boundaries.add(0L);
+        long position = chunkSize;
+        while (position < size) {
+            long lineEnd = nextLineStart(channel, position, window);
+            if (lineEnd >= size) {
+                break;
+            }
+            boundaries.add(lineEnd);
+            position = lineEnd + chunkSize;
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+
+        return result;
+    }
+
+    /*
+     * @return offset right after the first newline at or after
+     * position, the file size if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer window) throws IOException {
+        while (true) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static void writeResults(List<ChunkTask> tasks, Path resultFile) throws IOException {
+        try (OutputStream out = Files.newOutputStream(resultFile)) {
+            for (ChunkTask task : tasks) {
+                out.write(task.results, 0, task.resultCount);
+            }
+        }
+    }
+
+    /*
+     * Validates every line of one mapped chunk.
+     */
+    private static final class ChunkTask extends RecursiveTask<ScanReport> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final boolean keepResults;
+        private byte[] results;
+        private int resultCount;
+
+        ChunkTask(FileChannel channel, long start, long end, boolean keepResults) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.keepResults = keepResults;
+        }
+
+        @Override
+        protected ScanReport compute() {
+            ScanReport report = new ScanReport();
+            MappedByteBuffer chunk;
+
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot map " + start + " - " + end, e);
+            }
+            if (keepResults) {
+                results = new byte[Math.max(16, (int) ((end - start) / 16))];
+            }
+
+            BinRangeTable table = TypeChecker.currentTable();
+            int limit = chunk.limit();
+            int lineStart = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i == limit || chunk.get(i) == '\n') {
+                    int lineEnd = i > lineStart && chunk.get(i - 1) == '\r' ? i - 1 : i;
+                    if (i < limit || lineEnd > lineStart) {
+                        record(report, validateLine(table, chunk, lineStart, lineEnd));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+
+            return report;
+        }
+
+        private void record(ScanReport report, int result) {
+            report.record(result & RESULT_TYPE_MASK, (result & RESULT_LUHN_VALID) != 0,
+                    (result & RESULT_LENGTH_VALID) != 0, (result & RESULT_IIN_VALID) != 0);
+            if (keepResults) {
+                if (resultCount == results.length) {
+                    results = Arrays.copyOf(results, resultCount * 2);
+                }
+                results[resultCount++] = (byte) result;
+            }
+        }
+    }
+
+    /*
+     * Classify & Luhn check one line in a single pass of the fused
+     * engine.
+     *
+     * @return the result byte of the line
+     */
+    static int validateLine(BinRangeTable table, ByteBuffer buffer, int start, int end) {
+        int code = FusedEngine.evaluate(table, buffer, start, end);
+        int result = code & ValidationResult.TYPE_MASK;
+
+        if ((code & ValidationResult.LUHN_FAILED) == 0) {
+            result |= RESULT_LUHN_VALID;
+        }
+        if ((code & (ValidationResult.IIN_FAILED | ValidationResult.MALFORMED)) == 0) {
+            result |= RESULT_IIN_VALID;
+            if ((code & ValidationResult.LENGTH_FAILED) == 0) {
+                result |= RESULT_LENGTH_VALID;
+            }
+        }
+
+        return result;
+    }
+}
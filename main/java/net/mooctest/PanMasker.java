@@ -0,0 +1,188 @@
+package net.mooctest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/*
+ * Masks card numbers for display and logging: the first keepFirst &
+ * last keepLast digits are kept, every other digit is replaced by the
+ * mask character, separators are kept as they are. DEFAULT is the
+ * PCI first six / last four. When the kept digits would cover the
+ * whole number only the last keepLast are kept.
+ *
+ * Masked numbers are written straight to the sink or masked in
+ * place, no String is built.
+ */
+public final class PanMasker {
+    public static final PanMasker DEFAULT = new PanMasker(6, 4, '*');
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int keepFirst;
+    private final int keepLast;
+    private final char maskChar;
+
+    /*
+     * @param number of leading & trailing digits kept and the ASCII
+     * character replacing the others
+     */
+    public PanMasker(int keepFirst, int keepLast, char maskChar) {
+        if (keepFirst < 0 || keepLast < 0) {
+            throw new IllegalArgumentException("Invalid kept digits: " + keepFirst + ", " + keepLast);
+        }
+        if (maskChar >= 0x80 || isDigit(maskChar)) {
+            throw new IllegalArgumentException("Mask character must be ASCII and not a digit: " + maskChar);
+        }
+        this.keepFirst = keepFirst;
+        this.keepLast = keepLast;
+        this.maskChar = maskChar;
+    }
+
+    /*
+     * @param card number, separators allowed, & the sink to append
+     * its masked form to
+     */
+    public void mask(CharSequence creditCardNumber, Appendable out) throws IOException {
+        int length = creditCardNumber.length();
+        int digits = countDigits(creditCardNumber);
+        int index = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = creditCardNumber.charAt(i);
+
+            out.append(isDigit(c) && !isKept(index++, digits) ? maskChar : c);
+        }
+    }
+
+    /*
+     * @param card number, separators allowed, & the buffer to put its
+     * masked form to as ASCII bytes, characters outside ASCII become '?'
+     * @throws java.nio.BufferOverflowException if the buffer has not
+     * enough room left
+     */
+    public void mask(CharSequence creditCardNumber, ByteBuffer out) {
+        int length = creditCardNumber.length();
+        int digits = countDigits(creditCardNumber);
+        int index = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = creditCardNumber.charAt(i);
+
+            if (isDigit(c)) {
+                out.put((byte) (isKept(index++, digits) ? c : maskChar));
+            } else {
+                out.put((byte) (c < 0x80 ? c : '?'));
+            }
+        }
+    }
+
+    /*
+     * Mask in place a card number held in ASCII bytes.
+     *
+     * @param bytes, start (inclusive) & end (exclusive) of the number
+     */
+    public void mask(byte[] text, int start, int end) {
+        int digits = 0;
+
+        for (int i = start; i < end; i++) {
+            if (isDigit(text[i])) {
+                digits++;
+            }
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            if (isDigit(text[i]) && !isKept(index++, digits)) {
+                text[i] = (byte) maskChar;
+            }
+        }
+    }
+
+    /*
+     * Mask in place a card number held in chars.
+     *
+     * @param chars, start (inclusive) & end (exclusive) of the number
+     */
+    public void mask(char[] text, int start, int end) {
+        int digits = 0;
+
+        for (int i = start; i < end; i++) {
+            if (isDigit(text[i])) {
+                digits++;
+            }
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            if (isDigit(text[i]) && !isKept(index++, digits)) {
+                text[i] = maskChar;
+            }
+        }
+    }
+
+    /*
+     * Copy a byte stream masking every card number PanScanner finds,
+     * in a single pass.
+     *
+     * @param source & target streams, both left open
+     * @return number of card numbers masked
+     */
+    public long redact(InputStream in, OutputStream out) throws IOException {
+        MaskingInputStream masking = new MaskingInputStream(in, this, TypeChecker.currentTable());
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+
+        while ((read = masking.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        return masking.getMaskedCount();
+    }
+
+    /*
+     * Copy a char stream masking every card number PanScanner finds,
+     * in a single pass.
+     *
+     * @param source & target streams, both left open
+     * @return number of card numbers masked
+     */
+    public long redact(Reader in, Writer out) throws IOException {
+        MaskingReader masking = new MaskingReader(in, this, TypeChecker.currentTable());
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+
+        while ((read = masking.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        return masking.getMaskedCount();
+    }
+
+    /*
+     * @param index of a digit & number of digits of the card number
+     * @return whether or not the digit is left visible
+     */
+    boolean isKept(int index, int digits) {
+        int first = keepFirst + keepLast < digits ? keepFirst : 0;
+
+        return index < first || index >= digits - keepLast;
+    }
+
+    private static int countDigits(CharSequence creditCardNumber) {
+        int digits = 0;
+
+        for (int i = 0; i < creditCardNumber.length(); i++) {
+            if (isDigit(creditCardNumber.charAt(i))) {
+                digits++;
+            }
+        }
+
+        return digits;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,14 @@
+package net.mooctest;
+
+/*
+ * Receives the card numbers found by PanScanner.
+ */
+public interface PanMatchListener {
+
+    /*
+     * @param stream offset of the first digit, offset right after the
+     * last digit (separators in between included) & the network the
+     * number belongs to
+     */
+    void onMatch(long start, long end, CreditCardType type);
+}
@@ -0,0 +1,463 @@
+package net.mooctest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+
+/*
+ * Streaming detector of card numbers in free text such as logs.
+ * Finds runs of digit groups joined by single spaces or dashes. Any
+ * span of whole groups holding MIN_DIGITS to MAX_DIGITS digits is a
+ * candidate, so a card number next to an expiry date, an amount or an
+ * id is still found on its own. Candidates passing the Luhn check and
+ * mapping to a network of the BIN table are reported. When they
+ * overlap a number written as a single group wins, it is not joined
+ * to the numbers next to it, then one laid out as printed cards are,
+ * led by a group of CARD_GROUP digits. Among these the one covering
+ * the most digits wins, so a grouped card is never cut down to a
+ * shorter number hiding in its first groups, then the one made of the
+ * fewest groups, then the leftmost. A group of more than MAX_DIGITS digits is never
+ * part of a card and splits the run.
+ *
+ * Any such run covers MIN_DIGITS consecutive digits or separators, so
+ * only every MIN_DIGITS-th byte of ordinary text is looked at; the
+ * digits themselves are only read inside spans long enough to hold a
+ * card number.
+ *
+ * Input is fed in chunks of bytes (ASCII compatible encodings) or
+ * chars, a run may span chunks; finish() closes the last run. Offsets
+ * are counted in bytes or chars from the start of the stream.
+ * Instances are not thread safe.
+ */
+public final class PanScanner {
+    public static final int MIN_DIGITS = 12;
+    public static final int MAX_DIGITS = 19;
+
+    // Digits in the leading group of printed cards, 4-4-4-4, 4-6-5 & co
+    private static final int CARD_GROUP = 4;
+
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private static final byte OTHER = 0;
+    private static final byte DIGIT = 1;
+    private static final byte SEPARATOR = 2;
+    private static final byte[] CLASSES = new byte[256];
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static {
+        for (int c = '0'; c <= '9'; c++) {
+            CLASSES[c] = DIGIT;
+        }
+        CLASSES[' '] = SEPARATOR;
+        CLASSES['-'] = SEPARATOR;
+    }
+
+    /*
+     * Digit groups of a run kept before the oldest are settled, bounds
+     * what MaskingInputStream holds back
+     */
+    private static final int MAX_GROUPS = 64;
+
+    private final BinRangeTable table;
+    private final PanMatchListener listener;
+
+    private long position;
+    private long matches;
+
+    // Closed groups of the current run, their ASCII digits back to back
+    private final long[] groupStarts = new long[MAX_GROUPS];
+    private final long[] groupEnds = new long[MAX_GROUPS];
+    private final int[] groupOffsets = new int[MAX_GROUPS + 1];
+    private final byte[] groupDigits = new byte[MAX_GROUPS * MAX_DIGITS];
+    private int groups;
+
+    // Group being read, more than MAX_DIGITS digits once too long
+    private int digits;
+    private long groupStart;
+    private long groupEnd;
+
+    // Candidates of the run being settled
+    private final int[] candidateFirsts = new int[MAX_GROUPS * MAX_DIGITS];
+    private final int[] candidateLasts = new int[MAX_GROUPS * MAX_DIGITS];
+    private final int[] candidateTypes = new int[MAX_GROUPS * MAX_DIGITS];
+    private final int[] chosenAt = new int[MAX_GROUPS];
+
+    /*
+     * @param listener receiving the matches, classified against the
+     * current TypeChecker table
+     */
+    public PanScanner(PanMatchListener listener) {
+        this(TypeChecker.currentTable(), listener);
+    }
+
+    /*
+     * @param table to confirm the runs against & listener receiving
+     * the matches
+     */
+    public PanScanner(BinRangeTable table, PanMatchListener listener) {
+        if (table == null || listener == null) {
+            throw new IllegalArgumentException("Table and listener are required");
+        }
+        this.table = table;
+        this.listener = listener;
+    }
+
+    /*
+     * @param chunk of ASCII compatible bytes, offset & length of the
+     * part to scan
+     */
+    public void scan(byte[] chunk, int offset, int length) {
+        long base = position - offset;
+        int end = offset + length;
+        int i = offset;
+
+        // Close the run carried over from the previous chunk first
+        for (; i < end && (digits > 0 || groups > 0); i++) {
+            accept(CLASSES[chunk[i] & 0xFF], chunk[i] - '0', base + i);
+        }
+        while (i < end) {
+            // A run of MIN_DIGITS spans at least as many bytes, none of them OTHER
+            int probe = i + MIN_DIGITS - 1;
+            while (probe < end && CLASSES[chunk[probe] & 0xFF] == OTHER) {
+                probe += MIN_DIGITS;
+            }
+            int start = Math.min(probe, end);
+            while (start > i && CLASSES[chunk[start - 1] & 0xFF] != OTHER) {
+                start--;
+            }
+            int stop = start;
+            while (stop < end && CLASSES[chunk[stop] & 0xFF] != OTHER) {
+                stop++;
+            }
+            if (stop == end || stop - start >= MIN_DIGITS) {
+                // Feed the span with the OTHER byte closing it, the tail may go on in the next chunk
+                int last = Math.min(stop + 1, end);
+                for (int j = start; j < last; j++) {
+                    accept(CLASSES[chunk[j] & 0xFF], chunk[j] - '0', base + j);
+                }
+            }
+            i = stop + 1;
+        }
+        position += length;
+    }
+
+    /*
+     * @param chunk of chars, offset & length of the part to scan
+     */
+    public void scan(char[] chunk, int offset, int length) {
+        long base = position - offset;
+        int end = offset + length;
+        int i = offset;
+
+        // Close the run carried over from the previous chunk first
+        for (; i < end && (digits > 0 || groups > 0); i++) {
+            accept(classOf(chunk[i]), chunk[i] - '0', base + i);
+        }
+        while (i < end) {
+            // A run of MIN_DIGITS spans at least as many chars, none of them OTHER
+            int probe = i + MIN_DIGITS - 1;
+            while (probe < end && classOf(chunk[probe]) == OTHER) {
+                probe += MIN_DIGITS;
+            }
+            int start = Math.min(probe, end);
+            while (start > i && classOf(chunk[start - 1]) != OTHER) {
+                start--;
+            }
+            int stop = start;
+            while (stop < end && classOf(chunk[stop]) != OTHER) {
+                stop++;
+            }
+            if (stop == end || stop - start >= MIN_DIGITS) {
+                // Feed the span with the OTHER char closing it, the tail may go on in the next chunk
+                int last = Math.min(stop + 1, end);
+                for (int j = start; j < last; j++) {
+                    accept(classOf(chunk[j]), chunk[j] - '0', base + j);
+                }
+            }
+            i = stop + 1;
+        }
+        position += length;
+    }
+
+    /*
+     * @param chunk of text
+     */
+    public void scan(CharSequence chunk) {
+        char[] buffer = new char[Math.min(chunk.length(), BUFFER_SIZE)];
+
+        for (int from = 0; from < chunk.length(); from += buffer.length) {
+            int count = Math.min(buffer.length, chunk.length() - from);
+
+            for (int i = 0; i < count; i++) {
+                buffer[i] = chunk.charAt(from + i);
+            }
+            scan(buffer, 0, count);
+        }
+    }
+
+    /*
+     * Scan a whole byte stream and close its last run.
+     *
+     * @param stream of ASCII compatible bytes, left open
+     * @return number of matches found since the last reset
+     */
+    public long scan(InputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            scan(buffer, 0, read);
+        }
+
+        return finish();
+    }
+
+    /*
+     * Scan a whole char stream and close its last run.
+     *
+     * @param stream of chars, left open
+     * @return number of matches found since the last reset
+     */
+    public long scan(Reader in) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+
+        while ((read = in.read(buffer)) != -1) {
+            scan(buffer, 0, read);
+        }
+
+        return finish();
+    }
+
+    /*
+     * Close the run at the end of the input, if any.
+     *
+     * @return number of matches found since the last reset
+     */
+    public long finish() {
+        if (digits > 0) {
+            closeGroup();
+        }
+        endRun();
+
+        return matches;
+    }
+
+    /*
+     * Forget the current run, the stream offset & the match count.
+     */
+    public void reset() {
+        clearRun();
+        position = 0;
+        matches = 0;
+    }
+
+    /*
+     * @return number of bytes or chars scanned since the last reset
+     */
+    public long position() {
+        return position;
+    }
+
+    /*
+     * @return stream offset of the run still open at the end of the
+     * input scanned so far, position() when no run that could still
+     * become a match is open; nothing before it will be reported
+     */
+    long pendingStart() {
+        if (groups > 0) {
+            return groupStarts[0];
+        }
+
+        return digits > 0 && digits <= MAX_DIGITS ? groupStart : position;
+    }
+
+    private void accept(byte type, int digit, long offset) {
+        if (type == DIGIT) {
+            if (digits == 0) {
+                groupStart = offset;
+            }
+            if (digits < MAX_DIGITS) {
+                groupDigits[groupOffsets[groups] + digits] = (byte) ('0' + digit);
+                digits++;
+            } else if (digits == MAX_DIGITS) {
+                // Too long for a card, settle the groups before it now
+                digits++;
+                endRun();
+            }
+            groupEnd = offset + 1;
+        } else if (digits > 0) {
+            closeGroup();
+            if (type != SEPARATOR) {
+                endRun();
+            }
+        } else if (groups > 0) {
+            // A second separator or anything else after one
+            endRun();
+        }
+    }
+
+    private void closeGroup() {
+        if (digits <= MAX_DIGITS) {
+            groupStarts[groups] = groupStart;
+            groupEnds[groups] = groupEnd;
+            groupOffsets[groups + 1] = groupOffsets[groups] + digits;
+            groups++;
+            if (groups == MAX_GROUPS) {
+                // Candidates starting in the last MAX_DIGITS - 1 groups may still grow
+                drop(settle(MAX_GROUPS - MAX_DIGITS + 1));
+            }
+        }
+        digits = 0;
+    }
+
+    private void endRun() {
+        if (groups > 0) {
+            settle(groups);
+            groups = 0;
+        }
+    }
+
+    /*
+     * Report the winning candidates starting in the first limit groups.
+     *
+     * @return number of leading groups no later candidate may use
+     */
+    private int settle(int limit) {
+        int count = 0;
+
+        for (int first = 0; first < limit; first++) {
+            for (int last = first; last < groups; last++) {
+                int length = groupOffsets[last + 1] - groupOffsets[first];
+
+                if (length > MAX_DIGITS) {
+                    break;
+                }
+                if (length >= MIN_DIGITS) {
+                    int code = FusedEngine.evaluate(table, groupDigits, groupOffsets[first], groupOffsets[last + 1]);
+
+                    if (ValidationResult.isValid(code)) {
+                        candidateFirsts[count] = first;
+                        candidateLasts[count] = last;
+                        candidateTypes[count++] = code & ValidationResult.TYPE_MASK;
+                    }
+                }
+            }
+        }
+
+        int settled = limit;
+        Arrays.fill(chosenAt, 0, groups, -1);
+        while (true) {
+            int best = -1;
+
+            for (int i = 0; i < count; i++) {
+                if (isFree(i) && (best < 0 || precedes(i, best))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            for (int group = candidateFirsts[best]; group <= candidateLasts[best]; group++) {
+                chosenAt[group] = best;
+            }
+            settled = Math.max(settled, candidateLasts[best] + 1);
+        }
+        for (int group = 0; group < settled; group++) {
+            int chosen = chosenAt[group];
+
+            if (chosen >= 0 && candidateFirsts[chosen] == group) {
+                matches++;
+                listener.onMatch(groupStarts[group], groupEnds[candidateLasts[chosen]],
+                        TYPES[candidateTypes[chosen]]);
+            }
+        }
+
+        return settled;
+    }
+
+    private boolean isFree(int candidate) {
+        for (int group = candidateFirsts[candidate]; group <= candidateLasts[candidate]; group++) {
+            if (chosenAt[group] >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /*
+     * @return whether or not the first candidate wins over the second:
+     * a single group, then a printed card layout, then more digits,
+     * then fewer groups, then further left
+     */
+    private boolean precedes(int candidate, int other) {
+        int layout = layout(candidate);
+        int otherLayout = layout(other);
+
+        if (layout != otherLayout) {
+            return layout < otherLayout;
+        }
+
+        int length = groupOffsets[candidateLasts[candidate] + 1] - groupOffsets[candidateFirsts[candidate]];
+        int otherLength = groupOffsets[candidateLasts[other] + 1] - groupOffsets[candidateFirsts[other]];
+
+        if (length != otherLength) {
+            return length > otherLength;
+        }
+
+        int groupCount = candidateLasts[candidate] - candidateFirsts[candidate];
+        int otherGroupCount = candidateLasts[other] - candidateFirsts[other];
+
+        return groupCount != otherGroupCount ? groupCount < otherGroupCount
+                : candidateFirsts[candidate] < candidateFirsts[other];
+    }
+
+    /*
+     * @return 0 for a single group, 1 for groups led by CARD_GROUP
+     * digits, 2 for any other grouping
+     */
+    private int layout(int candidate) {
+        int first = candidateFirsts[candidate];
+
+        if (first == candidateLasts[candidate]) {
+            return 0;
+        }
+
+        return groupOffsets[first + 1] - groupOffsets[first] == CARD_GROUP ? 1 : 2;
+    }
+
+    /*
+     * Forget the first count groups of the run.
+     */
+    private void drop(int count) {
+        int base = groupOffsets[count];
+
+        groups -= count;
+        System.arraycopy(groupStarts, count, groupStarts, 0, groups);
+        System.arraycopy(groupEnds, count, groupEnds, 0, groups);
+        System.arraycopy(groupDigits, base, groupDigits, 0, groupOffsets[count + groups] - base);
+        for (int i = 0; i <= groups; i++) {
+            groupOffsets[i] = groupOffsets[count + i] - base;
+        }
+    }
+
+    private void clearRun() {
+        digits = 0;
+        groups = 0;
+    }
+
+    /*
+     * @return whether or not the byte ends any run, neither a digit
+     * nor a separator
+     */
+    static boolean breaksRun(byte b) {
+        return CLASSES[b & 0xFF] == OTHER;
+    }
+
+    private static byte classOf(char c) {
+        return c < CLASSES.length ? CLASSES[c] : OTHER;
+    }
+}
@@ -1,23 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.parseIIN;
-import static net.mooctest.CreditCardParser.parseNumber;
-
 /*
  * RuPay format:
  * length = 16
  * IIN range = 60, 6521 - 6522
  */
 public class RuPayValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.RUPAY);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public RuPayValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -29,13 +25,7 @@ public class RuPayValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -46,20 +36,6 @@ public class RuPayValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {60, 6521, 6522};
-        int firstTwo = parseIIN(creditCardNumberList, 2);
-        int firstFour = parseIIN(creditCardNumberList, 4);
-
-        if (firstTwo == IINRange[0]) {
-            hasAllowedIINRange = true;
-        }
-
-        if (!hasAllowedIINRange) {
-            if (firstFour == IINRange[1] || firstFour == IINRange[2]) {
-                hasAllowedIINRange = true;
-            }
-        }
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -0,0 +1,113 @@
+package net.mooctest;
+
+/*
+ * Per CreditCardType counts produced by the PAN file scanner.
+ */
+public final class ScanReport {
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private final long[] countsByType = new long[TYPES.length];
+    private final long[] luhnValidByType = new long[TYPES.length];
+    private long lines;
+    private long lengthValid;
+    private long iinValid;
+
+    /*
+     * Record one scanned card number.
+     */
+    void record(int typeOrdinal, boolean luhn, boolean length, boolean iin) {
+        lines++;
+        countsByType[typeOrdinal]++;
+        if (luhn) {
+            luhnValidByType[typeOrdinal]++;
+        }
+        if (length) {
+            lengthValid++;
+        }
+        if (iin) {
+            iinValid++;
+        }
+    }
+
+    /*
+     * Add the counts of another report, used to merge chunks.
+     */
+    void merge(ScanReport other) {
+        lines += other.lines;
+        lengthValid += other.lengthValid;
+        iinValid += other.iinValid;
+        for (int i = 0; i < TYPES.length; i++) {
+            countsByType[i] += other.countsByType[i];
+            luhnValidByType[i] += other.luhnValidByType[i];
+        }
+    }
+
+    /*
+     * @return number of card numbers (lines) scanned
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /*
+     * @param card type
+     * @return number of card numbers classified as that type
+     */
+    public long getCount(CreditCardType type) {
+        return countsByType[type.ordinal()];
+    }
+
+    /*
+     * @param card type
+     * @return number of card numbers of that type passing the Luhn
+     * check
+     */
+    public long getLuhnValidCount(CreditCardType type) {
+        return luhnValidByType[type.ordinal()];
+    }
+
+    /*
+     * @return number of card numbers passing the Luhn check
+     */
+    public long getLuhnValidCount() {
+        long total = 0;
+
+        for (long count : luhnValidByType) {
+            total += count;
+        }
+
+        return total;
+    }
+
+    /*
+     * @return number of card numbers whose length is allowed by
+     * the card type of their leading digits
+     */
+    public long getLengthValidCount() {
+        return lengthValid;
+    }
+
+    /*
+     * @return number of card numbers whose leading digits belong to
+     * a known card type, whatever the length
+     */
+    public long getIinValidCount() {
+        return iinValid;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("lines=").append(lines)
+                .append(", luhnValid=").append(getLuhnValidCount())
+                .append(", lengthValid=").append(lengthValid)
+                .append(", iinValid=").append(iinValid);
+
+        for (CreditCardType type : TYPES) {
+            if (countsByType[type.ordinal()] > 0) {
+                report.append(", ").append(type).append('=').append(countsByType[type.ordinal()]);
+            }
+        }
+
+        return report.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package net.mooctest;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * Luhn check over ASCII digits eight at a time, SIMD within a
+ * register: each 64 bit load holds eight digits, which are validated,
+ * turned into digit values, doubled & folded in alternate lanes and
+ * summed without leaving the register.
+ *
+ * Words are taken from the end of the number, so the check digit is
+ * always the top lane of the last word and the doubled lanes are the
+ * even ones in every word; the leading digits that do not fill a word
+ * go through the scalar loop.
+ */
+public final class SwarLuhn {
+    static final long ZEROS = 0x3030303030303030L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long ABOVE_NINE = 0x4646464646464646L;
+    private static final long EVEN_LANES = 0x00FF00FF00FF00FFL;
+    private static final long FOLD_THRESHOLD = 0x0076007600760076L;
+    private static final long LANE_ONES = 0x0001000100010001L;
+
+    private SwarLuhn() {
+    }
+
+    /*
+     * @param ASCII bytes holding the credit card number, start
+     * (inclusive) & end (exclusive) of the digits
+     * @return boolean of whether or not the digits pass the Luhn
+     * algorithm check, false if any of them is not a digit
+     */
+    public static boolean check(byte[] creditCardNumber, int start, int end) {
+        return check(ByteBuffer.wrap(creditCardNumber).order(ByteOrder.LITTLE_ENDIAN), start, end);
+    }
+
+    /*
+     * @param buffer holding the ASCII credit card number, absolute
+     * start (inclusive) & end (exclusive) of the digits, the buffer's
+     * position & byte order are left untouched
+     * @return boolean of whether or not the digits pass the Luhn
+     * algorithm check, false if any of them is not a digit
+     */
+    public static boolean check(ByteBuffer creditCardNumber, int start, int end) {
+        ByteBuffer buffer = creditCardNumber.order() == ByteOrder.LITTLE_ENDIAN
+                ? creditCardNumber
+                : creditCardNumber.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int sum = 0;
+        int wordStart = end - Long.BYTES;
+
+        for (; wordStart >= start; wordStart -= Long.BYTES) {
+            long word = buffer.getLong(wordStart);
+
+            if (!allDigits(word)) {
+                return false;
+            }
+            sum += sumOfWord(word - ZEROS);
+        }
+
+        // Leading digits, the last of them sits right before a word
+        boolean doubled = ((end - start) & 1) == 0;
+        for (int i = start; i < wordStart + Long.BYTES; i++) {
+            int digit = buffer.get(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += doubled ? LuhnEngine.DOUBLED[digit] : digit;
+            doubled = !doubled;
+        }
+
+        return sum % 10 == 0;
+    }
+
+    /*
+     * @param PanColumns slots, number of slots & slot width, a
+     * multiple of eight, and the array receiving per slot the Luhn
+     * digit sum, -1 if the slot holds any non digit
+     */
+    static void digitSums(byte[] columns, int count, int slotWidth, int[] sums) {
+        ByteBuffer words = ByteBuffer.wrap(columns).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int slot = 0; slot < count; slot++) {
+            int start = slot * slotWidth;
+            int sum = 0;
+
+            for (int i = start; i < start + slotWidth; i += Long.BYTES) {
+                long word = words.getLong(i);
+
+                if (!allDigits(word)) {
+                    sum = -1;
+                    break;
+                }
+                sum += sumOfWord(word - ZEROS);
+            }
+            sums[slot] = sum;
+        }
+    }
+
+    /*
+     * @return whether every byte lies between '0' and '9': none has
+     * its high bit set, none is below '0' (subtracting '0' from the
+     * byte with its high bit forced keeps that bit) and none is above
+     * '9' (adding 0x46 carries into the high bit)
+     */
+    static boolean allDigits(long word) {
+        long notBelowZero = ((word | HIGH_BITS) - ZEROS) & HIGH_BITS;
+        long aboveNine = ((word & LOW_SEVEN_BITS) + ABOVE_NINE) & HIGH_BITS;
+
+        return (word & HIGH_BITS) == 0 && notBelowZero == HIGH_BITS && aboveNine == 0;
+    }
+
+    /*
+     * @param eight digit values, the first digit in the low byte
+     * @return their Luhn contribution with the even lanes doubled
+     */
+    static int sumOfWord(long digits) {
+        long doubled = (digits & EVEN_LANES) << 1;
+        // Doubled values of 10 and more lose 9, i.e. the sum of their digits
+        long tens = ((doubled + FOLD_THRESHOLD) >>> 7) & LANE_ONES;
+        long lanes = doubled - tens * 9 + ((digits >>> 8) & EVEN_LANES);
+
+        return (int) ((lanes * LANE_ONES) >>> 48);
+    }
+}
@@ -0,0 +1,339 @@
+package net.mooctest;
+
+import java.nio.ByteBuffer;
+
+/*
+ * In place parser of magnetic stripe data for card present traffic:
+ *
+ * Track 1  %B PAN ^ NAME ^ YYMM service code, discretionary data ?
+ * Track 2  ; PAN = YYMM service code, discretionary data ?
+ *
+ * Sentinels are optional, Track 2 also accepts the D separator of
+ * ISO 8583 field 35. parse() records where the PAN and the expiry sit
+ * in the char or byte buffer, validate() runs FusedEngine on the PAN
+ * range and checks the expiry, no substring is ever built.
+ *
+ * One parser is meant to be reused for every track of a thread, it
+ * keeps a reference to the buffer until the next call and allocates
+ * nothing. validateLines() is the batch mode for settlement files
+ * holding one raw track per line.
+ */
+public final class TrackDataParser {
+    private static final int MAX_PAN_DIGITS = 19;
+    private static final int MAX_NAME_LENGTH = 26;
+    private static final int NO_EXPIRY = -1;
+    private static final int MALFORMED_CODE = CreditCardType.OTHER.ordinal() | ValidationResult.MALFORMED
+            | ValidationResult.LUHN_FAILED | ValidationResult.IIN_FAILED | ValidationResult.EXPIRY_FAILED;
+
+    private final BinRangeTable table;
+    private final ExpiryEvaluator expiryEvaluator;
+
+    // Current track, in exactly one of these
+    private char[] chars;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private int track;
+    private int panStart;
+    private int panEnd;
+    private int expiryStart;
+
+    /*
+     * Validating against the current Type Checker table & the system
+     * clock.
+     */
+    public TrackDataParser() {
+        this(TypeChecker.currentTable(), ExpiryEvaluator.system());
+    }
+
+    /*
+     * @param table to classify the PAN against & the evaluator
+     * deciding whether the expiry is past
+     */
+    public TrackDataParser(BinRangeTable table, ExpiryEvaluator expiryEvaluator) {
+        this.table = table;
+        this.expiryEvaluator = expiryEvaluator;
+    }
+
+    /*
+     * @param chars holding the track, start (inclusive) & end
+     * (exclusive) of it
+     * @return whether or not a Track 1 or Track 2 PAN was found
+     */
+    public boolean parse(char[] data, int start, int end) {
+        use(data, null, null);
+
+        return parse(start, end);
+    }
+
+    /*
+     * @param ASCII bytes holding the track, start (inclusive) & end
+     * (exclusive) of it
+     * @return whether or not a Track 1 or Track 2 PAN was found
+     */
+    public boolean parse(byte[] data, int start, int end) {
+        use(null, data, null);
+
+        return parse(start, end);
+    }
+
+    /*
+     * @param buffer holding the ASCII track, absolute start (inclusive)
+     * & end (exclusive) of it, the buffer position is left untouched
+     * @return whether or not a Track 1 or Track 2 PAN was found
+     */
+    public boolean parse(ByteBuffer data, int start, int end) {
+        use(null, null, data);
+
+        return parse(start, end);
+    }
+
+    /*
+     * @return 1 or 2 for the track last parsed, 0 if none was found
+     */
+    public int track() {
+        return track;
+    }
+
+    /*
+     * @return offset of the first PAN character, -1 if no track was
+     * found
+     */
+    public int panStart() {
+        return track != 0 ? panStart : -1;
+    }
+
+    /*
+     * @return offset right after the last PAN character, -1 if no
+     * track was found
+     */
+    public int panEnd() {
+        return track != 0 ? panEnd : -1;
+    }
+
+    /*
+     * @return offset of the YYMM expiry, -1 if the track has none
+     */
+    public int expiryStart() {
+        return track != 0 ? expiryStart : -1;
+    }
+
+    /*
+     * @return the expiry as YYYYMM, ExpiryDateParser.MALFORMED if it
+     * is missing or not a valid YYMM
+     */
+    public int expiryYearMonth() {
+        if (track == 0 || expiryStart == NO_EXPIRY) {
+            return ExpiryDateParser.MALFORMED;
+        }
+
+        int year = digitAt(expiryStart) * 10 + digitAt(expiryStart + 1);
+        int month = digitAt(expiryStart + 2) * 10 + digitAt(expiryStart + 3);
+        if (year < 0 || month < 0) {
+            return ExpiryDateParser.MALFORMED;
+        }
+        int yearMonth = ExpiryEvaluator.yearMonth(year, month);
+
+        return yearMonth < 0 ? ExpiryDateParser.MALFORMED : yearMonth;
+    }
+
+    /*
+     * Check the PAN of the last track parsed, digits, Luhn, IIN &
+     * length, and its expiry; a missing expiry fails the expiry check.
+     *
+     * @return the packed ValidationResult code, MALFORMED when no
+     * track was found
+     */
+    public int validate() {
+        long start = ValidationMetrics.start();
+        int code;
+
+        if (track == 0) {
+            code = MALFORMED_CODE;
+        } else {
+            if (chars != null) {
+                code = FusedEngine.evaluate(table, chars, panStart, panEnd);
+            } else if (bytes != null) {
+                code = FusedEngine.evaluate(table, bytes, panStart, panEnd);
+            } else {
+                code = FusedEngine.evaluate(table, buffer, panStart, panEnd);
+            }
+            int yearMonth = expiryYearMonth();
+            if (yearMonth < 0 || expiryEvaluator.isExpired(yearMonth)) {
+                code |= ValidationResult.EXPIRY_FAILED;
+            }
+        }
+        ValidationMetrics.recordCheck(code, start);
+
+        return code;
+    }
+
+    /*
+     * Batch mode: parse & validate every newline delimited track.
+     *
+     * @param chars holding the tracks, offset & length of them and the
+     * array receiving one ValidationResult code per line
+     * @return number of lines validated
+     */
+    public int validateLines(char[] data, int offset, int length, int[] codes) {
+        use(data, null, null);
+
+        return validateLines(offset, offset + length, codes);
+    }
+
+    /*
+     * Batch mode: parse & validate every newline delimited track.
+     *
+     * @param ASCII bytes holding the tracks, offset & length of them
+     * and the array receiving one ValidationResult code per line
+     * @return number of lines validated
+     */
+    public int validateLines(byte[] data, int offset, int length, int[] codes) {
+        use(null, data, null);
+
+        return validateLines(offset, offset + length, codes);
+    }
+
+    /*
+     * Batch mode: parse & validate every newline delimited track.
+     *
+     * @param buffer holding the ASCII tracks between its position &
+     * limit, neither is changed, and the array receiving one
+     * ValidationResult code per line
+     * @return number of lines validated
+     */
+    public int validateLines(ByteBuffer data, int[] codes) {
+        use(null, null, data);
+
+        return validateLines(data.position(), data.limit(), codes);
+    }
+
+    private int validateLines(int start, int end, int[] codes) {
+        int lines = 0;
+
+        for (int lineStart = start; lineStart < end; ) {
+            int newline = newline(lineStart, end);
+            int lineEnd = newline > lineStart && charAt(newline - 1) == '\r' ? newline - 1 : newline;
+            if (lines == codes.length) {
+                throw new IllegalArgumentException("More than " + codes.length + " lines");
+            }
+            parse(lineStart, lineEnd);
+            codes[lines++] = validate();
+            lineStart = newline + 1;
+        }
+
+        return lines;
+    }
+
+    /*
+     * @return offset of the first newline at or after start, end if
+     * there is none; one branch on the source per line, not per
+     * character
+     */
+    private int newline(int start, int end) {
+        int i = start;
+
+        if (bytes != null) {
+            while (i < end && bytes[i] != '\n') {
+                i++;
+            }
+        } else if (chars != null) {
+            while (i < end && chars[i] != '\n') {
+                i++;
+            }
+        } else {
+            while (i < end && buffer.get(i) != '\n') {
+                i++;
+            }
+        }
+
+        return i;
+    }
+
+    private void use(char[] chars, byte[] bytes, ByteBuffer buffer) {
+        this.chars = chars;
+        this.bytes = bytes;
+        this.buffer = buffer;
+    }
+
+    private boolean parse(int start, int end) {
+        track = 0;
+        int position = start;
+        boolean trackOne;
+
+        if (position < end && charAt(position) == '%') {
+            position++;
+            trackOne = true;
+        } else if (position < end && charAt(position) == ';') {
+            position++;
+            trackOne = false;
+        } else {
+            trackOne = position < end && charAt(position) == 'B';
+        }
+
+        int separatorAt;
+        if (trackOne) {
+            // Format code B, PAN, ^, name, ^
+            if (position == end || charAt(position) != 'B') {
+                return false;
+            }
+            panStart = ++position;
+            separatorAt = find(position, end, '^', '^', MAX_PAN_DIGITS);
+            if (separatorAt < 0) {
+                return false;
+            }
+            int nameEnd = find(separatorAt + 1, end, '^', '^', MAX_NAME_LENGTH);
+            if (nameEnd < 0) {
+                return false;
+            }
+            position = nameEnd + 1;
+        } else {
+            panStart = position;
+            separatorAt = find(position, end, '=', 'D', MAX_PAN_DIGITS);
+            if (separatorAt < 0) {
+                return false;
+            }
+            position = separatorAt + 1;
+        }
+        if (separatorAt == panStart) {
+            return false;
+        }
+        panEnd = separatorAt;
+        // A field separator in its place marks a missing expiry
+        expiryStart = end - position >= 4 && digitAt(position) >= 0 ? position : NO_EXPIRY;
+        track = trackOne ? 1 : 2;
+
+        return true;
+    }
+
+    /*
+     * @return offset of the first of the two separators within limit
+     * characters of start, -1 if there is none
+     */
+    private int find(int start, int end, char separator, char alternative, int limit) {
+        int stop = Math.min(end, start + limit + 1);
+
+        for (int i = start; i < stop; i++) {
+            int c = charAt(i);
+
+            if (c == separator || c == alternative) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int digitAt(int index) {
+        int digit = charAt(index) - '0';
+
+        return digit >= 0 && digit <= 9 ? digit : -1;
+    }
+
+    private int charAt(int index) {
+        if (chars != null) {
+            return chars[index];
+        }
+
+        return (bytes != null ? bytes[index] : buffer.get(index)) & 0xFF;
+    }
+}
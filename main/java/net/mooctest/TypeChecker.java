@@ -1,65 +1,214 @@
 package net.mooctest;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicReference;
+
 import net.mooctest.CreditCardType;
 
 
 /*
- * Type checker checking against the most common
- * credit card types: VISA, AMERICAN EXPXRESS,
- * DISCOVER & MASTERCARD.
+ * Type checker classifying a credit card number against
+ * every supported credit card type through the compiled
+ * BIN range table.
+ *
+ * The table in use is published through an atomic reference:
+ * a reload compiles the new table aside and swaps it in, lookups
+ * in flight keep the table they started with and never block.
+ *
+ * An optional BIN cache in front of the table skips the segment
+ * search for the prefixes seen most; it follows the installed table
+ * and serves every lookup against it, from the type checker, the
+ * fused engine and the validators built on them.
  */
 public class TypeChecker {
+    private static final AtomicReference<BinRangeTable> TABLE =
+            new AtomicReference<>(BinRangeTable.builtIn());
+    private static final AtomicReference<BinCache> CACHE = new AtomicReference<>();
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
     /*
      * @param a String representation of the credit card number
-     * @return CreditCardType enumerable
+     * @return CreditCardType enumerable, OTHER when no type
+     * matches
      */
     public static CreditCardType checkType(String creditCardNumber) {
-        CreditCardType type = null;
+        long start = ValidationMetrics.start();
+        BinRangeTable table = TABLE.get();
+        BinCache cache = cacheFor(table);
+        CreditCardType type = cache != null
+                ? cache.classify(creditCardNumber)
+                : table.classify(creditCardNumber);
 
-        // Instantiate credit card validators and set type on match
-        while (type == null) {
-            boolean isThisType;
+        ValidationMetrics.recordClassification(type, start);
 
-            VisaValidator visaValidator = new VisaValidator(creditCardNumber);
-            isThisType = visaValidator.validate();
+        return type;
+    }
 
-            if (isThisType) {
-                type = CreditCardType.VISA;
-                break;
-            }
+    /*
+     * @param a CharSequence representation of the credit card number
+     * @return bitmask with bit t set for every matching CreditCardType
+     * of ordinal t, 0 when no type matches
+     */
+    public static long checkTypeMask(CharSequence creditCardNumber) {
+        return TABLE.get().classifyAll(creditCardNumber);
+    }
 
-            AmericanExpressValidator americanExpressValidator = new AmericanExpressValidator(creditCardNumber);
-            isThisType = americanExpressValidator.validate();
+    /*
+     * @param a String representation of the credit card number
+     * @return every matching CreditCardType, empty when no type
+     * matches
+     */
+    public static EnumSet<CreditCardType> checkTypes(String creditCardNumber) {
+        return toTypes(checkTypeMask(creditCardNumber));
+    }
 
-            if (isThisType) {
-                type = CreditCardType.AMERICAN_EXPRESS;
-                break;
-            }
+    /*
+     * @param bitmask of CreditCardType ordinals
+     * @return the types set in the mask
+     */
+    public static EnumSet<CreditCardType> toTypes(long mask) {
+        EnumSet<CreditCardType> types = EnumSet.noneOf(CreditCardType.class);
 
-            MasterCardValidator masterCardValidator = new MasterCardValidator(creditCardNumber);
-            isThisType = masterCardValidator.validate();
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            types.add(TYPES[Long.numberOfTrailingZeros(remaining)]);
+        }
 
-            if (isThisType) {
-                type = CreditCardType.MASTERCARD;
-                break;
-            }
+        return types;
+    }
 
-            DiscoverValidator discoverValidator = new DiscoverValidator(creditCardNumber);
-            isThisType = discoverValidator.validate();
+    /*
+     * @param packed credit card number
+     * @return CreditCardType enumerable, OTHER when no type
+     * matches
+     */
+    public static CreditCardType checkType(PackedPan creditCardNumber) {
+        long start = ValidationMetrics.start();
+        BinRangeTable table = TABLE.get();
+        BinCache cache = cacheFor(table);
+        CreditCardType type = cache != null
+                ? cache.classify(creditCardNumber)
+                : table.classify(creditCardNumber);
 
-            if (isThisType) {
-                type = CreditCardType.DISCOVER;
-                break;
-            }
+        ValidationMetrics.recordClassification(type, start);
 
-            // If credit card type does not match, mark as "other"
-            if (type == null) {
-                type = CreditCardType.OTHER;
-                break;
-            }
+        return type;
+    }
 
-        }
+    /*
+     * @param a CharSequence representation of the credit card number &
+     * a scratch array receiving in slot k - 1 the value of its first k
+     * digits, up to eight, read in the same pass
+     * @return CreditCardType enumerable, OTHER when no type
+     * matches
+     */
+    public static CreditCardType checkType(CharSequence creditCardNumber, int[] prefixes) {
+        long start = ValidationMetrics.start();
+        BinRangeTable table = TABLE.get();
+        BinCache cache = cacheFor(table);
+        CreditCardType type = cache != null
+                ? cache.classify(creditCardNumber, prefixes)
+                : table.classify(creditCardNumber, prefixes);
+
+        ValidationMetrics.recordClassification(type, start);
 
         return type;
     }
+
+    /*
+     * @return the BIN range table lookups currently run against
+     */
+    public static BinRangeTable currentTable() {
+        return TABLE.get();
+    }
+
+    /*
+     * @param the table a lookup runs against
+     * @return the BIN cache in use when it answers for that table,
+     * null otherwise
+     */
+    static BinCache cacheFor(BinRangeTable table) {
+        BinCache cache = CACHE.get();
+
+        return cache != null && cache.table() == table ? cache : null;
+    }
+
+    /*
+     * @param the compiled table every following lookup uses
+     * @return the table it replaces
+     */
+    public static BinRangeTable install(BinRangeTable table) {
+        if (table == null) {
+            throw new IllegalArgumentException("BIN range table must not be null");
+        }
+
+        BinRangeTable previous = TABLE.getAndSet(table);
+        followTable();
+
+        return previous;
+    }
+
+    /*
+     * Put a BIN cache in front of the current table.
+     *
+     * @param maximum number of cached prefixes
+     * @return the new cache, to read its hit & miss counters
+     */
+    public static BinCache enableCache(int capacity) {
+        CACHE.set(new BinCache(TABLE.get(), capacity));
+
+        return followTable();
+    }
+
+    /*
+     * @param a cache built for currentTable(), e.g. with another
+     * eviction policy or stripe count; an empty one configured alike
+     * replaces it if another table is installed meanwhile
+     */
+    public static void enableCache(BinCache cache) {
+        CACHE.set(cache);
+        followTable();
+    }
+
+    public static void disableCache() {
+        CACHE.set(null);
+    }
+
+    /*
+     * @return the BIN cache in use, null when caching is disabled
+     */
+    public static BinCache currentCache() {
+        return CACHE.get();
+    }
+
+    /*
+     * Rebuild the published cache until it answers for the installed
+     * table: install() and enableCache() race, a cache built against
+     * the table being replaced must never stay published.
+     *
+     * @return the cache in use, null when caching is disabled
+     */
+    private static BinCache followTable() {
+        while (true) {
+            BinCache cache = CACHE.get();
+            BinRangeTable table = TABLE.get();
+
+            if (cache == null || cache.table() == table) {
+                return cache;
+            }
+            CACHE.compareAndSet(cache, cache.forTable(table));
+        }
+    }
+
+    /*
+     * Load a BIN table file and install it, the current table stays
+     * in use if the file cannot be loaded.
+     *
+     * @param CSV or binary BIN table
+     * @return the table it replaces
+     */
+    public static BinRangeTable reload(Path file) throws IOException {
+        return install(BinTableLoader.load(file));
+    }
 }
@@ -0,0 +1,245 @@
+package net.mooctest;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/*
+ * Process wide counters & latency histograms of the validation
+ * pipeline: classifications per CreditCardType, failures per
+ * FailureReason and one LatencyHistogram per ValidationStage.
+ *
+ * Metrics are off by default, the instrumented calls then pay a
+ * single volatile read. Once enabled every call pays a LongAdder
+ * increment, and one call in latencySampling is timed: reading the
+ * clock costs far more than counting, so timing every call would
+ * dominate the cost of the calls being measured.
+ */
+public final class ValidationMetrics {
+    /*
+     * Name the MBean is registered under
+     */
+    public static final String OBJECT_NAME = "net.mooctest:type=ValidationMetrics";
+
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+    private static final FailureReason[] REASONS = FailureReason.values();
+    private static final ValidationStage[] STAGES = ValidationStage.values();
+
+    /*
+     * Default number of calls per timed call, a power of two
+     */
+    public static final int DEFAULT_LATENCY_SAMPLING = 64;
+
+    private static final long DISABLED = 0;
+    private static final long UNTIMED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled;
+    private static volatile int samplingMask = DEFAULT_LATENCY_SAMPLING - 1;
+    // Racy on purpose, a lost update only shifts which call is timed
+    private static int calls;
+
+    private static final LongAdder[] TYPE_COUNTS = adders(TYPES.length);
+    private static final LongAdder[] FAILURE_COUNTS = adders(REASONS.length);
+    private static final LatencyHistogram[] LATENCIES = new LatencyHistogram[STAGES.length];
+
+    static {
+        for (int i = 0; i < LATENCIES.length; i++) {
+            LATENCIES[i] = new LatencyHistogram();
+        }
+    }
+
+    private ValidationMetrics() {
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+
+    /*
+     * @param boolean of whether or not the pipeline records metrics
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+     * @param time one call in every n, rounded up to a power of two, 1
+     * to time every call
+     */
+    public static void setLatencySampling(int n) {
+        if (n < 1 || n > 1 << 30) {
+            throw new IllegalArgumentException("Invalid latency sampling: " + n);
+        }
+        samplingMask = Integer.highestOneBit(n * 2 - 1) - 1;
+    }
+
+    /*
+     * @return DISABLED when metrics are off, System.nanoTime() for a
+     * call picked for timing, UNTIMED otherwise
+     */
+    static long start() {
+        if (!enabled) {
+            return DISABLED;
+        }
+
+        return (++calls & samplingMask) == 0 ? System.nanoTime() : UNTIMED;
+    }
+
+    private static void recordLatency(ValidationStage stage, long start) {
+        if (start != UNTIMED) {
+            LATENCIES[stage.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /*
+     * Record a classification by the Type Checker, calls started
+     * while metrics were disabled are skipped.
+     */
+    static void recordClassification(CreditCardType type, long start) {
+        if (start != DISABLED) {
+            recordLatency(ValidationStage.CLASSIFY, start);
+            TYPE_COUNTS[type.ordinal()].increment();
+        }
+    }
+
+    /*
+     * Record a Luhn check.
+     */
+    static void recordLuhn(boolean valid, long start) {
+        if (start != DISABLED) {
+            recordLatency(ValidationStage.LUHN, start);
+            if (!valid) {
+                FAILURE_COUNTS[FailureReason.LUHN.ordinal()].increment();
+            }
+        }
+    }
+
+    /*
+     * Record a full check from its packed ValidationResult code.
+     */
+    static void recordCheck(int code, long start) {
+        if (start != DISABLED) {
+            recordLatency(ValidationStage.CHECK, start);
+            TYPE_COUNTS[code & ValidationResult.TYPE_MASK].increment();
+            if ((code & ValidationResult.FAILURE_MASK) != 0) {
+                for (FailureReason reason : REASONS) {
+                    if ((code & reason.getFlag()) != 0) {
+                        FAILURE_COUNTS[reason.ordinal()].increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * @return the counters & histograms as they are now
+     */
+    public static MetricsSnapshot snapshot() {
+        long[] typeCounts = new long[TYPES.length];
+        long[] failureCounts = new long[REASONS.length];
+        HistogramSnapshot[] latencies = new HistogramSnapshot[STAGES.length];
+
+        for (int i = 0; i < typeCounts.length; i++) {
+            typeCounts[i] = TYPE_COUNTS[i].sum();
+        }
+        for (int i = 0; i < failureCounts.length; i++) {
+            failureCounts[i] = FAILURE_COUNTS[i].sum();
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = LATENCIES[i].snapshot();
+        }
+
+        return new MetricsSnapshot(typeCounts, failureCounts, latencies);
+    }
+
+    /*
+     * Zero every counter & histogram.
+     */
+    public static void reset() {
+        for (LongAdder adder : TYPE_COUNTS) {
+            adder.reset();
+        }
+        for (LongAdder adder : FAILURE_COUNTS) {
+            adder.reset();
+        }
+        for (LatencyHistogram histogram : LATENCIES) {
+            histogram.reset();
+        }
+    }
+
+    /*
+     * Register the ValidationMetricsMXBean with the platform MBean
+     * server under OBJECT_NAME, nothing happens if it already is.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /*
+     * JMX view over the static metrics, every read takes a snapshot.
+     */
+    private static final class MBean implements ValidationMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ValidationMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enable) {
+            ValidationMetrics.setEnabled(enable);
+        }
+
+        @Override
+        public Map<String, Long> getTypeCounts() {
+            return snapshot().typeCounts();
+        }
+
+        @Override
+        public Map<String, Long> getFailureCounts() {
+            return snapshot().failureCounts();
+        }
+
+        @Override
+        public Map<String, Long> getLatencyP50Nanos() {
+            return snapshot().latencyPercentiles(50);
+        }
+
+        @Override
+        public Map<String, Long> getLatencyP99Nanos() {
+            return snapshot().latencyPercentiles(99);
+        }
+
+        @Override
+        public Map<String, Long> getLatencyP999Nanos() {
+            return snapshot().latencyPercentiles(99.9);
+        }
+
+        @Override
+        public void reset() {
+            ValidationMetrics.reset();
+        }
+    }
+}
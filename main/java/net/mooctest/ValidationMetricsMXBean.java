@@ -0,0 +1,34 @@
+package net.mooctest;
+
+import java.util.Map;
+
+/*
+ * JMX management interface of ValidationMetrics, registered by
+ * ValidationMetrics.registerMBean().
+ */
+public interface ValidationMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enable);
+
+    /*
+     * @return classifications per CreditCardType name
+     */
+    Map<String, Long> getTypeCounts();
+
+    /*
+     * @return failures per FailureReason name
+     */
+    Map<String, Long> getFailureCounts();
+
+    /*
+     * @return median latency per ValidationStage name
+     */
+    Map<String, Long> getLatencyP50Nanos();
+
+    Map<String, Long> getLatencyP99Nanos();
+
+    Map<String, Long> getLatencyP999Nanos();
+
+    void reset();
+}
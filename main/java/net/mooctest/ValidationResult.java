@@ -0,0 +1,128 @@
+package net.mooctest;
+
+/*
+ * Int packed validation outcome returned by Validator.check()
+ * instead of throwing. The low byte holds the CreditCardType
+ * ordinal, the bits above it one flag per failed check, so a
+ * code without any failure flag is a valid card.
+ */
+public final class ValidationResult {
+    public static final int TYPE_MASK = 0xFF;
+    public static final int LUHN_FAILED = 1 << 8;
+    public static final int LENGTH_FAILED = 1 << 9;
+    public static final int IIN_FAILED = 1 << 10;
+    public static final int CVV_FAILED = 1 << 11;
+    public static final int EXPIRY_FAILED = 1 << 12;
+    public static final int MALFORMED = 1 << 13;
+    public static final int FAILURE_MASK = LUHN_FAILED | LENGTH_FAILED | IIN_FAILED | CVV_FAILED
+            | EXPIRY_FAILED | MALFORMED;
+
+    private static final CreditCardType[] TYPES = CreditCardType.values();
+
+    private ValidationResult() {
+    }
+
+    /*
+     * Check a credit card number alone: digits, Luhn, IIN & length.
+     *
+     * @param CharSequence representation of the credit card number
+     * @return the packed validation code
+     */
+    public static int checkNumber(CharSequence creditCardNumber) {
+        return FusedEngine.evaluate(TypeChecker.currentTable(), creditCardNumber);
+    }
+
+    /*
+     * Check a packed credit card number alone: digits, Luhn, IIN &
+     * length. Numbers longer than PackedPan.MAX_DIGITS are malformed.
+     *
+     * @param packed credit card number
+     * @return the packed validation code
+     */
+    public static int checkNumber(PackedPan creditCardNumber) {
+        return checkNumber(TypeChecker.currentTable(), creditCardNumber.high(), creditCardNumber.low(),
+                creditCardNumber.length());
+    }
+
+    /*
+     * @param the table to classify against, the packed digits & the
+     * length of the credit card number
+     * @return the packed validation code
+     */
+    static int checkNumber(BinRangeTable table, long high, long low, int length) {
+        if (!PackedPan.isNumeric(high, low, length)) {
+            return CreditCardType.OTHER.ordinal() | MALFORMED | LUHN_FAILED | IIN_FAILED;
+        }
+
+        int digits = Math.min(length, BinRangeTable.PREFIX_DIGITS);
+        int prefix = (int) PackedPan.prefix(high, digits)
+                * BinRangeTable.pow10(BinRangeTable.PREFIX_DIGITS - digits);
+        BinCache cache = TypeChecker.cacheFor(table);
+        int typeOrdinal = cache != null ? cache.typeOrdinal(length, prefix) : table.typeOrdinal(length, prefix);
+        int code = typeOrdinal;
+
+        if (length == 0 || !LuhnEngine.check(high, low, length)) {
+            code |= LUHN_FAILED;
+        }
+        if (typeOrdinal == CreditCardType.OTHER.ordinal()) {
+            int lengths = cache != null ? cache.lengthMask(prefix) : table.lengthMask(prefix);
+            code |= lengths == 0 ? IIN_FAILED : LENGTH_FAILED;
+        }
+
+        return code;
+    }
+
+    /*
+     * @param packed validation code
+     * @return boolean of whether or not every check passed
+     */
+    public static boolean isValid(int code) {
+        return (code & FAILURE_MASK) == 0;
+    }
+
+    /*
+     * @param packed validation code & one of the failure flags
+     * @return boolean of whether or not that check failed
+     */
+    public static boolean hasFailed(int code, int failure) {
+        return (code & failure) != 0;
+    }
+
+    /*
+     * @param packed validation code
+     * @return the CreditCardType the number was classified as
+     */
+    public static CreditCardType type(int code) {
+        return TYPES[code & TYPE_MASK];
+    }
+
+    /*
+     * @param packed validation code
+     * @return human readable form, e.g. "VISA [LUHN]"
+     */
+    public static String describe(int code) {
+        StringBuilder description = new StringBuilder(type(code).name());
+
+        if (isValid(code)) {
+            return description.append(" [VALID]").toString();
+        }
+        description.append(" [");
+        appendFailure(description, code, MALFORMED, "MALFORMED");
+        appendFailure(description, code, LUHN_FAILED, "LUHN");
+        appendFailure(description, code, LENGTH_FAILED, "LENGTH");
+        appendFailure(description, code, IIN_FAILED, "IIN");
+        appendFailure(description, code, CVV_FAILED, "CVV");
+        appendFailure(description, code, EXPIRY_FAILED, "EXPIRY");
+
+        return description.append(']').toString();
+    }
+
+    private static void appendFailure(StringBuilder description, int code, int failure, String name) {
+        if (hasFailed(code, failure)) {
+            if (description.charAt(description.length() - 1) != '[') {
+                description.append(", ");
+            }
+            description.append(name);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.mooctest;
+
+/*
+ * Stages of the validation pipeline timed by ValidationMetrics.
+ */
+public enum ValidationStage {
+    /*
+     * Card type classification by the Type Checker
+     */
+    CLASSIFY,
+    /*
+     * Luhn check of LuhnValidator & Validator.validate()
+     */
+    LUHN,
+    /*
+     * Full non-throwing check by Validator.check()
+     */
+    CHECK
+}
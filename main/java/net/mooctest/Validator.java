@@ -1,19 +1,23 @@
 package net.mooctest;
 
-import net.mooctest.DateParser;
-
-import static net.mooctest.DateChecker.*;
-
 /*
  * Validator used to consume credit card number, expiration
  * date & CVV for validation
  */
 public class Validator {
+    static final String INVALID_CARD_MESSAGE = "This card isn't invalid";
+
+    private static volatile boolean stacklessExceptions;
+
+    /*
+     * Expiration date value of a Validator built without one
+     */
+    private static final int NO_EXPIRATION_DATE = 0;
+
     private String creditCardNumber;
-    private StringBuilder expirationDate;
-    private Integer expirationYear;
-    private Integer expirationMonth;
+    private int expirationDate = NO_EXPIRATION_DATE;
     private String CVV;
+    private ExpiryEvaluator expiryEvaluator = ExpiryEvaluator.system();
 
     /*
      * @param String representation of credit card number
@@ -24,28 +28,48 @@ public class Validator {
 
     /*
      * @param String representation of credit card number,
-     * expiration date & CVV
+     * expiration date (MM/YY, MMYY, MM/YYYY or YYYY-MM) & CVV
      */
     public Validator(String creditCardNumber, String expirationDate, String CVV) {
         this.creditCardNumber = creditCardNumber;
-        this.expirationDate = DateParser.parseDate(convertDate(expirationDate));
+        this.expirationDate = ExpiryDateParser.parse(expirationDate);
         this.CVV = CVV;
-        setExpirationMonth();
-        setExpirationYear();
     }
 
     /*
-     * Set expiration year
+     * @param String representation of credit card number,
+     * expiration date, CVV & the evaluator deciding whether
+     * the card is expired
+     */
+    public Validator(String creditCardNumber, String expirationDate, String CVV, ExpiryEvaluator expiryEvaluator) {
+        this(creditCardNumber, expirationDate, CVV);
+        this.expiryEvaluator = expiryEvaluator;
+    }
+
+    /*
+     * Does nothing: the expiration date is parsed once by the
+     * constructor and checked by the ExpiryEvaluator.
      */
+    @Deprecated
     public void setExpirationYear() {
-        this.expirationYear = DateParser.parseDate(expirationDate, 2, 4);
     }
 
     /*
-     * Set expiration month
+     * Does nothing: the expiration date is parsed once by the
+     * constructor and checked by the ExpiryEvaluator.
      */
+    @Deprecated
     public void setExpirationMonth() {
-        this.expirationMonth = DateParser.parseDate(expirationDate, 0, 2);
+    }
+
+    /*
+     * Throw an InvalidCardException without a stack trace from
+     * validate() instead of one filling in the stack of every failure.
+     *
+     * @param boolean of whether or not to use stackless exceptions
+     */
+    public static void useStacklessExceptions(boolean stackless) {
+        stacklessExceptions = stackless;
     }
 
     /*
@@ -54,16 +78,40 @@ public class Validator {
      * test.
      */
     public boolean validate() throws InvalidCardException {
-        LuhnValidator luhnValidator = new LuhnValidator();
-        boolean isValid = luhnValidator.validate(creditCardNumber);
+        long start = ValidationMetrics.start();
+        boolean isValid = LuhnEngine.check(creditCardNumber);
 
+        ValidationMetrics.recordLuhn(isValid, start);
         if (!isValid) {
-            throw new InvalidCardException("This card isn't invalid");
+            throw stacklessExceptions
+                    ? InvalidCardException.stackless()
+                    : new InvalidCardException(INVALID_CARD_MESSAGE);
         }
 
         return isValid;
     }
 
+    /*
+     * Run every check without throwing: Luhn, length & IIN of the
+     * number, plus CVV & expiration date when they were given.
+     *
+     * @return the int packed ValidationResult code
+     */
+    public int check() {
+        long start = ValidationMetrics.start();
+        int code = ValidationResult.checkNumber(creditCardNumber);
+
+        if (CVV != null && !checkCVV()) {
+            code |= ValidationResult.CVV_FAILED;
+        }
+        if (expirationDate != NO_EXPIRATION_DATE && !checkExpirationDate()) {
+            code |= ValidationResult.EXPIRY_FAILED;
+        }
+        ValidationMetrics.recordCheck(code, start);
+
+        return code;
+    }
+
     /*
      * @return boolean of whether or not the CVV matches
      * the appropriate length
@@ -79,17 +127,11 @@ public class Validator {
     }
 
     /*
-     * @return boolean of whether or not the card is expired
+     * @return boolean of whether or not the card is still valid,
+     * it is until the end of its expiration month, false for a
+     * missing or malformed expiration date
      */
     public boolean checkExpirationDate() {
-        boolean isValid = false;
-
-        if (compareDates(expirationYear, CURRENT_YEAR)) {
-            isValid = true;
-        } else if (compareDates(expirationMonth, CURRENT_MONTH)){
-            isValid = true;
-        }
-
-        return isValid;
+        return expirationDate > 0 && !expiryEvaluator.isExpired(expirationDate);
     }
 }
@@ -1,22 +1,19 @@
 package net.mooctest;
 
-import java.util.List;
-
-import static net.mooctest.CreditCardParser.*;
-
 /*
  * Visa Electron format:
  * length = 16
  * IIN range = 417500, 4026 - 4405, 4508 - 4844, 4913 - 4917
  */
 public class VisaElectronValidator extends CreditCardValidator {
-    private List<Integer> creditCardNumberList;
+    private static final CardSpec SPEC = CardSpecRegistry.builtIn().get(CreditCardType.VISA_ELECTRON);
+    private PackedPan creditCardNumber;
 
     /*
      * @param String representation of credit card number
      */
     public VisaElectronValidator(String creditCardNumber) {
-        creditCardNumberList = parseNumber(creditCardNumber);
+        this.creditCardNumber = PackedPan.of(creditCardNumber);
     }
 
     /*
@@ -28,13 +25,7 @@ public class VisaElectronValidator extends CreditCardValidator {
      */
     @Override
     boolean checkLength() {
-        boolean hasAllowedLength = false;
-
-        if (creditCardNumberList.size() == 16) {
-            hasAllowedLength = true;
-        }
-
-        return hasAllowedLength;
+        return SPEC.allowsLength(creditCardNumber.length());
     }
 
     /*
@@ -45,17 +36,6 @@ public class VisaElectronValidator extends CreditCardValidator {
      */
     @Override
     boolean checkIINRanges() {
-        boolean hasAllowedIINRange = false;
-        int[] IINRange = {417500, 4026, 4405, 4508, 4844, 4913, 4917};
-        int firstFour = parseIIN(creditCardNumberList, 4);
-        int firstFive = parseIIN(creditCardNumberList, 5);
-
-        for (int number : IINRange) {
-            if (number == firstFour || number == firstFive) {
-                hasAllowedIINRange = true;
-            }
-        }
-
-        return hasAllowedIINRange;
+        return SPEC.matches(creditCardNumber);
     }
 }
@@ -0,0 +1,36 @@
+package net.mooctest;
+
+/*
+ * Digit & Luhn kernel over PanColumns slots, JDK 17 version picked
+ * from META-INF/versions/17 of the multi-release JAR. It runs the
+ * vectorized kernel when jdk.incubator.vector is part of the boot
+ * layer (--add-modules jdk.incubator.vector) and falls back to the
+ * SwarLuhn words otherwise, the incubator classes are never loaded
+ * without the module.
+ */
+final class ColumnarKernel {
+    private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ColumnarKernel() {
+    }
+
+    /*
+     * @return name of the kernel in use
+     */
+    static String name() {
+        return VECTOR ? "vector" : "scalar";
+    }
+
+    /*
+     * @param slots, number of slots & slot width, a multiple of eight,
+     * and the array receiving per slot the Luhn digit sum, -1 if the
+     * slot holds any non digit
+     */
+    static void digitSums(byte[] columns, int count, int slotWidth, int[] sums) {
+        if (VECTOR) {
+            VectorColumnarKernel.digitSums(columns, count, slotWidth, sums);
+        } else {
+            SwarLuhn.digitSums(columns, count, slotWidth, sums);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package net.mooctest;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * Vectorized digit & Luhn kernel over PanColumns slots. The slots
+ * are right aligned and eight byte aligned, so across the whole
+ * array the doubled lanes are the even ones: every vector is checked
+ * for non digits, doubled & folded in its even lanes and summed per
+ * eight byte word, then the word sums are added up per slot.
+ *
+ * Only loaded by ColumnarKernel when jdk.incubator.vector is present.
+ */
+final class VectorColumnarKernel {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final ByteVector ZERO = ByteVector.zero(SPECIES);
+    private static final VectorMask<Byte> DOUBLED = VectorMask.fromLong(SPECIES, 0x5555555555555555L);
+    private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final long BYTE_ONES = 0x0101010101010101L;
+
+    /*
+     * Slots per block, the word sums of one block are kept in a small
+     * scratch array
+     */
+    private static final int BLOCK_SLOTS = 256;
+
+    private VectorColumnarKernel() {
+    }
+
+    /*
+     * @param slots, number of slots & slot width, a multiple of eight,
+     * and the array receiving per slot the Luhn digit sum, -1 if the
+     * slot holds any non digit
+     */
+    static void digitSums(byte[] columns, int count, int slotWidth, int[] sums) {
+        int wordsPerSlot = slotWidth / Long.BYTES;
+        long[] words = new long[BLOCK_SLOTS * wordsPerSlot];
+
+        for (int first = 0; first < count; first += BLOCK_SLOTS) {
+            int slots = Math.min(BLOCK_SLOTS, count - first);
+            int base = first * slotWidth;
+
+            sumWords(columns, base, slots * slotWidth, words);
+            for (int slot = 0; slot < slots; slot++) {
+                int sum = 0;
+
+                for (int w = slot * wordsPerSlot; w < (slot + 1) * wordsPerSlot; w++) {
+                    if (words[w] < 0) {
+                        sum = -1;
+                        break;
+                    }
+                    sum += (int) words[w];
+                }
+                sums[first + slot] = sum;
+            }
+        }
+    }
+
+    /*
+     * @param slots, offset & length in bytes of the block and the
+     * array receiving the Luhn sum of every eight byte word of the
+     * block, -1 for a word holding any non digit
+     */
+    private static void sumWords(byte[] columns, int base, int length, long[] words) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            ByteVector digits = ByteVector.fromArray(SPECIES, columns, base + i).sub((byte) '0');
+            VectorMask<Byte> nonDigits = digits.compare(VectorOperators.LT, (byte) 0)
+                    .or(digits.compare(VectorOperators.GT, (byte) 9));
+            ByteVector doubled = digits.add(digits, DOUBLED);
+            // Doubled values of 10 and more lose 9, i.e. the sum of their digits
+            ByteVector values = doubled.sub((byte) 9, doubled.compare(VectorOperators.GT, (byte) 9));
+            LongVector wordSums = ((LongVector) values.reinterpretAsLongs())
+                    .mul(BYTE_ONES)
+                    .lanewise(VectorOperators.LSHR, 56);
+            LongVector wordFlags = (LongVector) ZERO.blend((byte) 1, nonDigits).reinterpretAsLongs();
+
+            wordSums.blend(-1L, wordFlags.compare(VectorOperators.NE, 0L)).intoArray(words, i / Long.BYTES);
+        }
+        for (; i < length; i += Long.BYTES) {
+            long word = (long) WORDS.get(columns, base + i);
+
+            words[i / Long.BYTES] = SwarLuhn.allDigits(word) ? SwarLuhn.sumOfWord(word - SwarLuhn.ZEROS) : -1;
+        }
+    }
+}
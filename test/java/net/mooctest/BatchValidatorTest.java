@@ -0,0 +1,167 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class BatchValidatorTest {
+
+	private static String[] corpus(int size, long seed) {
+		Random random = new Random(seed);
+		String[] prefixes = {"4", "51", "37", "6011", "62", "9", "2202"};
+		String[] cards = new String[size];
+
+		for (int i = 0; i < size; i++) {
+			StringBuilder number = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+			int length = 12 + random.nextInt(9);
+			while (number.length() < length) {
+				number.append(random.nextInt(40) == 0 ? 'x' : (char) ('0' + random.nextInt(10)));
+			}
+			cards[i] = number.toString();
+		}
+		return cards;
+	}
+
+	private static void assertMatches(String[] cards, BatchResult result) {
+		assertEquals(cards.length, result.size());
+		for (int i = 0; i < cards.length; i++) {
+			assertEquals(cards[i], ValidationResult.checkNumber(cards[i]), result.codeAt(i));
+		}
+	}
+
+	@Test
+	public void testSlicesAcrossThreshold() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertEquals(BatchValidator.MIN_THRESHOLD, BatchValidator.threshold(10_000, pool));
+			assertEquals(3125, BatchValidator.threshold(100_000, pool));
+
+			for (int size : new int[] {BatchValidator.MIN_THRESHOLD - 1, BatchValidator.MIN_THRESHOLD,
+					BatchValidator.MIN_THRESHOLD + 1, 10_000, 100_000}) {
+				String[] cards = corpus(size, size);
+				BatchResult result = new BatchResult(size);
+				BatchValidator.validate(cards, result, pool);
+				assertMatches(cards, result);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testFlags() {
+		BatchResult result = BatchValidator.validate(new String[] {
+				"4111111111111111", "4111111111111112", "411111111111", "9111111111111111", "4111x11111111111"});
+
+		assertTrue(result.isLuhnValid(0));
+		assertTrue(result.isIinValid(0));
+		assertTrue(result.isLengthValid(0));
+		assertEquals(CreditCardType.VISA, result.typeAt(0));
+
+		assertFalse(result.isLuhnValid(1));
+		assertTrue(result.isLengthValid(1));
+
+		// Known IIN at a length it does not allow
+		assertEquals(CreditCardType.OTHER, result.typeAt(2));
+		assertTrue(result.isIinValid(2));
+		assertFalse(result.isLengthValid(2));
+		assertTrue(ValidationResult.hasFailed(result.codeAt(2), ValidationResult.LENGTH_FAILED));
+
+		// Unknown IIN
+		assertEquals(CreditCardType.OTHER, result.typeAt(3));
+		assertFalse(result.isIinValid(3));
+		assertFalse(result.isLengthValid(3));
+		assertTrue(ValidationResult.hasFailed(result.codeAt(3), ValidationResult.IIN_FAILED));
+
+		assertFalse(result.isIinValid(4));
+		assertFalse(result.isLengthValid(4));
+		assertTrue(ValidationResult.hasFailed(result.codeAt(4), ValidationResult.MALFORMED));
+	}
+
+	@Test
+	public void testNullEntries() {
+		BatchResult result = BatchValidator.validate(new String[] {null, "4111111111111111", null});
+
+		assertEquals(3, result.size());
+		for (int i : new int[] {0, 2}) {
+			assertEquals(CreditCardType.OTHER, result.typeAt(i));
+			assertFalse(result.isLuhnValid(i));
+			assertFalse(result.isIinValid(i));
+			assertFalse(result.isLengthValid(i));
+			assertTrue(ValidationResult.hasFailed(result.codeAt(i), ValidationResult.MALFORMED));
+		}
+		assertTrue(ValidationResult.isValid(result.codeAt(1)));
+		assertEquals(2, result.countByType()[CreditCardType.OTHER.ordinal()]);
+	}
+
+	@Test
+	public void testLists() {
+		String[] cards = corpus(5000, 3L);
+		List<String> linked = new LinkedList<>(Arrays.asList(cards));
+		linked.set(17, null);
+		List<String> arrayList = Arrays.asList(cards.clone());
+		arrayList.set(17, null);
+
+		BatchResult fromLinked = BatchValidator.validate(linked);
+		BatchResult fromArrayList = BatchValidator.validate(arrayList);
+
+		assertArrayEquals(fromArrayList.codes(), fromLinked.codes());
+		assertTrue(ValidationResult.hasFailed(fromLinked.codeAt(17), ValidationResult.MALFORMED));
+		cards[17] = "4111111111111111";
+		for (int i = 0; i < cards.length; i++) {
+			if (i != 17) {
+				assertEquals(ValidationResult.checkNumber(cards[i]), fromLinked.codeAt(i));
+			}
+		}
+	}
+
+	@Test
+	public void testResultReuse() {
+		BatchResult result = new BatchResult(10);
+		String[] large = corpus(5000, 5L);
+		String[] small = {"4111111111111111", "378282246310005", "9111111111111111"};
+
+		BatchValidator.validate(large, result, ForkJoinPool.commonPool());
+		assertMatches(large, result);
+		BatchValidator.validate(small, result, ForkJoinPool.commonPool());
+		assertMatches(small, result);
+		assertArrayEquals(new byte[] {(byte) CreditCardType.VISA.ordinal(),
+				(byte) CreditCardType.AMERICAN_EXPRESS.ordinal(), (byte) CreditCardType.OTHER.ordinal()},
+				result.typeOrdinals());
+		long[] counts = result.countByType();
+		assertEquals(3, Arrays.stream(counts).sum());
+		try {
+			result.codeAt(3);
+			fail("Index beyond the current batch");
+		} catch (IndexOutOfBoundsException expected) {
+		}
+	}
+
+	@Test
+	public void testPackedBatch() {
+		String[] cards = corpus(3000, 7L);
+		cards[0] = "";
+		cards[1500] = "";
+		PackedPanBatch batch = new PackedPanBatch();
+		for (String card : cards) {
+			batch.add(card);
+		}
+
+		BatchResult packed = BatchValidator.validate(batch);
+		BatchResult strings = BatchValidator.validate(cards);
+		assertArrayEquals(strings.codes(), packed.codes());
+		assertEquals(ValidationResult.checkNumber(""), packed.codeAt(0));
+		assertFalse(packed.isLuhnValid(1500));
+		assertFalse(batch.isLuhnValid(1500));
+	}
+}
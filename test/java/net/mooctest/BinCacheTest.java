@@ -0,0 +1,155 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BinCacheTest {
+
+	@Test
+	public void testHitsSkipTheTableButKeepLengthChecks() {
+		BinCache cache = new BinCache(BinRangeTable.builtIn(), 100);
+
+		assertEquals(CreditCardType.VISA, cache.classify("4532015112830366"));
+		assertEquals(CreditCardType.VISA, cache.classify("4532015112830366"));
+		assertEquals(CreditCardType.VISA, cache.classify("4532015112830"));
+		assertEquals(CreditCardType.OTHER, cache.classify("453201511283"));
+		assertEquals(CreditCardType.OTHER, cache.classify("4532-015112830366"));
+		assertEquals(1, cache.misses());
+		assertEquals(3, cache.hits());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testCapacityIsBounded() {
+		for (CacheEviction eviction : CacheEviction.values()) {
+			BinCache cache = new BinCache(BinRangeTable.builtIn(), 64, 4, eviction);
+			for (int prefix = 0; prefix < 10000; prefix++) {
+				cache.lengthMask(prefix * 1000);
+			}
+			assertEquals(64, cache.size());
+			cache.clear();
+			assertEquals(0, cache.size());
+		}
+	}
+
+	@Test
+	public void testLruKeepsTheHotPrefix() {
+		BinCache cache = new BinCache(BinRangeTable.builtIn(), 8, 1, CacheEviction.LRU);
+		cache.lengthMask(45320151);
+		for (int prefix = 0; prefix < 100; prefix++) {
+			cache.lengthMask(45320151);
+			cache.lengthMask(prefix);
+		}
+		long misses = cache.misses();
+		cache.lengthMask(45320151);
+		assertEquals(misses, cache.misses());
+	}
+
+	@Test
+	public void testCacheAgreesWithTable() {
+		BinRangeTable table = BinRangeTable.builtIn();
+		BinCache cache = new BinCache(table, 256, 8, CacheEviction.FIFO);
+		Random random = new Random(3);
+
+		for (int i = 0; i < 100000; i++) {
+			int prefix = random.nextInt(1000) * 100000 + random.nextInt(3);
+			int length = 12 + random.nextInt(8);
+			assertEquals(table.typeOrdinal(length, prefix), cache.typeOrdinal(length, prefix));
+			assertEquals(table.lengthMask(prefix), cache.lengthMask(prefix));
+		}
+	}
+
+	@Test
+	public void testTypeCheckerCacheFollowsTheTable() {
+		BinCache cache = TypeChecker.enableCache(1000);
+		try {
+			assertEquals(CreditCardType.AMERICAN_EXPRESS, TypeChecker.checkType("371449635398431"));
+			assertEquals(CreditCardType.AMERICAN_EXPRESS, TypeChecker.checkType("371449635398431"));
+			assertEquals(1, cache.hits());
+
+			BinRangeTable previous = TypeChecker.install(BinRangeTable.builtIn());
+			assertSame(BinRangeTable.builtIn(), TypeChecker.currentCache().table());
+			TypeChecker.install(previous);
+		} finally {
+			TypeChecker.disableCache();
+		}
+	}
+
+	@Test
+	public void testEveryEntryPointUsesTheCache() {
+		String[] cards = {"4532015112830366", "4532015112830367", "371449635398431", "9111111111111111",
+				"453201511283"};
+		int[] codes = new int[cards.length];
+		for (int i = 0; i < cards.length; i++) {
+			codes[i] = FusedEngine.evaluate(cards[i]);
+		}
+
+		BinCache cache = TypeChecker.enableCache(1000);
+		try {
+			for (int i = 0; i < cards.length; i++) {
+				long lookups = lookups(cache);
+				assertEquals(codes[i], FusedEngine.evaluate(cards[i]));
+				assertTrue(lookups < (lookups = lookups(cache)));
+				assertEquals(codes[i], new Validator(cards[i]).check());
+				assertTrue(lookups < (lookups = lookups(cache)));
+				assertEquals(codes[i], ValidationResult.checkNumber(PackedPan.of(cards[i])));
+				assertTrue(lookups < (lookups = lookups(cache)));
+				if (cards[i].length() >= BinRangeTable.PREFIX_DIGITS) {
+					assertEquals(ValidationResult.type(codes[i]), TypeChecker.checkType(PackedPan.of(cards[i])));
+					assertTrue(lookups < (lookups = lookups(cache)));
+					assertEquals(ValidationResult.type(codes[i]), TypeChecker.checkType(cards[i], new int[8]));
+					assertTrue(lookups < (lookups = lookups(cache)));
+				}
+			}
+			long lookups = lookups(cache);
+			assertArrayEquals(codes, BatchValidator.validate(cards).codes());
+			assertTrue(lookups < lookups(cache));
+
+			int[] prefixes = new int[6];
+			assertEquals(CreditCardType.AMERICAN_EXPRESS, TypeChecker.checkType("371449635398431", prefixes));
+			assertArrayEquals(new int[] {3, 37, 371, 3714, 37144, 371449}, prefixes);
+		} finally {
+			TypeChecker.disableCache();
+		}
+	}
+
+	private static long lookups(BinCache cache) {
+		return cache.hits() + cache.misses();
+	}
+
+	@Test
+	public void testEnableCacheRacingInstall() throws InterruptedException {
+		BinRangeTable builtIn = TypeChecker.currentTable();
+		BinRangeTable other = CardSpecRegistry.builtIn().compile();
+		Thread installer = new Thread(() -> {
+			for (int i = 0; i < 20_000; i++) {
+				TypeChecker.install(i % 2 == 0 ? other : builtIn);
+			}
+		});
+		try {
+			installer.start();
+			for (int i = 0; i < 20_000; i++) {
+				BinRangeTable cached = TypeChecker.enableCache(i % 3 == 0 ? 16 : 32).table();
+				assertTrue(cached == builtIn || cached == other);
+			}
+			installer.join();
+			assertSame(TypeChecker.currentTable(), TypeChecker.currentCache().table());
+
+			TypeChecker.install(other);
+			assertSame(other, TypeChecker.currentCache().table());
+			TypeChecker.enableCache(new BinCache(builtIn, 64));
+			assertSame(other, TypeChecker.currentCache().table());
+			assertEquals(64, TypeChecker.currentCache().capacity());
+		} finally {
+			installer.join();
+			TypeChecker.install(builtIn);
+			TypeChecker.disableCache();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class BinTableLoaderTest {
+
+	private static Path csv(String... lines) throws IOException {
+		Path file = Files.createTempFile("bins", ".csv");
+		file.toFile().deleteOnExit();
+		Files.write(file, Arrays.asList(lines), StandardCharsets.US_ASCII);
+		return file;
+	}
+
+	@Test
+	public void testCsvRangesNarrowestFirst() throws IOException {
+		BinRangeTable table = BinTableLoader.loadCsv(csv(
+				"# start,end,prefixLength,network,allowedLengths",
+				"4,4,1,VISA,13-19",
+				"402600,402699,6,VISA_ELECTRON,16",
+				"62,62,2,CHINA_UNIONPAY,16|19"));
+
+		assertEquals(CreditCardType.VISA, table.classify("4111111111111111"));
+		assertEquals(CreditCardType.VISA_ELECTRON, table.classify("4026001111111111"));
+		assertEquals(CreditCardType.VISA, table.classify("4026001111111"));
+		assertEquals(CreditCardType.CHINA_UNIONPAY, table.classify("6200000000000000000"));
+		assertEquals(CreditCardType.OTHER, table.classify("62000000000000000"));
+		assertEquals(CreditCardType.OTHER, table.classify("5100000000000000"));
+	}
+
+	@Test
+	public void testEightDigitRanges() throws IOException {
+		BinRangeTable table = BinTableLoader.loadCsv(csv(
+				"4,4,1,VISA,16",
+				"45320151,45320151,8,VISA_ELECTRON,16"));
+
+		assertEquals(CreditCardType.VISA_ELECTRON, table.classify("4532015112830366"));
+		assertEquals(CreditCardType.VISA, table.classify("4532015212830366"));
+		assertEquals(CreditCardType.VISA, table.classify("4532015012830366"));
+	}
+
+	@Test
+	public void testBinaryMatchesCsv() throws IOException {
+		Path source = csv("222100,272099,6,MASTERCARD,16", "34,34,2,AMERICAN_EXPRESS,15");
+		Path binary = Files.createTempFile("bins", ".bin");
+		binary.toFile().deleteOnExit();
+
+		BinTableLoader.convert(source, binary);
+		BinRangeTable table = BinTableLoader.load(binary);
+
+		assertEquals(CreditCardType.MASTERCARD, table.classify("2221000000000000"));
+		assertEquals(CreditCardType.MASTERCARD, table.classify("2720990000000000"));
+		assertEquals(CreditCardType.OTHER, table.classify("2721000000000000"));
+		assertEquals(CreditCardType.AMERICAN_EXPRESS, table.classify("340000000000000"));
+	}
+
+	@Test
+	public void testBinaryLengthMaskIsChecked() throws IOException {
+		Path source = csv("4,4,1,VISA,16", "34,34,2,AMERICAN_EXPRESS,15");
+		Path binary = Files.createTempFile("bins", ".bin");
+		binary.toFile().deleteOnExit();
+		BinTableLoader.convert(source, binary);
+		byte[] valid = Files.readAllBytes(binary);
+
+		for (int lengthMask : new int[] {0, 1, 1 << (BinRangeTable.MAX_LENGTH + 1), -1}) {
+			ByteBuffer table = ByteBuffer.wrap(valid.clone());
+			table.putInt(BinTableLoader.HEADER_SIZE + BinTableLoader.RECORD_SIZE + 10, lengthMask);
+			Files.write(binary, table.array());
+			try {
+				BinTableLoader.load(binary);
+				fail("Lengths mask " + lengthMask + " accepted");
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("record 1"));
+			}
+		}
+	}
+
+	@Test
+	public void testMalformedLineNamesItsNumber() throws IOException {
+		try {
+			BinTableLoader.loadCsv(csv("4,4,1,VISA,16", "", "51,55,2,MASTERCARD"));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("line 3"));
+		}
+	}
+
+	@Test
+	public void testInstallSwapsTheTable() throws IOException {
+		BinRangeTable loaded = BinTableLoader.loadCsv(csv("9,9,1,TROY,16"));
+		BinRangeTable previous = TypeChecker.install(loaded);
+		try {
+			assertEquals(CreditCardType.TROY, TypeChecker.checkType("9000000000000000"));
+			assertEquals(CreditCardType.OTHER, TypeChecker.checkType("4111111111111111"));
+		} finally {
+			assertSame(loaded, TypeChecker.install(previous));
+		}
+		assertEquals(CreditCardType.VISA, TypeChecker.checkType("4111111111111111"));
+	}
+}
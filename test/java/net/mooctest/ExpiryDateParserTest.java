@@ -0,0 +1,39 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class ExpiryDateParserTest {
+
+	@Test
+	public void testSupportedFormats() {
+		assertEquals(202512, ExpiryDateParser.parse("12/25"));
+		assertEquals(202512, ExpiryDateParser.parse("1225"));
+		assertEquals(202512, ExpiryDateParser.parse("12/2025"));
+		assertEquals(202512, ExpiryDateParser.parse("2025-12"));
+		assertEquals(202512, ExpiryDateParser.parseYearMonth("2512"));
+	}
+
+	@Test
+	public void testByteRanges() {
+		byte[] field = "xx2512/28".getBytes(StandardCharsets.US_ASCII);
+
+		assertEquals(202512, ExpiryDateParser.parseYearMonth(field, 2, 6));
+		assertEquals(202812, ExpiryDateParser.parse(field, 4, 9));
+	}
+
+	@Test
+	public void testMalformedInput() {
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse(""));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse("13/25"));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse("00/25"));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse("1/25"));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse("12//25"));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse("AB/CD"));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parse("2025/12"));
+		assertEquals(ExpiryDateParser.MALFORMED, ExpiryDateParser.parseYearMonth("12/25"));
+	}
+}
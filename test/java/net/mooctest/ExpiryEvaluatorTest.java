@@ -0,0 +1,82 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+public class ExpiryEvaluatorTest {
+
+	/**
+	 * Clock whose time the test moves forward.
+	 */
+	private static final class MovableClock extends Clock {
+		private Instant now;
+
+		MovableClock(String instant) {
+			now = Instant.parse(instant);
+		}
+
+		void set(String instant) {
+			now = Instant.parse(instant);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+
+	@Test
+	public void testRolloverAtMidnightOfTheFirst() {
+		MovableClock clock = new MovableClock("2026-10-31T23:59:59.999Z");
+		ExpiryEvaluator evaluator = new ExpiryEvaluator(clock);
+
+		assertEquals(202610, evaluator.currentYearMonth());
+		assertFalse(evaluator.isExpired(202610));
+
+		clock.set("2026-11-01T00:00:00Z");
+		assertEquals(202611, evaluator.currentYearMonth());
+		assertTrue(evaluator.isExpired(202610));
+		assertFalse(evaluator.isExpired(202611));
+
+		clock.set("2027-01-01T00:00:00Z");
+		assertEquals(202701, evaluator.currentYearMonth());
+	}
+
+	@Test
+	public void testYearMonth() {
+		assertEquals(202512, ExpiryEvaluator.yearMonth(25, 12));
+		assertEquals(203001, ExpiryEvaluator.yearMonth(2030, 1));
+		assertEquals(-1, ExpiryEvaluator.yearMonth(25, 13));
+		assertEquals(-1, ExpiryEvaluator.yearMonth(25, 0));
+	}
+
+	@Test
+	public void testValidatorUsesInjectedEvaluator() {
+		MovableClock clock = new MovableClock("2026-10-15T12:00:00Z");
+		ExpiryEvaluator evaluator = new ExpiryEvaluator(clock);
+		Validator validator = new Validator("4532015112830366", "10/26", "123", evaluator);
+
+		assertTrue(validator.checkExpirationDate());
+		clock.set("2026-11-01T00:00:00Z");
+		assertFalse(validator.checkExpirationDate());
+		assertFalse(new Validator("4532015112830366", "13/30", "123", evaluator).checkExpirationDate());
+	}
+}
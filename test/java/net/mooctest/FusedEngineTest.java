@@ -0,0 +1,53 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FusedEngineTest {
+
+	@Test
+	public void testOutcomes() {
+		assertTrue(ValidationResult.isValid(FusedEngine.evaluate("4532015112830366")));
+		assertEquals(CreditCardType.AMERICAN_EXPRESS, ValidationResult.type(FusedEngine.evaluate("371449635398431")));
+
+		int luhn = FusedEngine.evaluate("4532015112830367");
+		assertEquals(CreditCardType.VISA, ValidationResult.type(luhn));
+		assertTrue(ValidationResult.hasFailed(luhn, ValidationResult.LUHN_FAILED));
+
+		assertTrue(ValidationResult.hasFailed(FusedEngine.evaluate("340000000000000000"), ValidationResult.LENGTH_FAILED));
+		assertTrue(ValidationResult.hasFailed(FusedEngine.evaluate("9999999999999995"), ValidationResult.IIN_FAILED));
+		assertTrue(ValidationResult.hasFailed(FusedEngine.evaluate("4532 0151 1283 0366"), ValidationResult.MALFORMED));
+		assertTrue(ValidationResult.hasFailed(FusedEngine.evaluate(""), ValidationResult.LUHN_FAILED));
+	}
+
+	@Test
+	public void testEveryInputKindAgreesWithSeparatePasses() {
+		Random random = new Random(5);
+		BinRangeTable table = BinRangeTable.builtIn();
+
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder number = new StringBuilder();
+			int length = random.nextInt(21);
+			for (int j = 0; j < length; j++) {
+				number.append(random.nextInt(100) == 0 ? '-' : (char) ('0' + random.nextInt(10)));
+			}
+			String card = number.toString();
+			byte[] bytes = ("  " + card).getBytes(StandardCharsets.US_ASCII);
+
+			int code = FusedEngine.evaluate(table, card);
+			assertEquals(card, table.classify(card), ValidationResult.type(code));
+			assertEquals(card, card.length() > 0 && LuhnEngine.check(card),
+					!ValidationResult.hasFailed(code, ValidationResult.LUHN_FAILED));
+			assertEquals(card, code, FusedEngine.evaluate(table, (CharSequence) number));
+			assertEquals(card, code, FusedEngine.evaluate(table, ("x" + card).toCharArray(), 1, length + 1));
+			assertEquals(card, code, FusedEngine.evaluate(table, bytes, 2, bytes.length));
+			assertEquals(card, code, FusedEngine.evaluate(table, ByteBuffer.wrap(bytes), 2, bytes.length));
+		}
+	}
+}
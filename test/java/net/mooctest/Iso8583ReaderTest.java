@@ -0,0 +1,195 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Iso8583ReaderTest {
+	private static final ExpiryEvaluator OCTOBER_2026 = new ExpiryEvaluator(
+			Clock.fixed(Instant.parse("2026-10-17T10:00:00Z"), ZoneOffset.UTC));
+
+	/*
+	 * ISO 8583 message with fields 2, 3, 4, 7, 11 & 14, the secondary
+	 * bitmap (with field 70) when asked
+	 */
+	private static byte[] message(Iso8583Encoding encoding, String pan, String expiry, boolean secondary,
+			boolean rightPadded) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long primary = bit(3) | bit(4) | bit(7) | bit(11);
+		if (pan != null) {
+			primary |= bit(2);
+		}
+		if (expiry != null) {
+			primary |= bit(14);
+		}
+		if (secondary) {
+			primary |= bit(1);
+		}
+		boolean ascii = encoding == Iso8583Encoding.ASCII;
+
+		numeric(out, ascii, "0100", false);
+		bitmap(out, ascii, primary);
+		if (secondary) {
+			bitmap(out, ascii, bit(70 - 64));
+		}
+		if (pan != null) {
+			numeric(out, ascii, String.format("%02d", pan.length()), false);
+			numeric(out, ascii, pan, rightPadded);
+		}
+		numeric(out, ascii, "000000", false);
+		numeric(out, ascii, "000000012345", false);
+		numeric(out, ascii, "1017103000", false);
+		numeric(out, ascii, "123456", false);
+		if (expiry != null) {
+			numeric(out, ascii, expiry, false);
+		}
+		numeric(out, ascii, "301", false);
+		return out.toByteArray();
+	}
+
+	private static long bit(int field) {
+		return 1L << (64 - field);
+	}
+
+	private static void bitmap(ByteArrayOutputStream out, boolean ascii, long bitmap) {
+		if (ascii) {
+			byte[] hex = String.format("%016X", bitmap).getBytes(StandardCharsets.US_ASCII);
+			out.write(hex, 0, hex.length);
+		} else {
+			for (int i = 7; i >= 0; i--) {
+				out.write((int) (bitmap >>> (i * 8)));
+			}
+		}
+	}
+
+	private static void numeric(ByteArrayOutputStream out, boolean ascii, String digits, boolean rightPadded) {
+		if (ascii) {
+			byte[] bytes = digits.getBytes(StandardCharsets.US_ASCII);
+			out.write(bytes, 0, bytes.length);
+			return;
+		}
+		String nibbles = digits.length() % 2 == 0 ? digits : rightPadded ? digits + "F" : "0" + digits;
+		for (int i = 0; i < nibbles.length(); i += 2) {
+			out.write(Integer.parseInt(nibbles.substring(i, i + 2), 16));
+		}
+	}
+
+	private static int expected(String pan, String expiry) {
+		int code = ValidationResult.checkNumber(pan);
+		if (expiry != null) {
+			int yearMonth = ExpiryDateParser.parseYearMonth(expiry);
+			if (yearMonth < 0 || OCTOBER_2026.isExpired(yearMonth)) {
+				code |= ValidationResult.EXPIRY_FAILED;
+			}
+		}
+		return code;
+	}
+
+	@Test
+	public void testAsciiMessage() {
+		Iso8583Reader reader = new Iso8583Reader(Iso8583Encoding.ASCII, TypeChecker.currentTable(), OCTOBER_2026);
+		byte[] message = message(Iso8583Encoding.ASCII, "4532015112830366", "2812", false, false);
+
+		assertTrue(reader.read(message, 0, message.length));
+		assertEquals(100, reader.mti());
+		assertTrue(reader.hasField(2));
+		assertFalse(reader.hasField(5));
+		assertEquals(4 + 16 + 2, reader.panStart());
+		assertEquals(16, reader.panDigits());
+		assertEquals(202812, reader.expiryYearMonth());
+		assertEquals(CreditCardType.VISA.ordinal(), reader.validate());
+	}
+
+	@Test
+	public void testBcdMessageWithOddPan() {
+		Iso8583Reader reader = new Iso8583Reader(Iso8583Encoding.BCD, TypeChecker.currentTable(), OCTOBER_2026);
+
+		for (boolean rightPadded : new boolean[] {false, true}) {
+			byte[] message = message(Iso8583Encoding.BCD, "371449635398431", "2609", true, rightPadded);
+			assertTrue(reader.read(ByteBuffer.wrap(message)));
+			assertTrue(reader.hasField(70));
+			assertFalse(reader.hasField(71));
+			assertEquals(15, reader.panDigits());
+			assertEquals(CreditCardType.AMERICAN_EXPRESS.ordinal() | ValidationResult.EXPIRY_FAILED, reader.validate());
+		}
+	}
+
+	@Test
+	public void testMissingAndTruncatedFields() {
+		Iso8583Reader reader = new Iso8583Reader(Iso8583Encoding.ASCII, TypeChecker.currentTable(), OCTOBER_2026);
+		byte[] noPan = message(Iso8583Encoding.ASCII, null, "2812", false, false);
+		assertTrue(reader.read(noPan, 0, noPan.length));
+		assertEquals(-1, reader.panStart());
+		assertTrue(ValidationResult.hasFailed(reader.validate(), ValidationResult.MALFORMED));
+
+		byte[] noExpiry = message(Iso8583Encoding.ASCII, "4532015112830366", null, false, false);
+		assertTrue(reader.read(noExpiry, 0, noExpiry.length));
+		assertEquals(ExpiryDateParser.MALFORMED, reader.expiryYearMonth());
+		assertEquals(CreditCardType.VISA.ordinal(), reader.validate());
+
+		byte[] message = message(Iso8583Encoding.ASCII, "4532015112830366", "2812", false, false);
+		for (int length = 0; length < message.length - 3; length++) {
+			assertEquals(length >= message.length - 3, reader.read(message, 0, length));
+			assertFalse(reader.hasField(2));
+		}
+
+		byte[] badBitmap = message.clone();
+		badBitmap[6] = 'G';
+		assertFalse(reader.read(badBitmap, 0, badBitmap.length));
+		byte[] longPan = message(Iso8583Encoding.ASCII, "45320151128303660000", "2812", false, false);
+		assertFalse(reader.read(longPan, 0, longPan.length));
+	}
+
+	@Test
+	public void testAgreesWithStringValidation() {
+		Random random = new Random(24);
+		Iso8583Reader ascii = new Iso8583Reader(Iso8583Encoding.ASCII, TypeChecker.currentTable(), OCTOBER_2026);
+		Iso8583Reader bcd = new Iso8583Reader(Iso8583Encoding.BCD, TypeChecker.currentTable(), OCTOBER_2026);
+
+		for (int i = 0; i < 20000; i++) {
+			char[] digits = new char[1 + random.nextInt(19)];
+			for (int j = 0; j < digits.length; j++) {
+				digits[j] = (char) ('0' + random.nextInt(10));
+			}
+			if (random.nextBoolean()) {
+				digits[0] = "34569".charAt(random.nextInt(5));
+				for (int check = 0; !LuhnEngine.check(digits, 0, digits.length); check++) {
+					digits[digits.length - 1] = (char) ('0' + check);
+				}
+			}
+			String pan = new String(digits);
+			String expiry = String.format("%02d%02d", random.nextInt(100), random.nextInt(14));
+			boolean secondary = random.nextBoolean();
+			int expected = expected(pan, expiry);
+
+			// Embedded at an offset, with trailing bytes
+			byte[] message = message(Iso8583Encoding.ASCII, pan, expiry, secondary, false);
+			byte[] framed = new byte[message.length + 7];
+			System.arraycopy(message, 0, framed, 3, message.length);
+			assertTrue(ascii.read(framed, 3, message.length));
+			assertEquals(pan, expected, ascii.validate());
+			ByteBuffer direct = ByteBuffer.allocateDirect(framed.length);
+			direct.put(framed).position(3).limit(3 + message.length);
+			assertTrue(ascii.read(direct));
+			assertEquals(pan, expected, ascii.validate());
+			assertEquals(3, direct.position());
+
+			message = message(Iso8583Encoding.BCD, pan, expiry, secondary, random.nextBoolean());
+			assertTrue(bcd.read(message, 0, message.length));
+			assertEquals(pan, expected, bcd.validate());
+			assertTrue(bcd.read(ByteBuffer.wrap(Arrays.copyOf(message, message.length))));
+			assertEquals(pan, expected, bcd.validate());
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LuhnEngineTest {
+
+	@Test
+	public void testKnownNumbers() {
+		assertTrue(LuhnEngine.check("4532015112830366"));
+		assertTrue(LuhnEngine.check("5105105105105100"));
+		assertFalse(LuhnEngine.check("4532015112830367"));
+		assertFalse(LuhnEngine.check("123"));
+	}
+
+	@Test
+	public void testNonDigitsFail() {
+		assertFalse(LuhnEngine.check("4532-0151-1283-0366"));
+		assertFalse(LuhnEngine.check("ABCD-1234-5678"));
+	}
+
+	@Test
+	public void testRangesOverEveryInputKind() {
+		String line = "xx4532015112830366yy";
+		byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+
+		assertTrue(LuhnEngine.check(line, 2, 18));
+		assertTrue(LuhnEngine.check(line.toCharArray(), 2, 18));
+		assertTrue(LuhnEngine.check(bytes, 2, 18));
+		assertFalse(LuhnEngine.check(bytes, 2, 17));
+	}
+
+	@Test
+	public void testAgreesWithAlgorithmCheck() {
+		LuhnValidator reference = new LuhnValidator();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 50000; i++) {
+			char[] digits = new char[1 + random.nextInt(19)];
+			for (int j = 0; j < digits.length; j++) {
+				digits[j] = (char) ('0' + random.nextInt(10));
+			}
+			String number = new String(digits);
+
+			assertEquals(number, reference.algorithmCheck(number), LuhnEngine.check(number));
+			assertEquals(number, reference.algorithmCheck(number), LuhnEngine.check(digits, 0, digits.length));
+		}
+	}
+}
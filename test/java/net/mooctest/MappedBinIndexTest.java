@@ -0,0 +1,137 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MappedBinIndexTest {
+
+	private static Path tempIndex() throws IOException {
+		Path file = Files.createTempFile("bins", ".idx");
+		file.toFile().deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testLookupTypeLengthsAndIssuer() throws IOException {
+		Path file = tempIndex();
+		new BinIndexWriter()
+				.add(8, 45320151, 45320151, CreditCardType.VISA, CardSpec.lengths(16, 16), "Example Bank")
+				.add(6, 222100, 272099, CreditCardType.MASTERCARD, CardSpec.lengths(16, 16), "Mastercard")
+				.add(2, 34, 34, CreditCardType.AMERICAN_EXPRESS, CardSpec.lengths(15, 15), "Example Bank")
+				.write(file);
+		MappedBinIndex index = MappedBinIndex.open(file);
+
+		assertEquals(3, index.size());
+		assertEquals(CreditCardType.VISA, index.classify("4532015112830366"));
+		assertEquals(CreditCardType.OTHER, index.classify("4532015212830366"));
+		assertEquals(CreditCardType.MASTERCARD, index.classify("2720991234567890"));
+		assertEquals(CreditCardType.OTHER, index.classify("27209912345678901"));
+		assertEquals(CreditCardType.AMERICAN_EXPRESS, index.classify("349999999999999"));
+		assertEquals(CreditCardType.OTHER, index.classify("3499"));
+
+		int visa = index.find("4532015112830366");
+		int amex = index.find(34000000);
+		assertEquals("Example Bank", index.issuerAt(visa));
+		assertEquals(index.issuerOffset(visa), index.issuerOffset(amex));
+		assertEquals(12, index.issuerLength(amex));
+		assertEquals(6, index.digitsAt(index.find(22210000)));
+		assertEquals(MappedBinIndex.NOT_FOUND, index.find(0));
+		assertEquals(MappedBinIndex.NOT_FOUND, index.find(99999999));
+	}
+
+	@Test
+	public void testSearchAgreesWithLinearScan() throws IOException {
+		Random random = new Random(7);
+		BinIndexWriter writer = new BinIndexWriter();
+		int[] lows = new int[5000];
+		int low = 0;
+		for (int i = 0; i < lows.length; i++) {
+			low += 1 + random.nextInt(15000);
+			lows[i] = low;
+			writer.add(8, low, low + random.nextInt(3), CreditCardType.VISA, CardSpec.lengths(16, 16), null);
+			low += 3;
+		}
+		Path file = tempIndex();
+		writer.write(file);
+		MappedBinIndex index = MappedBinIndex.open(file);
+
+		for (int i = 0; i < 20000; i++) {
+			int prefix = random.nextInt(low + 10);
+			int expected = MappedBinIndex.NOT_FOUND;
+			for (int r = 0; r < index.size(); r++) {
+				if (index.lowAt(r) <= prefix && prefix <= index.highAt(r)) {
+					expected = r;
+				}
+			}
+			assertEquals(expected, index.find(prefix));
+		}
+	}
+
+	@Test
+	public void testOverlappingRangesAreRejected() throws IOException {
+		try {
+			new BinIndexWriter()
+					.add(6, 400000, 400099, CreditCardType.VISA, CardSpec.lengths(16, 16), null)
+					.add(8, 40000500, 40000500, CreditCardType.VISA, CardSpec.lengths(16, 16), null)
+					.write(tempIndex());
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testCorruptRecordsAreRejectedAtOpen() throws IOException {
+		Path file = tempIndex();
+		new BinIndexWriter()
+				.add(2, 34, 34, CreditCardType.AMERICAN_EXPRESS, CardSpec.lengths(15, 15), "Example Bank")
+				.add(1, 4, 4, CreditCardType.VISA, CardSpec.lengths(13, 19), "Visa")
+				.write(file);
+		byte[] valid = Files.readAllBytes(file);
+		int record = MappedBinIndex.HEADER_SIZE + MappedBinIndex.RECORD_SIZE;
+		assertEquals(CreditCardType.VISA, MappedBinIndex.wrap(ByteBuffer.wrap(valid)).typeAt(1));
+
+		// Field offset in the record, its width in bytes & the corrupt value
+		int[][] corruptions = {
+				{18, 1, CreditCardType.values().length}, {18, 1, -1}, {18, 1, CreditCardType.OTHER.ordinal()},
+				{19, 1, 0}, {19, 1, 9}, {8, 4, 0}, {8, 4, 1 << 20}, {16, 2, 0xFFFF}, {12, 4, -1},
+				{0, 4, 30000000}, {4, 4, 100000000}};
+		for (int[] corruption : corruptions) {
+			ByteBuffer bytes = ByteBuffer.wrap(valid.clone());
+			if (corruption[1] == 1) {
+				bytes.put(record + corruption[0], (byte) corruption[2]);
+			} else if (corruption[1] == 2) {
+				bytes.putShort(record + corruption[0], (short) corruption[2]);
+			} else {
+				bytes.putInt(record + corruption[0], corruption[2]);
+			}
+			try {
+				MappedBinIndex.wrap(bytes);
+				fail(Arrays.toString(corruption));
+			} catch (IOException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("record 1"));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWriterRejectsInvalidLengthMask() {
+		new BinIndexWriter().add(1, 4, 4, CreditCardType.VISA, 0, null);
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsOtherFiles() throws IOException {
+		Path file = tempIndex();
+		Files.write(file, new byte[64]);
+		MappedBinIndex.open(file);
+	}
+}
@@ -0,0 +1,74 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PackedPanTest {
+
+	@Test
+	public void testAccessors() {
+		PackedPan pan = PackedPan.of("4532015112830366");
+
+		assertEquals(16, pan.length());
+		assertEquals(4, pan.digitAt(0));
+		assertEquals(6, pan.digitAt(15));
+		assertEquals(0, pan.prefix(0));
+		assertEquals(45320151L, pan.prefix(8));
+		assertEquals(4532015112830366L, pan.prefix(16));
+		assertTrue(pan.isNumeric());
+		assertEquals(pan, PackedPan.of(new StringBuilder("4532015112830366")));
+	}
+
+	@Test
+	public void testNonDigitsAndLongNumbers() {
+		PackedPan dashed = PackedPan.of("4532-0151");
+		assertEquals(9, dashed.length());
+		assertEquals(-1, dashed.digitAt(4));
+		assertEquals(4532L, dashed.prefix(4));
+		assertEquals(-1L, dashed.prefix(5));
+		assertFalse(dashed.isNumeric());
+
+		PackedPan twenty = PackedPan.of("45320151128303661234");
+		assertEquals(20, twenty.length());
+		assertEquals(4, twenty.digitAt(19));
+
+		PackedPan overlong = PackedPan.of("000000000000000000000000000000000000000000");
+		assertEquals(42, overlong.length());
+		assertFalse(overlong.isNumeric());
+		assertFalse(LuhnEngine.check(overlong));
+	}
+
+	@Test
+	public void testAgreesWithStringPipeline() {
+		Random random = new Random(11);
+		PackedPanBatch batch = new PackedPanBatch(4);
+		String[] cards = new String[5000];
+
+		for (int i = 0; i < cards.length; i++) {
+			StringBuilder number = new StringBuilder();
+			int length = random.nextInt(22);
+			for (int j = 0; j < length; j++) {
+				number.append(random.nextInt(50) == 0 ? 'x' : (char) ('0' + random.nextInt(10)));
+			}
+			cards[i] = number.toString();
+			assertEquals(i, batch.add(cards[i]));
+		}
+
+		BatchResult packed = BatchValidator.validate(batch);
+		for (int i = 0; i < cards.length; i++) {
+			PackedPan pan = PackedPan.of(cards[i]);
+			assertEquals(cards[i], LuhnEngine.check(cards[i]), LuhnEngine.check(pan));
+			assertEquals(cards[i], TypeChecker.checkType(cards[i]), TypeChecker.checkType(pan));
+			assertEquals(cards[i], ValidationResult.checkNumber(cards[i]), ValidationResult.checkNumber(pan));
+			assertEquals(cards[i], TypeChecker.checkType(cards[i]), packed.typeAt(i));
+			assertEquals(cards[i], !cards[i].isEmpty() && LuhnEngine.check(cards[i]), packed.isLuhnValid(i));
+			assertEquals(cards[i], packed.isLuhnValid(i), batch.isLuhnValid(i));
+			assertEquals(pan, batch.get(i));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PanColumnsTest {
+	private static final String DIGITS = "0123456789";
+	private static final String NOISE = "0123456789 -/:İ٠A";
+
+	@Test
+	public void testImplementation() {
+		// The multi-release JAR run sets the kernel it expects
+		String expected = System.getProperty("columnar.implementation");
+		if (expected != null) {
+			assertEquals(expected, PanColumns.implementation());
+		}
+	}
+
+	@Test
+	public void testMatchesScalarChecks() {
+		Random random = new Random(20);
+		for (int slotWidth = 8; slotWidth <= PanColumns.MAX_SLOT_WIDTH; slotWidth += 8) {
+			for (int count : new int[] {0, 1, 7, 255, 256, 257, 1000}) {
+				PanColumns columns = new PanColumns(4, slotWidth);
+				String[] numbers = new String[count];
+				boolean[] luhn = new boolean[count];
+				boolean[] numeric = new boolean[count];
+
+				for (int i = 0; i < count; i++) {
+					String alphabet = random.nextInt(4) == 0 ? NOISE : DIGITS;
+					StringBuilder number = new StringBuilder();
+					int length = 1 + random.nextInt(slotWidth);
+					for (int j = 0; j < length; j++) {
+						number.append(alphabet.charAt(random.nextInt(alphabet.length())));
+					}
+					numbers[i] = number.toString();
+					assertEquals(i, columns.add(numbers[i]));
+					luhn[i] = LuhnEngine.check(numbers[i]);
+					numeric[i] = numbers[i].chars().allMatch(c -> c >= '0' && c <= '9');
+				}
+
+				assertEquals(count, columns.size());
+				assertArrayEquals(luhn, new LuhnValidator().validate(columns, new boolean[count]));
+				assertArrayEquals(numeric, CreditCardParser.parseDigits(columns, new boolean[count]));
+				for (int i = 0; i < count; i++) {
+					assertEquals(numbers[i].length(), columns.length(i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testKnownNumbers() {
+		PanColumns columns = new PanColumns();
+		columns.add("4532015112830366");
+		columns.add("4532015112830367");
+		columns.add("6011111111111117");
+		columns.add("4532 0151 1283 0366");
+		columns.add("İ532015112830366");
+
+		boolean[] luhn = new LuhnValidator().validate(columns, new boolean[5]);
+		assertTrue(luhn[0]);
+		assertFalse(luhn[1]);
+		assertTrue(luhn[2]);
+		assertFalse(luhn[3]);
+		assertFalse(luhn[4]);
+		assertArrayEquals(new boolean[] {true, true, true, false, false},
+				CreditCardParser.parseDigits(columns, new boolean[5]));
+	}
+
+	@Test
+	public void testEmptyNumberIsRejected() {
+		PanColumns columns = new PanColumns(1, 16);
+		try {
+			columns.add("");
+			fail("Empty card number accepted");
+		} catch (IllegalArgumentException e) {
+			assertEquals(0, columns.size());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNumberLongerThanSlot() {
+		new PanColumns(1, 16).add("12345678901234567");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSlotWidthNotMultipleOfEight() {
+		new PanColumns(1, 20);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSlotWidthTooWide() {
+		new PanColumns(1, 40);
+	}
+}
@@ -0,0 +1,187 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+public class PanDirectoryScannerTest {
+	private static final String NOISE = "abc xyz:=/.,;\n\t  --0123456789";
+	private static final String[] CARDS = {
+			"4532015112830366", "4532 0151 1283 0366", "371449635398431", "6011-1111-1111-1117", "5555555555554444"};
+
+	private static String log(Random random, int size) {
+		StringBuilder text = new StringBuilder();
+		while (text.length() < size) {
+			if (random.nextInt(40) == 0) {
+				text.append(CARDS[random.nextInt(CARDS.length)]);
+			} else {
+				text.append(NOISE.charAt(random.nextInt(NOISE.length())));
+			}
+		}
+		return text.toString();
+	}
+
+	private static Map<CreditCardType, Long> expected(String text) {
+		Map<CreditCardType, Long> counts = new EnumMap<>(CreditCardType.class);
+		PanScanner scanner = new PanScanner((start, end, type) -> counts.merge(type, 1L, Long::sum));
+		scanner.scan(text);
+		scanner.finish();
+		return counts;
+	}
+
+	private static void assertFindings(Map<CreditCardType, Long> expected, FileFindings findings) {
+		for (CreditCardType type : CreditCardType.values()) {
+			assertEquals(findings.getPath() + " " + type, expected.getOrDefault(type, 0L).longValue(),
+					findings.getCount(type));
+		}
+		assertNull(findings.getError());
+	}
+
+	@Test
+	public void testSweepsPlainGzipAndSegmentedFiles() throws IOException {
+		Random random = new Random(23);
+		Path root = Files.createTempDirectory("pans");
+		Path nested = Files.createDirectories(root.resolve("app/2026/10"));
+		Map<Path, String> contents = new HashMap<>();
+
+		for (int i = 0; i < 30; i++) {
+			Path directory = i % 2 == 0 ? root : nested;
+			String text = log(random, random.nextInt(20000));
+			if (i % 3 == 0) {
+				Path file = directory.resolve("app-" + i + ".log.gz");
+				try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+					out.write(text.getBytes(StandardCharsets.US_ASCII));
+				}
+				contents.put(file, text);
+			} else {
+				Path file = directory.resolve("app-" + i + ".log");
+				Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+				contents.put(file, text);
+			}
+		}
+		// No run breaking byte at all, cannot be split
+		Path digits = root.resolve("digits.txt");
+		Files.write(digits, "4532015112830366".getBytes(StandardCharsets.US_ASCII));
+		contents.put(digits, "4532015112830366");
+		contents.put(Files.createFile(root.resolve("empty.log")), "");
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			// Small segments split most plain files many times
+			DiscoveryReport report = new PanDirectoryScanner(97, pool, TypeChecker.currentTable()).scan(root);
+
+			assertEquals(contents.size(), report.getFiles().size());
+			assertEquals(0, report.getFailedFiles());
+			Map<CreditCardType, Long> total = new EnumMap<>(CreditCardType.class);
+			long bytes = 0;
+			for (Map.Entry<Path, String> entry : contents.entrySet()) {
+				Map<CreditCardType, Long> expected = expected(entry.getValue());
+				FileFindings findings = report.getFiles().get(entry.getKey());
+				assertNotNull(entry.getKey().toString(), findings);
+				assertFindings(expected, findings);
+				assertEquals(entry.getValue().length(), findings.getBytes());
+				expected.forEach((type, count) -> total.merge(type, count, Long::sum));
+				bytes += entry.getValue().length();
+			}
+			for (CreditCardType type : CreditCardType.values()) {
+				assertEquals(total.getOrDefault(type, 0L).longValue(), report.getCount(type));
+			}
+			assertEquals(bytes, report.getBytesScanned());
+			assertEquals(1, report.getFiles().get(digits).getCount(CreditCardType.VISA));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSegmentsStartAfterRunBreaks() throws IOException {
+		Path file = Files.createTempFile("pans", ".log");
+		Files.write(file, "4532 0151 1283 0366\n6011-1111-1111-1117 x 12".getBytes(StandardCharsets.US_ASCII));
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long[] boundaries = PanDirectoryScanner.segmentBoundaries(channel, 4);
+			assertEquals(0, boundaries[0]);
+			assertEquals(20, boundaries[1]);
+			assertEquals(41, boundaries[2]);
+			assertEquals(44, boundaries[boundaries.length - 1]);
+		}
+	}
+
+	@Test
+	public void testCorruptGzipIsReported() throws IOException {
+		Path root = Files.createTempDirectory("pans");
+		Files.write(root.resolve("broken.gz"), new byte[] {1, 2, 3});
+		Files.write(root.resolve("ok.log"), "pan 4532015112830366".getBytes(StandardCharsets.US_ASCII));
+
+		DiscoveryReport report = new PanDirectoryScanner().scan(root);
+		assertEquals(1, report.getFailedFiles());
+		assertNotNull(report.getFiles().get(root.resolve("broken.gz")).getError());
+		assertEquals(1, report.getCount(CreditCardType.VISA));
+	}
+
+	@Test
+	public void testFailedVisitsDoNotAbortTheSweep() throws IOException {
+		Path root = Files.createTempDirectory("pans");
+		Path locked = Files.createDirectories(root.resolve("locked"));
+		PanDirectoryScanner.FileLister lister = new PanDirectoryScanner.FileLister();
+
+		assertEquals(FileVisitResult.CONTINUE,
+				lister.visitFileFailed(locked, new AccessDeniedException(locked.toString())));
+		assertEquals(FileVisitResult.CONTINUE, lister.postVisitDirectory(root, new IOException("listing failed")));
+		assertEquals(FileVisitResult.CONTINUE, lister.postVisitDirectory(root, null));
+		assertEquals(2, lister.failures.size());
+		assertEquals(locked, lister.failures.get(0).getPath());
+		assertTrue(lister.failures.get(0).getError().contains("AccessDeniedException"));
+
+		// A missing tree is one failed entry, not an exception
+		DiscoveryReport missing = new PanDirectoryScanner().scan(root.resolve("missing"));
+		assertEquals(1, missing.getFailedFiles());
+		assertTrue(missing.getFiles().get(root.resolve("missing")).getError().contains("NoSuchFileException"));
+	}
+
+	@Test
+	public void testUnreadableDirectoryIsReported() throws IOException {
+		Path root = Files.createTempDirectory("pans");
+		Files.write(root.resolve("ok.log"), "pan 4532015112830366".getBytes(StandardCharsets.US_ASCII));
+		Path locked = Files.createDirectories(root.resolve("locked"));
+		Files.write(locked.resolve("inner.log"), "pan 5555555555554444".getBytes(StandardCharsets.US_ASCII));
+		Assume.assumeTrue(Files.getFileStore(root).supportsFileAttributeView("posix"));
+
+		Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(locked);
+		Files.setPosixFilePermissions(locked, EnumSet.noneOf(PosixFilePermission.class));
+		try {
+			// Permissions are not enforced for root
+			Assume.assumeFalse(Files.isReadable(locked));
+
+			DiscoveryReport report = new PanDirectoryScanner().scan(root);
+			assertEquals(1, report.getFailedFiles());
+			assertNotNull(report.getFiles().get(locked).getError());
+			assertEquals(1, report.getCount(CreditCardType.VISA));
+			assertEquals(0, report.getCount(CreditCardType.MASTERCARD));
+		} finally {
+			Files.setPosixFilePermissions(locked, permissions);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PanFileScannerTest {
+
+	private static Path file(String content) throws IOException {
+		Path file = Files.createTempFile("pans", ".txt");
+		file.toFile().deleteOnExit();
+		Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+	private static int expectedResult(String line) {
+		int code = ValidationResult.checkNumber(line);
+		int result = code & ValidationResult.TYPE_MASK;
+		if (!ValidationResult.hasFailed(code, ValidationResult.LUHN_FAILED)) {
+			result |= PanFileScanner.RESULT_LUHN_VALID;
+		}
+		if (!ValidationResult.hasFailed(code, ValidationResult.IIN_FAILED | ValidationResult.MALFORMED)) {
+			result |= PanFileScanner.RESULT_IIN_VALID;
+			if (!ValidationResult.hasFailed(code, ValidationResult.LENGTH_FAILED)) {
+				result |= PanFileScanner.RESULT_LENGTH_VALID;
+			}
+		}
+		return result;
+	}
+
+	private static void assertScan(List<String> lines, String content, int chunkSize) throws IOException {
+		Path resultFile = Files.createTempFile("results", ".bin");
+		resultFile.toFile().deleteOnExit();
+		ForkJoinPool pool = new ForkJoinPool(3);
+		ScanReport report;
+		try {
+			report = new PanFileScanner(chunkSize, pool).scan(file(content), resultFile);
+		} finally {
+			pool.shutdown();
+		}
+
+		byte[] results = Files.readAllBytes(resultFile);
+		long[] counts = new long[CreditCardType.values().length];
+		long luhn = 0;
+		long length = 0;
+		long iin = 0;
+		assertEquals(lines.size(), results.length);
+		assertEquals(lines.size(), report.getLines());
+		for (int i = 0; i < lines.size(); i++) {
+			int expected = expectedResult(lines.get(i));
+			assertEquals(lines.get(i), expected, results[i] & 0xFF);
+			counts[expected & PanFileScanner.RESULT_TYPE_MASK]++;
+			luhn += (expected & PanFileScanner.RESULT_LUHN_VALID) != 0 ? 1 : 0;
+			length += (expected & PanFileScanner.RESULT_LENGTH_VALID) != 0 ? 1 : 0;
+			iin += (expected & PanFileScanner.RESULT_IIN_VALID) != 0 ? 1 : 0;
+		}
+		for (CreditCardType type : CreditCardType.values()) {
+			assertEquals(type.name(), counts[type.ordinal()], report.getCount(type));
+		}
+		assertEquals(luhn, report.getLuhnValidCount());
+		assertEquals(length, report.getLengthValidCount());
+		assertEquals(iin, report.getIinValidCount());
+	}
+
+	@Test
+	public void testFlags() throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("4111111111111111");
+		lines.add("4111111111111112");
+		lines.add("411111111111");
+		lines.add("9111111111111111");
+		lines.add("4111x11111111111");
+		lines.add("");
+		String content = String.join("\n", lines) + "\n";
+
+		assertScan(lines, content, 1 << 20);
+		assertEquals(PanFileScanner.RESULT_IIN_VALID | CreditCardType.OTHER.ordinal(), expectedResult("411111111111"));
+		assertEquals(CreditCardType.OTHER.ordinal(), expectedResult("9111111111111111"));
+	}
+
+	@Test
+	public void testLinesAcrossChunks() throws IOException {
+		Random random = new Random(11);
+		String[] prefixes = {"4", "51", "37", "6011", "62", "9", "2202"};
+		List<String> lines = new ArrayList<>();
+		StringBuilder content = new StringBuilder();
+
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder number = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+			int length = 12 + random.nextInt(9);
+			while (number.length() < length) {
+				number.append((char) ('0' + random.nextInt(10)));
+			}
+			lines.add(number.toString());
+			content.append(number).append(random.nextBoolean() ? "\r\n" : "\n");
+		}
+		// Last line without a newline
+		content.setLength(content.length() - (content.charAt(content.length() - 2) == '\r' ? 2 : 1));
+
+		for (int chunkSize : new int[] {1, 7, 64, 1000, 1 << 20}) {
+			assertScan(lines, content.toString(), chunkSize);
+		}
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		assertScan(new ArrayList<>(), "", 64);
+	}
+}
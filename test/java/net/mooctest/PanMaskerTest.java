@@ -0,0 +1,201 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PanMaskerTest {
+	private static final String NOISE = "abc xyz:=/.,;\n\t  --0123456789";
+
+	private static String masked(PanMasker masker, String creditCardNumber) throws IOException {
+		StringBuilder out = new StringBuilder();
+		masker.mask(creditCardNumber, out);
+		return out.toString();
+	}
+
+	@Test
+	public void testFirstSixLastFour() throws IOException {
+		assertEquals("453201******0366", masked(PanMasker.DEFAULT, "4532015112830366"));
+		assertEquals("4532 01** **** 0366", masked(PanMasker.DEFAULT, "4532 0151 1283 0366"));
+		assertEquals("3714-49****-*8431", masked(PanMasker.DEFAULT, "3714-496353-98431"));
+		assertEquals("******0366", masked(PanMasker.DEFAULT, "5112830366"));
+		assertEquals("0366", masked(PanMasker.DEFAULT, "0366"));
+	}
+
+	@Test
+	public void testConfiguredPattern() throws IOException {
+		PanMasker lastFour = new PanMasker(0, 4, 'X');
+		assertEquals("XXXXXXXXXXXX0366", masked(lastFour, "4532015112830366"));
+		assertEquals("################", masked(new PanMasker(0, 0, '#'), "4532015112830366"));
+	}
+
+	@Test
+	public void testByteBufferAndInPlace() {
+		ByteBuffer out = ByteBuffer.allocate(32);
+		PanMasker.DEFAULT.mask("4532 0151 1283 0366", out);
+		out.flip();
+		byte[] written = new byte[out.remaining()];
+		out.get(written);
+		assertEquals("4532 01** **** 0366", new String(written, StandardCharsets.US_ASCII));
+
+		byte[] bytes = "pan=4532015112830366;".getBytes(StandardCharsets.US_ASCII);
+		PanMasker.DEFAULT.mask(bytes, 4, 20);
+		assertEquals("pan=453201******0366;", new String(bytes, StandardCharsets.US_ASCII));
+
+		char[] chars = "pan=4532015112830366;".toCharArray();
+		PanMasker.DEFAULT.mask(chars, 4, 20);
+		assertEquals("pan=453201******0366;", new String(chars));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDigitMaskCharacter() {
+		new PanMasker(6, 4, '0');
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeKeptDigits() {
+		new PanMasker(-1, 4, '*');
+	}
+
+	@Test
+	public void testStreamsMaskWhatTheScannerFinds() throws IOException {
+		Random random = new Random(22);
+
+		for (int round = 0; round < 200; round++) {
+			StringBuilder text = new StringBuilder();
+			while (text.length() < 20000) {
+				if (random.nextInt(30) == 0) {
+					if (random.nextInt(4) == 0) {
+						text.append(random.nextInt(100)).append(' ');
+					}
+					text.append(visa(random, random.nextBoolean() ? " " : ""));
+				} else {
+					text.append(NOISE.charAt(random.nextInt(NOISE.length())));
+				}
+			}
+			String log = text.toString();
+			char[] expected = log.toCharArray();
+			PanScanner scanner = new PanScanner((start, end, type) ->
+					PanMasker.DEFAULT.mask(expected, (int) start, (int) end));
+			scanner.scan(log);
+			long cards = scanner.finish();
+			assertTrue(cards > 0);
+
+			// Short, uneven reads from the underlying stream
+			InputStream source = new ByteArrayInputStream(log.getBytes(StandardCharsets.US_ASCII)) {
+				@Override
+				public synchronized int read(byte[] b, int off, int len) {
+					return super.read(b, off, Math.min(len, 1 + random.nextInt(50)));
+				}
+			};
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			assertEquals(cards, PanMasker.DEFAULT.redact(source, bytes));
+			assertEquals(new String(expected), new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+
+			StringWriter chars = new StringWriter();
+			assertEquals(cards, PanMasker.DEFAULT.redact(new StringReader(log), chars));
+			assertEquals(new String(expected), chars.toString());
+
+			Reader reader = new MaskingReader(new StringReader(log));
+			char[] single = new char[log.length()];
+			for (int i = 0; i < single.length; i++) {
+				single[i] = (char) reader.read();
+			}
+			assertEquals(-1, reader.read());
+			assertArrayEquals(expected, single);
+		}
+	}
+
+	private static String redacted(String log) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PanMasker.DEFAULT.redact(new ByteArrayInputStream(log.getBytes(StandardCharsets.US_ASCII)), bytes);
+		StringWriter chars = new StringWriter();
+		PanMasker.DEFAULT.redact(new StringReader(log), chars);
+		assertEquals(chars.toString(), new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+		return chars.toString();
+	}
+
+	@Test
+	public void testRedactsCardsNextToNumbers() throws IOException {
+		assertEquals("pan 411111******1111 1225", redacted("pan 4111111111111111 1225"));
+		assertEquals("order 42 411111******1111", redacted("order 42 4111111111111111"));
+		assertEquals("card=4111-11**-****-1111 2024-01-01", redacted("card=4111-1111-1111-1111 2024-01-01"));
+		assertEquals("id 12 4532 01** **** 0366 exp 12-25", redacted("id 12 4532 0151 1283 0366 exp 12-25"));
+		assertEquals("411111******1111 555555******4444", redacted("4111111111111111 5555555555554444"));
+	}
+
+	@Test
+	public void testRedactsWholeGroupedCards() throws IOException {
+		// The first twelve digits of each are a valid Maestro number as well
+		assertEquals("card 6011 63** **** 0778 end", redacted("card 6011 6359 0545 0778 end"));
+		assertEquals("6011-73**-****-5462", redacted("6011-7385-2448-5462"));
+		assertEquals("5018 43** **** 0893, 6304 73** **** 4465",
+				redacted("5018 4314 3550 0893, 6304 7327 7048 4465"));
+		assertEquals("order 42 6011 34** **** 7831 exp 12-25", redacted("order 42 6011 3478 1017 7831 exp 12-25"));
+	}
+
+	@Test
+	public void testRedactsInsideLongRuns() throws IOException {
+		StringBuilder log = new StringBuilder("amounts ");
+		StringBuilder expected = new StringBuilder("amounts ");
+		for (int i = 0; i < 300; i++) {
+			String group = i % 2 == 0 ? "0 " : "00-";
+			log.append(group);
+			expected.append(group);
+			if (i % 50 == 7) {
+				log.append("4532 0151 1283 0366 ");
+				expected.append("4532 01** **** 0366 ");
+			}
+		}
+
+		InputStream oneByteReads = new MaskingInputStream(
+				new ByteArrayInputStream(log.toString().getBytes(StandardCharsets.US_ASCII)) {
+					@Override
+					public synchronized int read(byte[] b, int off, int len) {
+						return super.read(b, off, Math.min(len, 1));
+					}
+				});
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int b; (b = oneByteReads.read()) != -1; ) {
+			out.write(b);
+		}
+		assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.US_ASCII));
+		assertEquals(6, ((MaskingInputStream) oneByteReads).getMaskedCount());
+		assertEquals(expected.toString(), redacted(log.toString()));
+	}
+
+	/*
+	 * @return Visa number with a valid check digit, grouped by four
+	 */
+	private static String visa(Random random, String separator) {
+		char[] digits = new char[16];
+		digits[0] = '4';
+		for (int i = 1; i < 16; i++) {
+			digits[i] = (char) ('0' + random.nextInt(10));
+		}
+		for (int check = 0; !LuhnEngine.check(digits, 0, 16); check++) {
+			digits[15] = (char) ('0' + check);
+		}
+		StringBuilder card = new StringBuilder();
+		for (int i = 0; i < 16; i++) {
+			if (i > 0 && i % 4 == 0) {
+				card.append(separator);
+			}
+			card.append(digits[i]);
+		}
+		return card.toString();
+	}
+}
@@ -0,0 +1,268 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PanScannerTest {
+	private static final Pattern RUN = Pattern.compile("[0-9](?:[ -]?[0-9])*");
+	private static final Pattern GROUP = Pattern.compile("[0-9]+");
+	private static final String NOISE = "abcxyz:=/.,;\n\t  --0123456789";
+
+	private static List<String> scan(String text) {
+		List<String> found = new ArrayList<>();
+		PanScanner scanner = new PanScanner((start, end, type) -> found.add(start + "-" + end + " " + type));
+		scanner.scan((CharSequence) text);
+		scanner.finish();
+		return found;
+	}
+
+	/*
+	 * Brute force over every span of whole digit groups of every run
+	 */
+	private static List<String> reference(BinRangeTable table, String text) {
+		List<String> found = new ArrayList<>();
+		Matcher run = RUN.matcher(text);
+		while (run.find()) {
+			List<int[]> groups = new ArrayList<>();
+			Matcher group = GROUP.matcher(run.group());
+			while (group.find()) {
+				if (group.end() - group.start() > PanScanner.MAX_DIGITS) {
+					select(table, text, groups, found);
+					groups.clear();
+				} else {
+					groups.add(new int[] {run.start() + group.start(), run.start() + group.end()});
+				}
+			}
+			select(table, text, groups, found);
+		}
+		return found;
+	}
+
+	private static void select(BinRangeTable table, String text, List<int[]> groups, List<String> found) {
+		List<int[]> candidates = new ArrayList<>();
+		for (int first = 0; first < groups.size(); first++) {
+			StringBuilder digits = new StringBuilder();
+			for (int last = first; last < groups.size(); last++) {
+				digits.append(text, groups.get(last)[0], groups.get(last)[1]);
+				CreditCardType type = table.classify(digits);
+				if (digits.length() >= PanScanner.MIN_DIGITS && digits.length() <= PanScanner.MAX_DIGITS
+						&& LuhnEngine.check(digits.toString()) && type != CreditCardType.OTHER) {
+					int layout = first == last ? 0 : groups.get(first)[1] - groups.get(first)[0] == 4 ? 1 : 2;
+					candidates.add(new int[] {first, last, digits.length(), type.ordinal(), layout});
+				}
+			}
+		}
+		candidates.sort((a, b) -> a[4] != b[4] ? a[4] - b[4] : a[2] != b[2] ? b[2] - a[2]
+				: a[1] - a[0] != b[1] - b[0] ? (a[1] - a[0]) - (b[1] - b[0]) : a[0] - b[0]);
+		boolean[] used = new boolean[groups.size()];
+		List<int[]> chosen = new ArrayList<>();
+		for (int[] candidate : candidates) {
+			boolean free = true;
+			for (int g = candidate[0]; g <= candidate[1]; g++) {
+				free &= !used[g];
+			}
+			if (free) {
+				for (int g = candidate[0]; g <= candidate[1]; g++) {
+					used[g] = true;
+				}
+				chosen.add(candidate);
+			}
+		}
+		chosen.sort((a, b) -> a[0] - b[0]);
+		for (int[] candidate : chosen) {
+			found.add(groups.get(candidate[0])[0] + "-" + groups.get(candidate[1])[1] + " "
+					+ CreditCardType.values()[candidate[3]]);
+		}
+	}
+
+	private static String card(Random random, String prefix, int length) {
+		char[] digits = new char[length];
+		prefix.getChars(0, prefix.length(), digits, 0);
+		for (int i = prefix.length(); i < length; i++) {
+			digits[i] = (char) ('0' + random.nextInt(10));
+		}
+		for (int check = 0; !LuhnEngine.check(digits, 0, length); check++) {
+			digits[length - 1] = (char) ('0' + check);
+		}
+		return new String(digits);
+	}
+
+	@Test
+	public void testFindsFormattedNumbers() {
+		List<String> found = scan("card=4532015112830366 amex 3714-496353-98431, mc 5555 5555 5555 4444.");
+		assertEquals(3, found.size());
+		assertEquals("5-21 VISA", found.get(0));
+		assertEquals("27-44 AMERICAN_EXPRESS", found.get(1));
+		assertEquals("49-68 MASTERCARD", found.get(2));
+	}
+
+	@Test
+	public void testRejectsNonCards() {
+		assertTrue(scan("4532015112830367").isEmpty());
+		assertTrue(scan("9999999999999995").isEmpty());
+		assertTrue(scan("45320151128303661").isEmpty());
+		assertTrue(scan("12345678901234567890123").isEmpty());
+		assertTrue(scan("453201511283").isEmpty());
+		assertEquals(0, scan("4532  015112830366").size());
+		assertEquals(0, scan("4532--015112830366").size());
+		assertEquals(1, scan("4532 - 4532015112830366").size());
+	}
+
+	@Test
+	public void testNumbersNextToCards() {
+		assertEquals(list("4-20 VISA"), scan("pan 4111111111111111 1225"));
+		assertEquals(list("6-22 VISA"), scan("id 12 4111111111111111"));
+		assertEquals(list("9-25 VISA"), scan("order 42 4111111111111111"));
+		assertEquals(list("5-24 VISA"), scan("card=4111-1111-1111-1111 2024-01-01"));
+		assertEquals(list("0-16 VISA"), scan("4532015112830366 1234 5678"));
+		assertEquals(list("9-28 VISA"), scan("order 42 4111 1111 1111 1111 exp 12-25"));
+		assertEquals(list("0-16 VISA", "17-33 MASTERCARD"), scan("4111111111111111 5555555555554444"));
+		assertEquals(list("21-37 VISA"), scan("12345678901234567890 4111111111111111"));
+		assertEquals(list("17-33 VISA"), scan("1234567890123456 4111111111111111"));
+	}
+
+	@Test
+	public void testGroupedCardsAreNotCutShort() {
+		// The first twelve digits of each are a valid Maestro number as well
+		assertEquals(list("5-24 DISCOVER"), scan("card 6011 6359 0545 0778 end"));
+		assertEquals(list("0-19 DISCOVER"), scan("6011-7385-2448-5462"));
+		assertEquals(list("3-22 DISCOVER", "27-46 MAESTRO"), scan("mc 6011 3478 1017 7831 and 5018 4314 3550 0893"));
+		assertEquals(list("0-19 MAESTRO"), scan("6304 7327 7048 4465 12-25"));
+		assertEquals(list("9-28 DISCOVER"), scan("order 42 6011 6359 0545 0778"));
+		assertEquals(list("4-16 MAESTRO"), scan("pan 601163590545 0778"));
+	}
+
+	@Test
+	public void testLongRunsOfGroups() {
+		// Zeros in groups of every length, no BIN range claims them
+		for (int before = 0; before < 140; before += 3) {
+			StringBuilder text = new StringBuilder();
+			for (int i = 0; i < before; i++) {
+				text.append(i % 2 == 0 ? "0" : "00").append(i % 3 == 0 ? ' ' : '-');
+			}
+			int start = text.length();
+			text.append("4111 1111 1111 1111");
+			for (int i = 0; i < 30; i++) {
+				text.append(i % 3 == 0 ? '-' : ' ').append(i % 2 == 0 ? "0" : "000");
+			}
+			assertEquals(text.toString(), list(start + "-" + (start + 19) + " VISA"), scan(text.toString()));
+		}
+	}
+
+	private static List<String> list(String... matches) {
+		return new ArrayList<>(Arrays.asList(matches));
+	}
+
+	@Test
+	public void testRunsSpanChunks() {
+		String text = "x 4532 0151 1283 0366\n6011-1111-1111-1117";
+		byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+		List<String> found = new ArrayList<>();
+		PanScanner scanner = new PanScanner((start, end, type) -> found.add(start + "-" + end + " " + type));
+
+		for (int i = 0; i < bytes.length; i++) {
+			scanner.scan(bytes, i, 1);
+		}
+		assertEquals(1, found.size());
+		assertEquals(2, scanner.finish());
+		assertEquals(scan(text), found);
+		assertEquals(bytes.length, scanner.position());
+
+		scanner.reset();
+		assertEquals(0, scanner.position());
+		assertEquals(0, scanner.finish());
+	}
+
+	@Test
+	public void testNonAsciiDigitsAreNotDigits() {
+		assertTrue(scan("4532015112830366".replace('0', '٠')).isEmpty());
+		byte[] bytes = "4532015112830366".getBytes(StandardCharsets.US_ASCII);
+		bytes[4] = (byte) ('0' | 0x80);
+		PanScanner scanner = new PanScanner((start, end, type) -> { });
+		scanner.scan(bytes, 0, bytes.length);
+		assertEquals(0, scanner.finish());
+	}
+
+	@Test
+	public void testAgreesWithReferenceOnRandomText() throws IOException {
+		Random random = new Random(21);
+		BinRangeTable table = TypeChecker.currentTable();
+		String[][] cards = {{"4", "16"}, {"37", "15"}, {"6011", "16"}, {"5500", "16"}, {"3530", "16"}, {"62", "19"}};
+
+		for (int round = 0; round < 300; round++) {
+			StringBuilder text = new StringBuilder();
+			while (text.length() < 2000) {
+				if (random.nextInt(20) == 0) {
+					String[] sample = cards[random.nextInt(cards.length)];
+					String number = card(random, sample[0], Integer.parseInt(sample[1]));
+					if (random.nextInt(4) == 0) {
+						text.append(random.nextInt(100)).append(random.nextBoolean() ? ' ' : '-');
+					}
+					for (int i = 0; i < number.length(); i++) {
+						if (i > 0 && i % 4 == 0 && random.nextBoolean()) {
+							text.append(random.nextBoolean() ? ' ' : '-');
+						}
+						text.append(number.charAt(i));
+					}
+					if (random.nextInt(4) == 0) {
+						text.append(random.nextBoolean() ? ' ' : '-').append(1000 + random.nextInt(9000));
+					}
+				} else {
+					text.append(NOISE.charAt(random.nextInt(NOISE.length())));
+				}
+			}
+			String log = text.toString();
+			List<String> expected = reference(table, log);
+
+			assertEquals(expected, scan(log));
+
+			List<String> fromBytes = new ArrayList<>();
+			long count = new PanScanner((start, end, type) -> fromBytes.add(start + "-" + end + " " + type))
+					.scan(new ByteArrayInputStream(log.getBytes(StandardCharsets.US_ASCII)));
+			assertEquals(expected, fromBytes);
+			assertEquals(expected.size(), count);
+
+			List<String> fromChunks = new ArrayList<>();
+			PanScanner chunked = new PanScanner(table, (start, end, type) -> fromChunks.add(start + "-" + end + " " + type));
+			char[] chars = log.toCharArray();
+			for (int from = 0; from < chars.length; ) {
+				int size = Math.min(chars.length - from, 1 + random.nextInt(40));
+				chunked.scan(chars, from, size);
+				from += size;
+			}
+			chunked.finish();
+			assertEquals(expected, fromChunks);
+
+			fromChunks.clear();
+			chunked.reset();
+			byte[] bytes = log.getBytes(StandardCharsets.US_ASCII);
+			for (int from = 0; from < bytes.length; ) {
+				int size = Math.min(bytes.length - from, 1 + random.nextInt(40));
+				chunked.scan(bytes, from, size);
+				from += size;
+			}
+			chunked.finish();
+			assertEquals(expected, fromChunks);
+
+			List<String> fromChars = new ArrayList<>();
+			new PanScanner((start, end, type) -> fromChars.add(start + "-" + end + " " + type))
+					.scan(new StringReader(log));
+			assertEquals(expected, fromChars);
+		}
+		assertFalse(reference(table, "4532015112830366").isEmpty());
+	}
+}
@@ -0,0 +1,79 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/*
+ * Every entry point used as the very first class of a fresh JVM, the
+ * card spec registry, IIN ranges & the BIN range table initialize
+ * each other.
+ */
+public class StaticInitializationTest {
+
+	public static void main(String[] args) throws Exception {
+		String pan = "4532015112830366";
+		switch (args[0]) {
+		case "validator":
+			System.out.print(new VisaValidator(pan).validate());
+			break;
+		case "range":
+			System.out.print(new IINRange(2, 51, 55).contains(52));
+			break;
+		case "registry":
+			System.out.print(CardSpecRegistry.builtIn().compile().classify(pan) == CreditCardType.VISA);
+			break;
+		case "table":
+			System.out.print(BinRangeTable.builtIn().classify(pan) == CreditCardType.VISA);
+			break;
+		default:
+			System.out.print(TypeChecker.checkType(pan) == CreditCardType.VISA);
+		}
+	}
+
+	private static String fork(String entryPoint) throws IOException, InterruptedException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				StaticInitializationTest.class.getName(), entryPoint).redirectErrorStream(true).start();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		try (InputStream in = process.getInputStream()) {
+			for (int read; (read = in.read(buffer)) > 0; ) {
+				out.write(buffer, 0, read);
+			}
+		}
+		process.waitFor();
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testValidatorFirst() throws Exception {
+		assertEquals("true", fork("validator"));
+	}
+
+	@Test
+	public void testIINRangeFirst() throws Exception {
+		assertEquals("true", fork("range"));
+	}
+
+	@Test
+	public void testRegistryFirst() throws Exception {
+		assertEquals("true", fork("registry"));
+	}
+
+	@Test
+	public void testTableFirst() throws Exception {
+		assertEquals("true", fork("table"));
+	}
+
+	@Test
+	public void testTypeCheckerFirst() throws Exception {
+		assertEquals("true", fork("typeChecker"));
+	}
+}
@@ -0,0 +1,88 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SwarLuhnTest {
+	private final LuhnValidator reference = new LuhnValidator();
+	private final LuhnValidator swar = new LuhnValidator(true);
+
+	@Test
+	public void testEveryNumberUpToSixDigits() {
+		char[] digits = new char[6];
+		for (int length = 1; length <= 6; length++) {
+			int count = BinRangeTable.pow10(length);
+			for (int value = 0; value < count; value++) {
+				int remaining = value;
+				for (int i = length - 1; i >= 0; i--) {
+					digits[i] = (char) ('0' + remaining % 10);
+					remaining /= 10;
+				}
+				String number = new String(digits, 0, length);
+				byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+				assertEquals(number, reference.algorithmCheck(number), SwarLuhn.check(bytes, 0, length));
+			}
+		}
+	}
+
+	@Test
+	public void testEveryDigitInEveryLane() {
+		// Sixteen digit numbers fill two words, every lane takes every digit
+		byte[] number = "4532015112830366".getBytes(StandardCharsets.US_ASCII);
+		for (int lane = 0; lane < number.length; lane++) {
+			byte original = number[lane];
+			for (int digit = '0'; digit <= '9'; digit++) {
+				number[lane] = (byte) digit;
+				String text = new String(number, StandardCharsets.US_ASCII);
+				assertEquals(text, reference.algorithmCheck(text), SwarLuhn.check(number, 0, number.length));
+			}
+			number[lane] = original;
+		}
+	}
+
+	@Test
+	public void testEveryNonDigitByteIsRejected() {
+		byte[] number = "79927398713000000000".getBytes(StandardCharsets.US_ASCII);
+		for (int lane = 0; lane < number.length; lane++) {
+			byte original = number[lane];
+			for (int value = 0; value < 256; value++) {
+				if (value >= '0' && value <= '9') {
+					continue;
+				}
+				number[lane] = (byte) value;
+				assertFalse(SwarLuhn.check(number, 0, number.length));
+			}
+			number[lane] = original;
+		}
+	}
+
+	@Test
+	public void testRandomLengthsOffsetsAndBuffers() {
+		Random random = new Random(19);
+		for (int i = 0; i < 50000; i++) {
+			int length = random.nextInt(41);
+			int offset = random.nextInt(9);
+			byte[] bytes = new byte[offset + length + random.nextInt(9)];
+			for (int j = 0; j < bytes.length; j++) {
+				bytes[j] = (byte) ('0' + random.nextInt(10));
+			}
+			String number = new String(bytes, offset, length, StandardCharsets.US_ASCII);
+			boolean expected = reference.algorithmCheck(number);
+
+			assertEquals(number, expected, swar.validate(bytes, offset, offset + length));
+			assertEquals(number, expected, reference.validate(bytes, offset, offset + length));
+			ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.BIG_ENDIAN);
+			direct.put(bytes).clear();
+			assertEquals(number, expected, swar.validate(direct, offset, offset + length));
+			assertEquals(number, expected, reference.validate(direct, offset, offset + length));
+			assertEquals(ByteOrder.BIG_ENDIAN, direct.order());
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TrackDataParserTest {
+	private static final ExpiryEvaluator OCTOBER_2026 = new ExpiryEvaluator(
+			Clock.fixed(Instant.parse("2026-10-17T10:00:00Z"), ZoneOffset.UTC));
+
+	private static TrackDataParser parser() {
+		return new TrackDataParser(TypeChecker.currentTable(), OCTOBER_2026);
+	}
+
+	private static String trackOne(String pan, String expiry) {
+		return "%B" + pan + "^DOE/JOHN^" + expiry + "1010000000000?";
+	}
+
+	private static String trackTwo(String pan, String expiry) {
+		return ";" + pan + "=" + expiry + "10100000000?";
+	}
+
+	private static int expected(String pan, boolean expired) {
+		int code = ValidationResult.checkNumber(pan);
+		return expired ? code | ValidationResult.EXPIRY_FAILED : code;
+	}
+
+	private static int validate(String track) {
+		TrackDataParser parser = parser();
+		char[] chars = ("xx" + track + "xx").toCharArray();
+		byte[] bytes = ("xx" + track + "xx").getBytes(StandardCharsets.US_ASCII);
+
+		parser.parse(chars, 2, 2 + track.length());
+		int code = parser.validate();
+		parser.parse(bytes, 2, 2 + track.length());
+		assertEquals(code, parser.validate());
+		parser.parse(ByteBuffer.wrap(bytes), 2, 2 + track.length());
+		assertEquals(code, parser.validate());
+		return code;
+	}
+
+	@Test
+	public void testTrackOneOffsets() {
+		TrackDataParser parser = parser();
+		String track = trackOne("4111111111111111", "2812");
+
+		assertTrue(parser.parse(track.toCharArray(), 0, track.length()));
+		assertEquals(1, parser.track());
+		assertEquals(2, parser.panStart());
+		assertEquals(18, parser.panEnd());
+		assertEquals(track.indexOf("2812"), parser.expiryStart());
+		assertEquals(202812, parser.expiryYearMonth());
+		assertEquals(expected("4111111111111111", false), parser.validate());
+	}
+
+	@Test
+	public void testTrackTwoOffsets() {
+		TrackDataParser parser = parser();
+		byte[] track = trackTwo("378282246310005", "2701").getBytes(StandardCharsets.US_ASCII);
+
+		assertTrue(parser.parse(track, 0, track.length));
+		assertEquals(2, parser.track());
+		assertEquals(1, parser.panStart());
+		assertEquals(16, parser.panEnd());
+		assertEquals(17, parser.expiryStart());
+		assertEquals(202701, parser.expiryYearMonth());
+		assertTrue(ValidationResult.isValid(parser.validate()));
+	}
+
+	@Test
+	public void testWithoutSentinels() {
+		TrackDataParser parser = parser();
+		String trackOne = "B4111111111111111^DOE/JOHN^2812101";
+		String trackTwo = "4111111111111111D2812101";
+
+		assertTrue(parser.parse(trackOne.toCharArray(), 0, trackOne.length()));
+		assertEquals(1, parser.track());
+		assertTrue(ValidationResult.isValid(parser.validate()));
+		assertTrue(parser.parse(trackTwo.toCharArray(), 0, trackTwo.length()));
+		assertEquals(2, parser.track());
+		assertTrue(ValidationResult.isValid(parser.validate()));
+	}
+
+	@Test
+	public void testMatchesCheckNumber() {
+		Random random = new Random(5L);
+		String[] pans = {"4111111111111111", "4111111111111112", "5500000000000004", "6011000990139424",
+				"378282246310005", "3530111333300000", "123456789012", "5019717010103742", "62123456789000003"};
+
+		for (String pan : pans) {
+			for (String expiry : new String[] {"2610", "2609", "3001", "2512"}) {
+				boolean expired = expiry.equals("2609") || expiry.equals("2512");
+				assertEquals(pan + " " + expiry, expected(pan, expired), validate(trackOne(pan, expiry)));
+				assertEquals(pan + " " + expiry, expected(pan, expired), validate(trackTwo(pan, expiry)));
+			}
+		}
+		for (int i = 0; i < 200; i++) {
+			StringBuilder pan = new StringBuilder();
+			int length = 12 + random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				pan.append((char) ('0' + random.nextInt(10)));
+			}
+			assertEquals(expected(pan.toString(), false), validate(trackTwo(pan.toString(), "2911")));
+		}
+	}
+
+	@Test
+	public void testBadExpiry() {
+		String pan = "4111111111111111";
+
+		assertEquals(expected(pan, true), validate(trackTwo(pan, "2613")));
+		assertEquals(expected(pan, true), validate(trackTwo(pan, "2A12")));
+		assertEquals(expected(pan, true), validate(";" + pan + "==101?"));
+		assertEquals(expected(pan, true), validate("%B" + pan + "^DOE/JOHN^^101?"));
+		assertEquals(expected(pan, true), validate(";" + pan + "=28"));
+
+		TrackDataParser parser = parser();
+		String track = ";" + pan + "==101?";
+		parser.parse(track.toCharArray(), 0, track.length());
+		assertEquals(-1, parser.expiryStart());
+		assertEquals(ExpiryDateParser.MALFORMED, parser.expiryYearMonth());
+	}
+
+	@Test
+	public void testMalformed() {
+		TrackDataParser parser = parser();
+		String[] tracks = {"", "%", ";", "%A4111111111111111^DOE^2812?", ";4111111111111111",
+				"%B4111111111111111^DOE/JOHN", ";=2812?", "%B^DOE^2812?", ";41111111111111111111=2812?",
+				"%B4111111111111111^" + "ABCDEFGHIJKLMNOPQRSTUVWXYZ0" + "^2812?"};
+
+		for (String track : tracks) {
+			assertFalse(track, parser.parse(track.toCharArray(), 0, track.length()));
+			assertEquals(0, parser.track());
+			assertEquals(-1, parser.panStart());
+			int code = parser.validate();
+			assertTrue(track, ValidationResult.hasFailed(code, ValidationResult.MALFORMED));
+			assertFalse(ValidationResult.isValid(code));
+		}
+
+		String track = ";4111 1111=2812?";
+		assertTrue(parser.parse(track.toCharArray(), 0, track.length()));
+		assertTrue(ValidationResult.hasFailed(parser.validate(), ValidationResult.MALFORMED));
+	}
+
+	@Test
+	public void testValidateLines() {
+		String data = trackTwo("4111111111111111", "2812") + "\r\n"
+				+ trackOne("4111111111111112", "2812") + "\n"
+				+ "\n"
+				+ "garbage\n"
+				+ trackTwo("378282246310005", "2501");
+		int[] expected = {expected("4111111111111111", false), expected("4111111111111112", false), 0,
+				0, expected("378282246310005", true)};
+		TrackDataParser parser = parser();
+		int[] codes = new int[8];
+
+		byte[] bytes = data.getBytes(StandardCharsets.US_ASCII);
+		assertEquals(5, parser.validateLines(bytes, 0, bytes.length, codes));
+		assertLines(expected, codes);
+		assertEquals(5, parser.validateLines(data.toCharArray(), 0, data.length(), codes));
+		assertLines(expected, codes);
+		assertEquals(5, parser.validateLines(ByteBuffer.wrap(bytes), codes));
+		assertLines(expected, codes);
+		assertEquals(2, parser.validateLines(bytes, 0, data.indexOf("\n\n") + 1, codes));
+		assertEquals(0, parser.validateLines(bytes, 0, 0, codes));
+	}
+
+	private static void assertLines(int[] expected, int[] codes) {
+		for (int i = 0; i < expected.length; i++) {
+			if (i == 2 || i == 3) {
+				assertTrue(ValidationResult.hasFailed(codes[i], ValidationResult.MALFORMED));
+			} else {
+				assertEquals(expected[i], codes[i]);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValidateLinesOverflow() {
+		byte[] bytes = "a\nb\nc".getBytes(StandardCharsets.US_ASCII);
+
+		parser().validateLines(bytes, 0, bytes.length, new int[2]);
+	}
+}
@@ -0,0 +1,146 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TypeCheckerTest {
+
+	private static CreditCardValidator validatorFor(CreditCardType type, String number) {
+		switch (type) {
+			case VISA: return new VisaValidator(number);
+			case MASTERCARD: return new MasterCardValidator(number);
+			case DISCOVER: return new DiscoverValidator(number);
+			case AMERICAN_EXPRESS: return new AmericanExpressValidator(number);
+			case VISA_ELECTRON: return new VisaElectronValidator(number);
+			case MAESTRO: return new MaestroValidator(number);
+			case MAESTRO_UK: return new MaestroUKValidator(number);
+			case JCB: return new JCBValidator(number);
+			case CHINA_TUNION: return new ChinaTUnionValidator(number);
+			case CHINA_UNIONPAY: return new ChinaUnionPayValidator(number);
+			case DINERS_CLUB_INTERNATIONAL: return new DinersClubInternationalValidator(number);
+			case DINERS_CLUB: return new DinersClubValidator(number);
+			case RUPAY: return new RuPayValidator(number);
+			case INTERPAYMENT: return new InterPaymentValidator(number);
+			case INSTAPAYMENT: return new InstaPaymenttValidator(number);
+			case DANKORT: return new DankortValidator(number);
+			case MIR: return new MIRValidator(number);
+			case NPS_PRIDNESTROVIE: return new NPS_PridnestrovieValidator(number);
+			case TROY: return new TroyValidator(number);
+			case UATP: return new UATPValidator(number);
+			case VERVE: return new VerveValidator(number);
+			case LANKAPAY: return new LankaPayValidator(number);
+			default: return null;
+		}
+	}
+
+	@Test
+	public void testLegacyTypesKeepTheirPrecedence() {
+		assertEquals(CreditCardType.VISA, TypeChecker.checkType("4026000000000000"));
+		assertEquals(CreditCardType.AMERICAN_EXPRESS, TypeChecker.checkType("340000000000000"));
+		assertEquals(CreditCardType.MASTERCARD, TypeChecker.checkType("5400000000000000"));
+		assertEquals(CreditCardType.DISCOVER, TypeChecker.checkType("6011000000000000"));
+	}
+
+	@Test
+	public void testEveryOtherTypeIsReachable() {
+		assertEquals(CreditCardType.MAESTRO, TypeChecker.checkType("500000000000"));
+		assertEquals(CreditCardType.MAESTRO_UK, TypeChecker.checkType("6759000000000"));
+		assertEquals(CreditCardType.JCB, TypeChecker.checkType("3528000000000000"));
+		assertEquals(CreditCardType.CHINA_TUNION, TypeChecker.checkType("3100000000000000000"));
+		assertEquals(CreditCardType.CHINA_UNIONPAY, TypeChecker.checkType("6200000000000000"));
+		assertEquals(CreditCardType.DINERS_CLUB_INTERNATIONAL, TypeChecker.checkType("3000000000000000"));
+		assertEquals(CreditCardType.RUPAY, TypeChecker.checkType("6000000000000000"));
+		assertEquals(CreditCardType.INTERPAYMENT, TypeChecker.checkType("6360000000000000"));
+		assertEquals(CreditCardType.INSTAPAYMENT, TypeChecker.checkType("6370000000000000"));
+		assertEquals(CreditCardType.MIR, TypeChecker.checkType("2200000000000000"));
+		assertEquals(CreditCardType.NPS_PRIDNESTROVIE, TypeChecker.checkType("6054740000000000"));
+		assertEquals(CreditCardType.TROY, TypeChecker.checkType("9792000000000000"));
+		assertEquals(CreditCardType.UATP, TypeChecker.checkType("000001000000000"));
+		assertEquals(CreditCardType.VERVE, TypeChecker.checkType("5060990000000000"));
+		assertEquals(CreditCardType.LANKAPAY, TypeChecker.checkType("3571110000000000"));
+	}
+
+	@Test
+	public void testAllMatchingTypes() {
+		assertEquals(EnumSet.of(CreditCardType.INSTAPAYMENT, CreditCardType.MAESTRO),
+				TypeChecker.checkTypes("6370000000000000"));
+		assertEquals(EnumSet.of(CreditCardType.MASTERCARD, CreditCardType.DINERS_CLUB),
+				TypeChecker.checkTypes("5400000000000000"));
+		assertEquals(EnumSet.noneOf(CreditCardType.class), TypeChecker.checkTypes("4532-0151-1283-0366"));
+		assertEquals(0, TypeChecker.checkTypeMask("9999999999999999"));
+	}
+
+	@Test
+	public void testUnknownAndMalformedNumbers() {
+		assertEquals(CreditCardType.OTHER, TypeChecker.checkType("9999999999999999"));
+		assertEquals(CreditCardType.OTHER, TypeChecker.checkType("4532-0151-1283-0366"));
+		assertEquals(CreditCardType.OTHER, TypeChecker.checkType("4"));
+		assertEquals(CreditCardType.OTHER, TypeChecker.checkType(""));
+		assertEquals(CreditCardType.OTHER, TypeChecker.checkType("45320151128303661234"));
+	}
+
+	@Test
+	public void testPrefixesReadInTheSamePass() {
+		int[] prefixes = new int[8];
+
+		assertEquals(CreditCardType.VISA, TypeChecker.checkType("4532015112830366", prefixes));
+		assertEquals(4, prefixes[0]);
+		assertEquals(453201, prefixes[5]);
+		assertEquals(45320151, prefixes[7]);
+		assertEquals(CreditCardType.MASTERCARD, TypeChecker.checkType("5400000000000000", new int[2]));
+
+		assertEquals(8, CreditCardParser.parsePrefixes("6054740000000000", prefixes));
+		assertEquals(6054740, prefixes[6]);
+		assertEquals(3, CreditCardParser.parsePrefixes("605-474", prefixes));
+		assertEquals(2, CreditCardParser.parsePrefixes("60", prefixes));
+	}
+
+	@Test
+	public void testTableAgreesWithValidators() {
+		Random random = new Random(42);
+		String[] prefixes = {"4", "34", "37", "51", "55", "2221", "2720", "6011", "6221", "644", "65",
+				"4026", "4917", "50", "56", "58", "6", "6759", "67677", "3528", "3589", "31", "62", "30",
+				"3095", "38", "54", "60", "652", "636", "637", "639", "4571", "5019", "2200", "605474",
+				"9792", "000001", "5060", "6500", "357111", "1", "7", "8", "9"};
+
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder number = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+			int length = 12 + random.nextInt(8);
+			while (number.length() < length) {
+				number.append((char) ('0' + random.nextInt(10)));
+			}
+			number.setLength(length);
+
+			String card = number.toString();
+			CreditCardType type = TypeChecker.checkType(card);
+
+			long matches = TypeChecker.checkTypeMask(card);
+			for (CreditCardType candidate : CreditCardType.values()) {
+				if (candidate != CreditCardType.OTHER) {
+					assertEquals(card + " " + candidate, validatorFor(candidate, card).validate(),
+							(matches & (1L << candidate.ordinal())) != 0);
+				}
+			}
+
+			if (type == CreditCardType.OTHER) {
+				assertEquals(card, 0, matches);
+			} else {
+				assertTrue(card + " " + type, validatorFor(type, card).validate());
+			}
+
+			int[] scratch = new int[8];
+			int count = CreditCardParser.parsePrefixes(card, scratch);
+			for (CreditCardType candidate : CreditCardType.values()) {
+				if (candidate != CreditCardType.OTHER) {
+					CardSpec spec = CardSpecRegistry.builtIn().get(candidate);
+					assertEquals(card, spec.matches(CreditCardParser.parseNumber(card)), spec.matches(scratch, count));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ValidationMetricsTest {
+
+	@Before
+	public void setUp() {
+		ValidationMetrics.reset();
+		ValidationMetrics.setEnabled(true);
+		ValidationMetrics.setLatencySampling(1);
+	}
+
+	@After
+	public void tearDown() {
+		ValidationMetrics.setEnabled(false);
+		ValidationMetrics.setLatencySampling(ValidationMetrics.DEFAULT_LATENCY_SAMPLING);
+		ValidationMetrics.reset();
+	}
+
+	@Test
+	public void testCountsPerTypeAndReason() {
+		TypeChecker.checkType("4532015112830366");
+		TypeChecker.checkType("371449635398431");
+		new Validator("4532015112830367", "12/99", "12").check();
+
+		MetricsSnapshot snapshot = ValidationMetrics.snapshot();
+		assertEquals(2, snapshot.getTypeCount(CreditCardType.VISA));
+		assertEquals(1, snapshot.getTypeCount(CreditCardType.AMERICAN_EXPRESS));
+		assertEquals(1, snapshot.getFailureCount(FailureReason.LUHN));
+		assertEquals(1, snapshot.getFailureCount(FailureReason.CVV));
+		assertEquals(0, snapshot.getFailureCount(FailureReason.EXPIRY));
+		assertEquals(2, snapshot.getLatency(ValidationStage.CLASSIFY).getCount());
+		assertEquals(1, snapshot.getLatency(ValidationStage.CHECK).getCount());
+	}
+
+	@Test
+	public void testDisabledRecordsNothing() {
+		ValidationMetrics.setEnabled(false);
+		TypeChecker.checkType("4532015112830366");
+		new LuhnValidator().validate("4532015112830367");
+
+		MetricsSnapshot snapshot = ValidationMetrics.snapshot();
+		assertEquals(0, snapshot.getTypeCount(CreditCardType.VISA));
+		assertEquals(0, snapshot.getFailureCount(FailureReason.LUHN));
+		assertEquals(0, snapshot.getLatency(ValidationStage.LUHN).getCount());
+	}
+
+	@Test
+	public void testHistogramPercentilesWithinABucket() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 10000; value++) {
+			histogram.record(value);
+		}
+
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(10000, snapshot.getCount());
+		assertEquals(10000, snapshot.getMax());
+		long median = snapshot.percentile(50);
+		assertTrue(String.valueOf(median), median >= 5000 && median <= 5000 * 9 / 8);
+		long p99 = snapshot.percentile(99);
+		assertTrue(String.valueOf(p99), p99 >= 9900 && p99 <= 10000);
+		for (long value = 0; value < 1L << 40; value = value * 3 + 1) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(value <= LatencyHistogram.highestValueOf(bucket));
+			assertTrue(bucket == 0 || value > LatencyHistogram.highestValueOf(bucket - 1));
+		}
+	}
+
+	@Test
+	public void testMBeanExposesTheCounters() throws Exception {
+		ValidationMetrics.registerMBean();
+		ValidationMetrics.registerMBean();
+		TypeChecker.checkType("6011000990139424");
+
+		ObjectName name = new ObjectName(ValidationMetrics.OBJECT_NAME);
+		Object counts = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "TypeCounts");
+		assertTrue(counts.toString(), counts.toString().contains("DISCOVER"));
+		assertEquals(Boolean.TRUE, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+	}
+}
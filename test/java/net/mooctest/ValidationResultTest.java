@@ -0,0 +1,123 @@
+package net.mooctest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+
+public class ValidationResultTest {
+	private static final ExpiryEvaluator OCTOBER_2026 = new ExpiryEvaluator(
+			Clock.fixed(Instant.parse("2026-10-17T10:00:00Z"), ZoneOffset.UTC));
+	private static final String VISA = "4111111111111111";
+
+	private static int check(String number, String expiry, String cvv) {
+		return new Validator(number, expiry, cvv, OCTOBER_2026).check();
+	}
+
+	@Test
+	public void testValid() {
+		int code = check(VISA, "10/26", "123");
+
+		assertTrue(ValidationResult.isValid(code));
+		assertEquals(CreditCardType.VISA, ValidationResult.type(code));
+		assertEquals(CreditCardType.VISA.ordinal(), code);
+		assertEquals("VISA [VALID]", ValidationResult.describe(code));
+		assertEquals(code, new Validator(VISA).check());
+	}
+
+	@Test
+	public void testLuhn() {
+		int code = new Validator("4111111111111112").check();
+
+		assertEquals(CreditCardType.VISA.ordinal() | ValidationResult.LUHN_FAILED, code);
+		assertEquals("VISA [LUHN]", ValidationResult.describe(code));
+	}
+
+	@Test
+	public void testLengthVersusIin() {
+		// Visa IIN at a length no network allows for it
+		int length = new Validator("41111111111111111111").check();
+		assertEquals(CreditCardType.OTHER, ValidationResult.type(length));
+		assertTrue(ValidationResult.hasFailed(length, ValidationResult.LENGTH_FAILED));
+		assertFalse(ValidationResult.hasFailed(length, ValidationResult.IIN_FAILED));
+		assertFalse(ValidationResult.hasFailed(length, ValidationResult.MALFORMED));
+
+		// IIN no network claims
+		int iin = new Validator("9111111111111111").check();
+		assertEquals(CreditCardType.OTHER, ValidationResult.type(iin));
+		assertTrue(ValidationResult.hasFailed(iin, ValidationResult.IIN_FAILED));
+		assertFalse(ValidationResult.hasFailed(iin, ValidationResult.LENGTH_FAILED));
+		assertTrue(ValidationResult.describe(iin).contains("IIN"));
+		assertFalse(ValidationResult.describe(iin).contains("LENGTH"));
+	}
+
+	@Test
+	public void testMalformed() {
+		for (String number : new String[] {"4111-1111-1111-1111", "4111 1111 1111 1111", "abcd"}) {
+			int code = new Validator(number).check();
+			assertEquals(CreditCardType.OTHER.ordinal() | ValidationResult.MALFORMED | ValidationResult.LUHN_FAILED
+					| ValidationResult.IIN_FAILED, code);
+			assertEquals("OTHER [MALFORMED, LUHN, IIN]", ValidationResult.describe(code));
+		}
+	}
+
+	@Test
+	public void testCvv() {
+		assertTrue(ValidationResult.isValid(check(VISA, "10/26", "1234")));
+		for (String cvv : new String[] {"", "12", "12345"}) {
+			int code = check(VISA, "10/26", cvv);
+			assertEquals(CreditCardType.VISA.ordinal() | ValidationResult.CVV_FAILED, code);
+			assertEquals("VISA [CVV]", ValidationResult.describe(code));
+		}
+	}
+
+	@Test
+	public void testExpiry() {
+		assertTrue(ValidationResult.isValid(check(VISA, "12/30", "123")));
+		for (String expiry : new String[] {"09/26", "13/26", "xx/yy"}) {
+			int code = check(VISA, expiry, "123");
+			assertEquals(expiry, CreditCardType.VISA.ordinal() | ValidationResult.EXPIRY_FAILED, code);
+		}
+		assertEquals("OTHER [LUHN, IIN, CVV, EXPIRY]", ValidationResult.describe(check("9111111111111112", "09/26", "1")));
+	}
+
+	@Test
+	public void testStacklessExceptions() {
+		InvalidCardException first = invalid();
+		assertTrue(first.getStackTrace().length > 0);
+
+		Validator.useStacklessExceptions(true);
+		try {
+			InvalidCardException stackless = invalid();
+			assertEquals(0, stackless.getStackTrace().length);
+			assertEquals(first.getMessage(), stackless.getMessage());
+			assertTrue(stackless instanceof IllegalArgumentException);
+
+			// Suppressed exceptions never leak into another caller's throw
+			stackless.addSuppressed(new IllegalStateException());
+			InvalidCardException next = invalid();
+			assertNotSame(stackless, next);
+			assertEquals(0, next.getSuppressed().length);
+		} finally {
+			Validator.useStacklessExceptions(false);
+		}
+		assertTrue(invalid().getStackTrace().length > 0);
+	}
+
+	private static InvalidCardException invalid() {
+		try {
+			new Validator("4111111111111112").validate();
+		} catch (InvalidCardException e) {
+			return e;
+		}
+		fail("Luhn failure expected");
+		return null;
+	}
+}